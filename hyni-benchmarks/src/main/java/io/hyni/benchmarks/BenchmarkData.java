@@ -0,0 +1,74 @@
+package io.hyni.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixtures shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    /** Base64 of 48 KiB of pseudo-random bytes, about the size of a small screenshot */
+    static final String IMAGE_BASE64 = Base64.getEncoder().encodeToString(randomBytes(48 * 1024));
+
+    static final String USER_TEXT =
+        "Summarize the key differences between optimistic and pessimistic locking in two sentences.";
+
+    static final String ASSISTANT_TEXT =
+        "Optimistic locking lets transactions proceed without locks and detects conflicts at commit time, " +
+        "which suits low-contention workloads. Pessimistic locking acquires locks up front to prevent " +
+        "conflicts, trading throughput for predictability under high contention.";
+
+    private BenchmarkData() {
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    static final List<String> PROVIDERS = List.of("claude", "openai", "mistral", "deepseek");
+
+    static String schemaPath(String provider) {
+        return "schemas/" + provider + ".json";
+    }
+
+    /**
+     * Copies the bundled schemas into a new temporary directory, for a {@code SchemaRegistry}
+     */
+    static Path schemaDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("hyni-schemas");
+        directory.toFile().deleteOnExit();
+        for (String provider : PROVIDERS) {
+            try (InputStream in = BenchmarkData.class.getClassLoader().getResourceAsStream(schemaPath(provider))) {
+                Path file = directory.resolve(provider + ".json");
+                Files.copy(in, file);
+                file.toFile().deleteOnExit();
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * A realistic successful response body of the given provider
+     */
+    static String response(String provider) {
+        String text = ASSISTANT_TEXT.replace("\"", "\\\"");
+        if ("claude".equals(provider)) {
+            return "{\"id\":\"msg_01XFDUDYJgAACzvnptvVoYEL\",\"type\":\"message\",\"role\":\"assistant\"," +
+                "\"content\":[{\"type\":\"text\",\"text\":\"" + text + "\"}]," +
+                "\"model\":\"claude-3-5-sonnet-20241022\",\"stop_reason\":\"end_turn\",\"stop_sequence\":null," +
+                "\"usage\":{\"input_tokens\":24,\"output_tokens\":52}}";
+        }
+        return "{\"id\":\"chatcmpl-9pLz3a\",\"object\":\"chat.completion\",\"created\":1722000000," +
+            "\"model\":\"" + provider + "-model\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\"," +
+            "\"content\":\"" + text + "\"},\"logprobs\":null,\"finish_reason\":\"stop\"}]," +
+            "\"usage\":{\"prompt_tokens\":24,\"completion_tokens\":52,\"total_tokens\":76}}";
+    }
+}
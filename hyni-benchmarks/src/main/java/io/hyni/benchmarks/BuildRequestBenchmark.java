@@ -0,0 +1,56 @@
+package io.hyni.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hyni.core.GeneralContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the request for conversations of increasing length, as a tree and
+ * streamed to an output
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BuildRequestBenchmark {
+
+    @Param({"claude", "openai", "mistral", "deepseek"})
+    public String provider;
+
+    @Param({"1", "10", "100", "1000"})
+    public int messages;
+
+    private GeneralContext context;
+
+    @Setup
+    public void setUp() {
+        context = new GeneralContext(BenchmarkData.schemaPath(provider));
+        context.setSystemMessage("You are a concise assistant.");
+        for (int i = 0; i < messages; i++) {
+            // Conversations alternate and end with a user turn
+            if ((messages - i) % 2 == 1) {
+                context.addUserMessage(BenchmarkData.USER_TEXT);
+            } else {
+                context.addAssistantMessage(BenchmarkData.ASSISTANT_TEXT);
+            }
+        }
+    }
+
+    @Benchmark
+    public JsonNode buildRequest() {
+        return context.buildRequest();
+    }
+
+    @Benchmark
+    public OutputStream writeRequest() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        context.writeRequest(out, false);
+        return out;
+    }
+}
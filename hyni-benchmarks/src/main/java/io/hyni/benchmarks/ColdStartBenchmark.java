@@ -0,0 +1,108 @@
+package io.hyni.benchmarks;
+
+import io.hyni.core.ContextFactory;
+import io.hyni.core.GeneralContext;
+import io.hyni.core.SchemaRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the first request in a fresh JVM, with and without warming up all providers at
+ * startup
+ *
+ * Every fork is a new JVM that runs a single invocation, so class loading, static
+ * initialization and interpretation are all part of the result. {@code startupToFirstRequest}
+ * measures creating the registry and factory, the optional warmup and the first request;
+ * {@code firstRequest} only the first request after startup, which is what warmup improves.
+ * Run with {@code -jvmArgsAppend -XX:SharedArchiveFile=...} to compare with an AppCDS archive.
+ * Time spent in JVM boot before the benchmark runs is reported by {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class ColdStartBenchmark {
+
+    @Param({"false", "true"})
+    public boolean warmup;
+
+    private Path schemaDirectory;
+
+    @Setup
+    public void setUp() throws IOException {
+        schemaDirectory = BenchmarkData.schemaDirectory();
+    }
+
+    /**
+     * A factory started before the measurement
+     */
+    @State(Scope.Benchmark)
+    public static class StartedFactory {
+
+        private ContextFactory factory;
+
+        @Setup
+        public void setUp(ColdStartBenchmark benchmark) {
+            factory = start(benchmark.schemaDirectory, benchmark.warmup);
+        }
+    }
+
+    @Benchmark
+    public OutputStream startupToFirstRequest() throws IOException {
+        return firstRequest(start(schemaDirectory, warmup));
+    }
+
+    @Benchmark
+    public OutputStream firstRequest(StartedFactory started) throws IOException {
+        return firstRequest(started.factory);
+    }
+
+    private static ContextFactory start(Path schemaDirectory, boolean warmup) {
+        SchemaRegistry registry = SchemaRegistry.create()
+            .setSchemaDirectory(schemaDirectory.toString())
+            .build();
+        ContextFactory factory = new ContextFactory(registry);
+        if (warmup) {
+            factory.warmUp(ForkJoinPool.commonPool());
+        }
+        return factory;
+    }
+
+    private static OutputStream firstRequest(ContextFactory factory) throws IOException {
+        GeneralContext context = factory.borrow("claude");
+        try {
+            context.addUserMessage(BenchmarkData.USER_TEXT);
+            OutputStream out = OutputStream.nullOutputStream();
+            context.writeRequest(out, false);
+            return out;
+        } finally {
+            factory.release(context);
+        }
+    }
+
+    /**
+     * Prints the time from JVM start to the first built request, including JVM boot, e.g.
+     * {@code java -cp target/benchmarks.jar io.hyni.benchmarks.ColdStartBenchmark --warmup}
+     */
+    public static void main(String[] args) throws IOException {
+        boolean warmup = args.length > 0 && "--warmup".equals(args[0]);
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        long mainStart = System.currentTimeMillis();
+
+        ContextFactory factory = start(BenchmarkData.schemaDirectory(), warmup);
+        long started = System.currentTimeMillis();
+        firstRequest(factory);
+        long done = System.currentTimeMillis();
+
+        System.out.printf("JVM boot: %d ms, startup%s: %d ms, first request: %d ms, total: %d ms%n",
+            mainStart - jvmStart, warmup ? " with warmup" : "", started - mainStart, done - started, done - jvmStart);
+    }
+}
@@ -0,0 +1,42 @@
+package io.hyni.benchmarks;
+
+import io.hyni.core.CompiledSchema;
+import io.hyni.core.ContextConfig;
+import io.hyni.core.GeneralContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating a context, from a schema file and from a shared compiled schema
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextConstructionBenchmark {
+
+    @Param({"claude", "openai", "mistral", "deepseek"})
+    public String provider;
+
+    private CompiledSchema schema;
+    private ContextConfig config;
+
+    @Setup
+    public void setUp() {
+        schema = CompiledSchema.load(BenchmarkData.schemaPath(provider));
+        config = new ContextConfig();
+    }
+
+    @Benchmark
+    public GeneralContext fromSchemaFile() {
+        return new GeneralContext(BenchmarkData.schemaPath(provider), config);
+    }
+
+    @Benchmark
+    public GeneralContext fromCompiledSchema() {
+        return new GeneralContext(schema, config);
+    }
+}
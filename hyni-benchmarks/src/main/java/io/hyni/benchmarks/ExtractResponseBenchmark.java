@@ -0,0 +1,54 @@
+package io.hyni.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.GeneralContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of extracting the text of a realistic response, from a parsed tree, from raw bytes
+ * through a tree, and from raw bytes in one streaming pass
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExtractResponseBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"claude", "openai", "mistral", "deepseek"})
+    public String provider;
+
+    private GeneralContext context;
+    private byte[] body;
+    private JsonNode tree;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new GeneralContext(BenchmarkData.schemaPath(provider));
+        body = BenchmarkData.response(provider).getBytes(StandardCharsets.UTF_8);
+        tree = MAPPER.readTree(body);
+    }
+
+    @Benchmark
+    public String extractFromTree() {
+        return context.extractTextResponse(tree);
+    }
+
+    @Benchmark
+    public String parseAndExtract() throws IOException {
+        return context.extractTextResponse(MAPPER.readTree(body));
+    }
+
+    @Benchmark
+    public String streamingExtract() {
+        return context.extractResponse(body).getText();
+    }
+}
@@ -0,0 +1,50 @@
+package io.hyni.benchmarks;
+
+import io.hyni.core.GeneralContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of adding a message to a context, with and without an image.
+ * Each operation also clears the history so that it does not grow across invocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageBenchmark {
+
+    @Param({"claude", "openai"})
+    public String provider;
+
+    private GeneralContext context;
+
+    @Setup
+    public void setUp() {
+        context = new GeneralContext(BenchmarkData.schemaPath(provider));
+    }
+
+    @Benchmark
+    public GeneralContext addUserMessage() {
+        context.addUserMessage(BenchmarkData.USER_TEXT);
+        context.clearUserMessages();
+        return context;
+    }
+
+    @Benchmark
+    public GeneralContext addMessage() {
+        context.addMessage("assistant", BenchmarkData.ASSISTANT_TEXT, null, null);
+        context.clearUserMessages();
+        return context;
+    }
+
+    @Benchmark
+    public GeneralContext addMessageWithImage() {
+        context.addUserMessage(BenchmarkData.USER_TEXT, "image/png", BenchmarkData.IMAGE_BASE64);
+        context.clearUserMessages();
+        return context;
+    }
+}
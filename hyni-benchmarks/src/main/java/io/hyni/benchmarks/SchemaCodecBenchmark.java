@@ -0,0 +1,67 @@
+package io.hyni.benchmarks;
+
+import io.hyni.core.CompiledSchema;
+import io.hyni.core.ContextConfig;
+import io.hyni.core.GeneralContext;
+import io.hyni.core.SchemaCodecs;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the schema-driven operations when the schema is interpreted and when it is handled
+ * by the codec generated from it at build time
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchemaCodecBenchmark {
+
+    @Param({"claude", "openai", "mistral", "deepseek"})
+    public String provider;
+
+    @Param({"interpreted", "generated"})
+    public String mode;
+
+    private GeneralContext context;
+    private byte[] body;
+    private int maxTokens;
+
+    @Setup
+    public void setUp() {
+        SchemaCodecs codecs = "generated".equals(mode) ? SchemaCodecs.installed() : SchemaCodecs.none();
+        CompiledSchema schema = CompiledSchema.load(BenchmarkData.schemaPath(provider), codecs);
+        context = new GeneralContext(schema, new ContextConfig());
+        context.setSystemMessage("You are a concise assistant.");
+        context.setParameter("temperature", 0.5);
+        context.addUserMessage(BenchmarkData.USER_TEXT);
+        body = BenchmarkData.response(provider).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public GeneralContext setParameter() {
+        return context.setParameter("max_tokens", 256 + (maxTokens++ & 255));
+    }
+
+    /**
+     * Changing a parameter invalidates the cached skeletons, so every write walks the template
+     */
+    @Benchmark
+    public OutputStream setParameterAndWriteRequest() throws IOException {
+        context.setParameter("max_tokens", 256 + (maxTokens++ & 255));
+        OutputStream out = OutputStream.nullOutputStream();
+        context.writeRequest(out, false);
+        return out;
+    }
+
+    @Benchmark
+    public String extractResponse() {
+        return context.extractResponse(body).getText();
+    }
+}
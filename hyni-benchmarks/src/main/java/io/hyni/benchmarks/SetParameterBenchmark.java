@@ -0,0 +1,53 @@
+package io.hyni.benchmarks;
+
+import io.hyni.core.GeneralContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of setting a validated parameter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SetParameterBenchmark {
+
+    private static final List<String> STOP = List.of("\n\n", "END");
+
+    private GeneralContext context;
+
+    @Setup
+    public void setUp() {
+        context = new GeneralContext(BenchmarkData.schemaPath("openai"));
+    }
+
+    @Benchmark
+    public GeneralContext integerInRange() {
+        return context.setParameter("max_tokens", 1024);
+    }
+
+    @Benchmark
+    public GeneralContext boxedIntegerInRange() {
+        return context.setParameter("max_tokens", (Object) 1024);
+    }
+
+    @Benchmark
+    public GeneralContext floatInRange() {
+        return context.setParameter("temperature", 0.7);
+    }
+
+    @Benchmark
+    public GeneralContext enumValue() {
+        return context.setParameter("response_format", "json");
+    }
+
+    @Benchmark
+    public GeneralContext arrayValue() {
+        return context.setParameter("stop", STOP);
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Codecs generated at build time from the schemas bundled with hyni-core
+ *
+ * With this module on the class path, {@link io.hyni.core.ContextFactory} handles these
+ * schemas with their codecs instead of interpreting them. A schema that differs from the
+ * bundled one in any way is still interpreted.
+ */
+@GenerateSchemaCodecs({
+    "schemas/claude.json",
+    "schemas/openai.json",
+    "schemas/mistral.json",
+    "schemas/deepseek.json"
+})
+package io.hyni.codecs;
+
+import io.hyni.codegen.GenerateSchemaCodecs;
@@ -0,0 +1,228 @@
+package io.hyni.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.hyni.core.CompiledSchema;
+import io.hyni.core.ContextConfig;
+import io.hyni.core.GeneralContext;
+import io.hyni.core.ResponseExtractor;
+import io.hyni.core.SchemaCodec;
+import io.hyni.core.SchemaCodecs;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that each generated codec behaves exactly like the interpreter for its schema
+ */
+@DisplayName("SchemaCodec Tests")
+class SchemaCodecTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static CompiledSchema interpreted(String provider) {
+        return CompiledSchema.load("schemas/" + provider + ".json");
+    }
+
+    private static CompiledSchema generated(String provider) {
+        return CompiledSchema.load("schemas/" + provider + ".json", SchemaCodecs.installed());
+    }
+
+    private static GeneralContext context(CompiledSchema schema, ContextConfig config) {
+        return new GeneralContext(schema, config);
+    }
+
+    private static String request(GeneralContext context, boolean streaming) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        context.writeRequest(out, streaming);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String outcome(Runnable action) {
+        try {
+            action.run();
+            return "ok";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    @Nested
+    @DisplayName("Discovery")
+    class DiscoveryTests {
+
+        @Test
+        @DisplayName("Should install a codec for each bundled schema")
+        void shouldInstallBundledCodecs() {
+            assertThat(SchemaCodecs.installed().getCodecs())
+                .extracting(SchemaCodec::getProviderName)
+                .containsExactlyInAnyOrder("claude", "openai", "mistral", "deepseek");
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"claude", "openai", "mistral", "deepseek"})
+        @DisplayName("Should select the codec generated from the schema")
+        void shouldSelectCodec(String provider) {
+            assertThat(generated(provider).getCodec()).isNotNull();
+            assertThat(generated(provider).getCodec().getProviderName()).isEqualTo(provider);
+            assertThat(interpreted(provider).getCodec()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should interpret a schema that differs from the generated one")
+        void shouldInterpretEditedSchema() throws IOException {
+            ObjectNode schema = (ObjectNode) interpreted("claude").getSchema();
+            schema.withObject("/request_template").put("max_tokens", 512);
+
+            assertThat(CompiledSchema.compile(schema, SchemaCodecs.installed()).getCodec()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Request Writing")
+    class RequestTests {
+
+        private void assertSameRequest(String provider, ContextConfig config, Consumer<GeneralContext> setup)
+                throws IOException {
+            GeneralContext expected = context(interpreted(provider), config);
+            GeneralContext actual = context(generated(provider), config);
+            setup.accept(expected);
+            setup.accept(actual);
+
+            assertThat(request(actual, false)).isEqualTo(request(expected, false));
+            assertThat(request(actual, true)).isEqualTo(request(expected, true));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"claude", "openai", "mistral", "deepseek"})
+        @DisplayName("Should write the same minimal request")
+        void shouldWriteMinimalRequest(String provider) throws IOException {
+            assertSameRequest(provider, new ContextConfig(), context -> context.addUserMessage("Hello"));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"claude", "openai", "mistral", "deepseek"})
+        @DisplayName("Should write the same request with model, system message and parameters")
+        void shouldWriteFullRequest(String provider) throws IOException {
+            assertSameRequest(provider, new ContextConfig(), context -> context
+                .setModel(context.getSupportedModels().get(0))
+                .setSystemMessage("Be brief")
+                .setParameter("max_tokens", 256)
+                .setParameter("temperature", 0.5)
+                .setParameter("top_p", 0.9)
+                .setParameter("stop", List.of("END"))
+                .addUserMessage("Hello")
+                .addAssistantMessage("Hi")
+                .addUserMessage("Tell me more"));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"claude", "openai", "mistral", "deepseek"})
+        @DisplayName("Should apply configured defaults and custom parameters alike")
+        void shouldApplyConfiguredDefaults(String provider) throws IOException {
+            ContextConfig config = new ContextConfig();
+            config.setDefaultMaxTokens(300);
+            config.setDefaultTemperature(0.3);
+            config.setCustomParameters(Map.of("user", MAPPER.getNodeFactory().textNode("u-1")));
+
+            assertSameRequest(provider, config, context -> context
+                .setParameter("custom_flag", true)
+                .setParameter("stream", true)
+                .addUserMessage("Hello"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class ValidationTests {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"claude", "openai", "mistral", "deepseek"})
+        @DisplayName("Should accept and reject the same parameter values")
+        void shouldValidateAlike(String provider) {
+            GeneralContext expected = context(interpreted(provider), new ContextConfig());
+            GeneralContext actual = context(generated(provider), new ContextConfig());
+            List<Map.Entry<String, Object>> cases = List.of(
+                Map.entry("max_tokens", 0),
+                Map.entry("max_tokens", 100),
+                Map.entry("max_tokens", 1_000_000),
+                Map.entry("max_tokens", "many"),
+                Map.entry("temperature", -1.0),
+                Map.entry("temperature", 0.5),
+                Map.entry("temperature", 5),
+                Map.entry("top_p", 1.5),
+                Map.entry("top_k", 10),
+                Map.entry("stop", List.of("a", "b", "c", "d", "e")),
+                Map.entry("stop", "END"),
+                Map.entry("stream", "yes"),
+                Map.entry("unknown", 42));
+
+            for (Map.Entry<String, Object> entry : cases) {
+                assertThat(outcome(() -> actual.setParameter(entry.getKey(), entry.getValue())))
+                    .as("%s = %s", entry.getKey(), entry.getValue())
+                    .isEqualTo(outcome(() -> expected.setParameter(entry.getKey(), entry.getValue())));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Response Extraction")
+    class ResponseTests {
+
+        private static final Map<String, String> RESPONSES = Map.of(
+            "claude", """
+                {"id": "msg_1", "content": [{"type": "text", "text": "Hello \\u00e9"}, {"type": "text", "text": "x"}],
+                 "model": "claude-3-5-sonnet-20241022", "stop_reason": "end_turn", "stop_sequence": null,
+                 "usage": {"input_tokens": 24, "output_tokens": 52}}
+                """,
+            "openai", """
+                {"choices": [{"index": 0, "message": {"role": "assistant", "content": "first"}, "finish_reason": "stop"},
+                             {"index": 1, "message": {"role": "assistant", "content": "second"}}],
+                 "model": "gpt-4o", "usage": {"prompt_tokens": 3, "total_tokens": 76}}
+                """,
+            "mistral", """
+                {"usage": {"total_tokens": 9}, "model": "mistral-large-latest",
+                 "choices": [{"finish_reason": "length", "message": {"content": "bonjour"}}]}
+                """,
+            "deepseek", """
+                {"model": "deepseek-chat", "choices": [], "usage": null}
+                """);
+
+        @ParameterizedTest
+        @ValueSource(strings = {"claude", "openai", "mistral", "deepseek"})
+        @DisplayName("Should extract the same fields")
+        void shouldExtractAlike(String provider) throws IOException {
+            byte[] body = RESPONSES.get(provider).getBytes(StandardCharsets.UTF_8);
+
+            ResponseExtractor.Result expected = interpreted(provider).getResponseExtractor().extract(body);
+            ResponseExtractor.Result actual = generated(provider).getResponseExtractor().extract(body);
+
+            assertThat(actual.getText()).isEqualTo(expected.getText());
+            assertThat(actual.getModel()).isEqualTo(expected.getModel());
+            assertThat(actual.getStopReason()).isEqualTo(expected.getStopReason());
+            assertThat(actual.getUsage()).isEqualTo(expected.getUsage());
+        }
+
+        @Test
+        @DisplayName("Should reject malformed responses like the interpreter")
+        void shouldRejectMalformedResponse() {
+            byte[] body = "{\"content\": [{\"text\": ".getBytes(StandardCharsets.UTF_8);
+
+            assertThatThrownBy(() -> generated("claude").getResponseExtractor().extract(body))
+                .isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> interpreted("claude").getResponseExtractor().extract(body))
+                .isInstanceOf(IOException.class);
+        }
+    }
+}
@@ -0,0 +1,654 @@
+package io.hyni.codegen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.hyni.core.CompiledSchema;
+import io.hyni.core.util.CompiledJsonPath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Java source of the codec for one schema
+ *
+ * Each part mirrors the interpreter it replaces, so that a codec behaves exactly like the
+ * schema would when interpreted: the request writer follows {@code GeneralContext}'s
+ * template walk, the validators follow {@code ParameterValidator}, and the extractor walks
+ * the same path trie as {@code ResponseExtractor}, unrolled into one method per node.
+ */
+final class CodecSource {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] TARGETS = {"TEXT", "USAGE", "MODEL", "STOP_REASON"};
+
+    private final String packageName;
+    private final String className;
+    private final CompiledSchema schema;
+    private final String fingerprint;
+
+    private final StringBuilder out = new StringBuilder(16384);
+    private final List<String> constants = new ArrayList<>();
+    private int indent;
+
+    CodecSource(String packageName, CompiledSchema schema, String fingerprint) {
+        this.packageName = packageName;
+        this.className = classNameOf(schema.getProviderName());
+        this.schema = schema;
+        this.fingerprint = fingerprint;
+    }
+
+    String qualifiedName() {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    String render() {
+        // Members first, so that the constants they need are known when the header is written
+        indent = 1;
+        renderProvider();
+        renderValidation();
+        renderRequestWriter();
+        renderExtraction();
+        String members = out.toString();
+        out.setLength(0);
+        indent = 0;
+
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";");
+            line("");
+        }
+        for (String type : List.of(
+                "com.fasterxml.jackson.core.JsonGenerator",
+                "com.fasterxml.jackson.core.JsonParser",
+                "com.fasterxml.jackson.core.JsonToken",
+                "com.fasterxml.jackson.databind.JsonNode",
+                "com.fasterxml.jackson.databind.node.NullNode",
+                "io.hyni.core.CodecSupport",
+                "io.hyni.core.ResponseExtractor",
+                "io.hyni.core.SchemaCodec",
+                "io.hyni.core.exception.ValidationException",
+                "io.hyni.core.util.CompiledJsonPath")) {
+            line("import " + type + ";");
+        }
+        line("");
+        line("import java.io.IOException;");
+        line("import java.util.List;");
+        line("import java.util.Map;");
+        line("import java.util.Set;");
+        line("");
+        line("/**");
+        line(" * Codec generated from the " + schema.getProviderName() + " schema. Do not edit.");
+        line(" */");
+        line("@javax.annotation.processing.Generated(\"" + SchemaCodecProcessor.class.getName() + "\")");
+        line("public final class " + className + " implements SchemaCodec {");
+        indent = 1;
+        line("");
+        line("private static final String FINGERPRINT = " + literal(fingerprint) + ";");
+        for (String constant : constants) {
+            line(constant);
+        }
+        out.append(members);
+        indent = 0;
+        line("}");
+        return out.toString();
+    }
+
+    private void renderProvider() {
+        line("");
+        line("@Override");
+        line("public String getProviderName() {");
+        line("    return " + literal(schema.getProviderName()) + ";");
+        line("}");
+        line("");
+        line("@Override");
+        line("public String getSchemaFingerprint() {");
+        line("    return FINGERPRINT;");
+        line("}");
+    }
+
+    // Parameter validation, in the order of ParameterValidator.compile
+
+    private void renderValidation() {
+        line("");
+        line("@Override");
+        line("public boolean validateParameter(String name, JsonNode value) {");
+        indent++;
+        line("switch (name) {");
+        indent++;
+        Iterator<Map.Entry<String, JsonNode>> parameters = schema.getSchema().path("parameters").fields();
+        while (parameters.hasNext()) {
+            Map.Entry<String, JsonNode> parameter = parameters.next();
+            line("case " + literal(parameter.getKey()) + ":");
+            indent++;
+            renderChecks(parameter.getKey(), parameter.getValue());
+            line("return true;");
+            indent--;
+        }
+        line("default:");
+        line("    return false;");
+        indent--;
+        line("}");
+        indent--;
+        line("}");
+    }
+
+    private void renderChecks(String name, JsonNode definition) {
+        String prefix = "Parameter '" + name + "' ";
+
+        if (definition.has("max_length")) {
+            int maxLength = definition.get("max_length").asInt();
+            check("value.isTextual() && value.textValue().length() > " + maxLength,
+                prefix + "exceeds maximum length of " + maxLength);
+        }
+        if (definition.has("enum")) {
+            String constant = constantName(name) + "_VALUES";
+            constants.add("private static final Set<JsonNode> " + constant + " = CodecSupport.values("
+                + literal(json(definition.get("enum"))) + ");");
+            check("!" + constant + ".contains(value)", prefix + "has invalid value");
+        }
+        boolean numeric = false;
+        if (definition.has("type")) {
+            String type = definition.get("type").asText();
+            String test = switch (type) {
+                case "integer" -> "value.isIntegralNumber()";
+                case "float", "number" -> "value.isNumber()";
+                case "string" -> "value.isTextual()";
+                case "boolean" -> "value.isBoolean()";
+                case "array" -> "value.isArray()";
+                case "object" -> "value.isObject()";
+                default -> null; // Other type names accept any value
+            };
+            if (test != null) {
+                check("!" + test, prefix + "must be of type " + type);
+                numeric = test.contains("Number");
+            }
+        }
+        if (definition.has("max_items")) {
+            int maxItems = definition.get("max_items").asInt();
+            check("value.isArray() && value.size() > " + maxItems,
+                prefix + "cannot have more than " + maxItems + " items");
+        }
+        if (definition.has("min") || definition.has("max")) {
+            double min = definition.has("min") ? definition.get("min").asDouble() : Double.NEGATIVE_INFINITY;
+            double max = definition.has("max") ? definition.get("max").asDouble() : Double.POSITIVE_INFINITY;
+            // A numeric type check has already rejected other values
+            if (!numeric) {
+                line("if (value.isNumber()) {");
+                indent++;
+            }
+            if (min != Double.NEGATIVE_INFINITY) {
+                check("value.doubleValue() < " + doubleLiteral(min), prefix + "must be >= " + min);
+            }
+            if (max != Double.POSITIVE_INFINITY) {
+                check("value.doubleValue() > " + doubleLiteral(max), prefix + "must be <= " + max);
+            }
+            if (!numeric) {
+                indent--;
+                line("}");
+            }
+        }
+    }
+
+    private void check(String condition, String message) {
+        line("if (" + condition + ") {");
+        line("    throw new ValidationException(" + literal(message) + ");");
+        line("}");
+    }
+
+    // Request writing, in the order of GeneralContext.writeRequest
+
+    private void renderRequestWriter() {
+        ObjectNode template = schema.getRequestTemplate();
+
+        line("");
+        line("@Override");
+        line("public void writeRequest(JsonGenerator gen, Request request) throws IOException {");
+        indent++;
+        line("String model = request.getModel();");
+        line("String system = request.getSystemMessage();");
+        line("JsonNode parameter;");
+        line("");
+        line("gen.writeStartObject();");
+
+        Iterator<Map.Entry<String, JsonNode>> fields = template.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = field.getKey();
+            line("");
+            line("parameter = request.getParameter(" + literal(key) + ");");
+            line("if (parameter != null) {");
+            line("    CodecSupport.writeField(gen, " + literal(key) + ", parameter);");
+            switch (key) {
+                case "messages" -> {
+                    line("} else {");
+                    line("    request.writeMessages(gen);");
+                }
+                case "model" -> {
+                    line("} else if (model != null) {");
+                    line("    gen.writeStringField(\"model\", model);");
+                    renderTemplateValue(key, field.getValue());
+                }
+                case "system" -> {
+                    line("} else if (system != null) {");
+                    line("    gen.writeStringField(\"system\", system);");
+                    renderTemplateValue(key, field.getValue());
+                }
+                case "stream" -> {
+                    line("} else {");
+                    line("    gen.writeBooleanField(\"stream\", request.isStreaming());");
+                }
+                default -> renderTemplateValue(key, field.getValue());
+            }
+            line("}");
+        }
+
+        // Fields the template does not declare
+        if (!template.has("model")) {
+            renderUndeclared("model", "model");
+        }
+        if (!template.has("system")) {
+            renderUndeclared("system", "system");
+        }
+        if (!template.has("messages")) {
+            line("");
+            line("parameter = request.getParameter(\"messages\");");
+            line("if (parameter != null) {");
+            line("    CodecSupport.writeField(gen, \"messages\", parameter);");
+            line("} else {");
+            line("    request.writeMessages(gen);");
+            line("}");
+        }
+
+        line("");
+        line("for (Map.Entry<String, JsonNode> entry : request.getParameters().entrySet()) {");
+        indent++;
+        line("switch (entry.getKey()) {");
+        indent++;
+        List<String> written = new ArrayList<>();
+        template.fieldNames().forEachRemaining(written::add);
+        if (!written.contains("messages")) {
+            written.add("messages");
+        }
+        for (String key : written) {
+            line("case " + literal(key) + ":");
+        }
+        line("    continue;");
+        if (!template.has("model")) {
+            line("case \"model\":");
+            line("    if (model != null) {");
+            line("        continue;");
+            line("    }");
+            line("    break;");
+        }
+        if (!template.has("system")) {
+            line("case \"system\":");
+            line("    if (system != null) {");
+            line("        continue;");
+            line("    }");
+            line("    break;");
+        }
+        line("default:");
+        line("    break;");
+        indent--;
+        line("}");
+        line("CodecSupport.writeField(gen, entry.getKey(), entry.getValue());");
+        indent--;
+        line("}");
+
+        if (!template.has("max_tokens")) {
+            line("");
+            line("Integer maxTokens = request.getDefaultMaxTokens();");
+            line("if (maxTokens != null && request.getParameter(\"max_tokens\") == null) {");
+            line("    gen.writeNumberField(\"max_tokens\", maxTokens);");
+            line("}");
+        }
+        if (!template.has("temperature")) {
+            line("");
+            line("Double temperature = request.getDefaultTemperature();");
+            line("if (temperature != null && request.getParameter(\"temperature\") == null) {");
+            line("    gen.writeNumberField(\"temperature\", temperature);");
+            line("}");
+        }
+        if (!template.has("stream")) {
+            line("");
+            line("if (request.getParameter(\"stream\") == null) {");
+            line("    gen.writeBooleanField(\"stream\", request.isStreaming());");
+            line("}");
+        }
+
+        line("");
+        line("gen.writeEndObject();");
+        indent--;
+        line("}");
+    }
+
+    private void renderUndeclared(String key, String variable) {
+        line("");
+        line("if (" + variable + " != null) {");
+        line("    parameter = request.getParameter(" + literal(key) + ");");
+        line("    if (parameter != null) {");
+        line("        CodecSupport.writeField(gen, " + literal(key) + ", parameter);");
+        line("    } else {");
+        line("        gen.writeStringField(" + literal(key) + ", " + variable + ");");
+        line("    }");
+        line("}");
+    }
+
+    /**
+     * Writes a template literal the way the interpreter's null-skipping writer would
+     */
+    private void renderTemplateValue(String key, JsonNode value) {
+        if (value.isNull()) {
+            return;
+        }
+        line("} else {");
+        if (value.isTextual()) {
+            line("    gen.writeStringField(" + literal(key) + ", " + literal(value.textValue()) + ");");
+        } else {
+            line("    gen.writeFieldName(" + literal(key) + ");");
+            line("    gen.writeRawValue(" + literal(json(withoutNulls(value))) + ");");
+        }
+    }
+
+    private static JsonNode withoutNulls(JsonNode value) {
+        JsonNode copy = value.deepCopy();
+        removeNulls(copy);
+        return copy;
+    }
+
+    private static void removeNulls(JsonNode node) {
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isNull()) {
+                    fields.remove();
+                } else {
+                    removeNulls(field.getValue());
+                }
+            }
+        } else if (node.isArray()) {
+            for (JsonNode item : node) {
+                removeNulls(item);
+            }
+        }
+    }
+
+    // Response extraction, unrolling ResponseExtractor's trie walk
+
+    private void renderExtraction() {
+        CompiledJsonPath[] paths = {
+            schema.getTextAccessor(), schema.getUsageAccessor(),
+            schema.getModelAccessor(), schema.getStopReasonAccessor()
+        };
+
+        Node root = new Node();
+        int targetCount = 0;
+        for (int target = 0; target < paths.length; target++) {
+            if (paths[target] != null) {
+                Node node = root;
+                for (int i = 0; i < paths[target].length(); i++) {
+                    node = node.child(paths[target], i);
+                }
+                node.targets.add(target);
+                targetCount++;
+            }
+        }
+
+        // A path through a captured value is resolved on that value instead
+        for (int target = 0; target < paths.length; target++) {
+            CompiledJsonPath path = paths[target];
+            Node node = root;
+            for (int i = 0; path != null && i < path.length(); i++) {
+                if (!node.targets.isEmpty()) {
+                    String constant = TARGETS[target] + "_NESTED_PATH";
+                    constants.add("private static final CompiledJsonPath " + constant + " = CompiledJsonPath.of("
+                        + stringList(path.subPath(i).getSegments()) + ");");
+                    node.nested.put(target, constant);
+                    break;
+                }
+                node = node.child(path, i);
+            }
+        }
+
+        List<Node> nodes = new ArrayList<>();
+        root.number(nodes);
+
+        line("");
+        line("@Override");
+        line("public ResponseExtractor.Result extractResponse(JsonParser parser) throws IOException {");
+        indent++;
+        line("JsonNode[] values = new JsonNode[" + TARGETS.length + "];");
+        if (targetCount > 0) {
+            line("int[] remaining = {" + targetCount + "};");
+            line("if (parser.nextToken() != null) {");
+            line("    read0(parser, values, remaining);");
+            line("}");
+        }
+        line("return ResponseExtractor.Result.of(values[0], values[1], values[2], values[3]);");
+        indent--;
+        line("}");
+
+        if (targetCount > 0) {
+            for (Node node : nodes) {
+                renderNode(node);
+            }
+        }
+    }
+
+    private void renderNode(Node node) {
+        line("");
+        line("private static boolean read" + node.id
+            + "(JsonParser parser, JsonNode[] values, int[] remaining) throws IOException {");
+        indent++;
+
+        if (!node.targets.isEmpty()) {
+            line("JsonNode value = parser.readValueAsTree();");
+            line("if (value == null) {");
+            line("    value = NullNode.getInstance();");
+            line("}");
+            for (int target : node.targets) {
+                line("values[" + target + "] = value;");
+                line("remaining[0]--;");
+            }
+            for (Map.Entry<Integer, String> nested : node.nested.entrySet()) {
+                line("values[" + nested.getKey() + "] = " + nested.getValue() + ".tryResolve(value);");
+                line("remaining[0]--;");
+            }
+            line("return remaining[0] == 0;");
+            indent--;
+            line("}");
+            return;
+        }
+
+        line("JsonToken token = parser.currentToken();");
+        String branch = "if";
+        if (!node.fields.isEmpty()) {
+            line(branch + " (token == JsonToken.START_OBJECT) {");
+            indent++;
+            line("while (parser.nextToken() == JsonToken.FIELD_NAME) {");
+            indent++;
+            line("String name = parser.currentName();");
+            line("parser.nextToken();");
+            line("switch (name) {");
+            indent++;
+            for (Map.Entry<String, Node> field : node.fields.entrySet()) {
+                line("case " + literal(field.getKey()) + ":");
+                renderChildCall(field.getValue());
+            }
+            line("default:");
+            line("    parser.skipChildren();");
+            indent--;
+            line("}");
+            indent--;
+            line("}");
+            indent--;
+            branch = "} else if";
+        }
+        if (node.elements.length > 0) {
+            line(branch + " (token == JsonToken.START_ARRAY) {");
+            indent++;
+            line("int index = 0;");
+            line("while (parser.nextToken() != JsonToken.END_ARRAY) {");
+            indent++;
+            line("switch (index) {");
+            indent++;
+            for (int index = 0; index < node.elements.length; index++) {
+                if (node.elements[index] != null) {
+                    line("case " + index + ":");
+                    renderChildCall(node.elements[index]);
+                }
+            }
+            line("default:");
+            line("    parser.skipChildren();");
+            indent--;
+            line("}");
+            line("index++;");
+            indent--;
+            line("}");
+            indent--;
+            branch = "} else if";
+        }
+        if (branch.equals("if")) {
+            line("parser.skipChildren();");
+        } else {
+            line("} else {");
+            line("    parser.skipChildren();");
+            line("}");
+        }
+        line("return false;");
+        indent--;
+        line("}");
+    }
+
+    private void renderChildCall(Node child) {
+        line("    if (read" + child.id + "(parser, values, remaining)) {");
+        line("        return true;");
+        line("    }");
+        line("    break;");
+    }
+
+    /**
+     * A position in the trie of response paths
+     */
+    private static final class Node {
+        private final Map<String, Node> fields = new LinkedHashMap<>();
+        private Node[] elements = new Node[0];
+        private final List<Integer> targets = new ArrayList<>();
+        private final Map<Integer, String> nested = new TreeMap<>();
+        private int id;
+
+        private Node child(CompiledJsonPath path, int i) {
+            int index = path.indexAt(i);
+            if (index < 0) {
+                return fields.computeIfAbsent(path.keyAt(i), key -> new Node());
+            }
+            if (elements.length <= index) {
+                elements = Arrays.copyOf(elements, index + 1);
+            }
+            if (elements[index] == null) {
+                elements[index] = new Node();
+            }
+            return elements[index];
+        }
+
+        private void number(List<Node> nodes) {
+            id = nodes.size();
+            nodes.add(this);
+            fields.values().forEach(child -> child.number(nodes));
+            for (Node element : elements) {
+                if (element != null) {
+                    element.number(nodes);
+                }
+            }
+        }
+    }
+
+    // Source helpers
+
+    private void line(String text) {
+        if (!text.isEmpty()) {
+            out.append("    ".repeat(indent)).append(text);
+        }
+        out.append('\n');
+    }
+
+    private static String classNameOf(String providerName) {
+        StringBuilder name = new StringBuilder();
+        boolean upper = true;
+        for (char c : providerName.toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            } else {
+                upper = true;
+            }
+        }
+        if (name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            name.insert(0, "Provider");
+        }
+        return name.append("SchemaCodec").toString();
+    }
+
+    private static String constantName(String name) {
+        StringBuilder constant = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            constant.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        if (constant.length() == 0 || !Character.isJavaIdentifierStart(constant.charAt(0))) {
+            constant.insert(0, '_');
+        }
+        return constant.toString();
+    }
+
+    private static String json(JsonNode node) {
+        try {
+            return MAPPER.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String doubleLiteral(double value) {
+        return Double.toString(value) + "d";
+    }
+
+    private static String stringList(List<String> values) {
+        StringBuilder list = new StringBuilder("List.of(");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                list.append(", ");
+            }
+            list.append(literal(values.get(i)));
+        }
+        return list.append(')').toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,22 @@
+package io.hyni.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code SchemaCodec} per listed schema into the annotated package
+ *
+ * Each codec is named after its provider, such as {@code ClaudeSchemaCodec}, and is
+ * registered as a service so that {@code SchemaCodecs.installed()} finds it.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PACKAGE)
+public @interface GenerateSchemaCodecs {
+
+    /**
+     * Class path resources of the schemas, such as {@code schemas/claude.json}
+     */
+    String[] value();
+}
@@ -0,0 +1,112 @@
+package io.hyni.codegen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.CompiledSchema;
+import io.hyni.core.SchemaCodecs;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates schema codecs for packages annotated with {@link GenerateSchemaCodecs}
+ *
+ * Schemas are read from the processor's class path and compiled with {@link CompiledSchema},
+ * so a schema the runtime would reject fails the build instead. The generated codecs are
+ * registered in {@code META-INF/services/io.hyni.core.SchemaCodec}.
+ */
+@SupportedAnnotationTypes("io.hyni.codegen.GenerateSchemaCodecs")
+public class SchemaCodecProcessor extends AbstractProcessor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<String> generated = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateSchemaCodecs.class)) {
+            String packageName = ((PackageElement) element).getQualifiedName().toString();
+            for (String schemaPath : element.getAnnotation(GenerateSchemaCodecs.class).value()) {
+                generate(element, packageName, schemaPath);
+            }
+        }
+
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void generate(Element element, String packageName, String schemaPath) {
+        JsonNode schema;
+        try (InputStream in = SchemaCodecProcessor.class.getClassLoader().getResourceAsStream(schemaPath)) {
+            if (in == null) {
+                error(element, "Schema not found on the class path: " + schemaPath);
+                return;
+            }
+            schema = MAPPER.readTree(in);
+        } catch (IOException e) {
+            error(element, "Failed to read schema " + schemaPath + ": " + e.getMessage());
+            return;
+        }
+
+        CompiledSchema compiled;
+        try {
+            compiled = CompiledSchema.compile(schema);
+        } catch (RuntimeException e) {
+            error(element, "Invalid schema " + schemaPath + ": " + e.getMessage());
+            return;
+        }
+
+        CodecSource source = new CodecSource(packageName, compiled, SchemaCodecs.fingerprint(schema));
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(source.qualifiedName(), element);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.render());
+            }
+            generated.add(source.qualifiedName());
+        } catch (IOException e) {
+            error(element, "Failed to write codec for " + schemaPath + ": " + e.getMessage());
+        }
+    }
+
+    private void writeServiceFile() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(
+                StandardLocation.CLASS_OUTPUT, "", "META-INF/services/io.hyni.core.SchemaCodec");
+            try (Writer writer = file.openWriter()) {
+                for (String name : generated) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to register schema codecs: " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
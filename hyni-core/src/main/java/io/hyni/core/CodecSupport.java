@@ -0,0 +1,45 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.exception.SchemaException;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Helpers called by generated {@link SchemaCodec}s, sharing the interpreter's behavior
+ * where the generated code would otherwise duplicate it
+ */
+public final class CodecSupport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CodecSupport() {
+    }
+
+    /**
+     * Writes a field, skipping it if the value is a JSON null and skipping null fields of
+     * nested objects, as the interpreted request writer does
+     */
+    public static void writeField(JsonGenerator gen, String name, JsonNode value) throws IOException {
+        GeneralContext.writeField(gen, name, value);
+    }
+
+    /**
+     * Parses the allowed values of an enum parameter
+     * @param json The values as a JSON array
+     * @return The values, compared as JSON values
+     */
+    public static Set<JsonNode> values(String json) {
+        try {
+            Set<JsonNode> values = new HashSet<>();
+            MAPPER.readTree(json).forEach(values::add);
+            return Set.copyOf(values);
+        } catch (IOException e) {
+            throw new SchemaException("Invalid generated enum values: " + json, e);
+        }
+    }
+}
@@ -0,0 +1,698 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.hyni.core.exception.SchemaException;
+import io.hyni.core.exception.ValidationException;
+import io.hyni.core.token.TokenCounter;
+import io.hyni.core.token.TokenCounters;
+import io.hyni.core.util.CompiledJsonPath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Immutable, precompiled view of a provider schema
+ *
+ * Everything a {@link GeneralContext} needs from the schema is resolved once at compile time:
+ * templates are copied, response paths parsed, roles and models indexed, parameter definitions
+ * resolved into typed validators and header values tokenized around the API key placeholder.
+ * A schema compiled with {@link SchemaCodecs} that hold a codec generated from it hands
+ * request writing, parameter validation and response extraction to that codec.
+ * Immutable and thread-safe; it holds no API keys. A single instance is meant to be shared
+ * by every context of a provider, so JSON handed out by the public accessors is a copy.
+ */
+public final class CompiledSchema {
+
+    private static final ObjectMapper SCHEMA_MAPPER = new ObjectMapper();
+
+    private static final List<String> REQUIRED_FIELDS = List.of(
+        "provider", "api", "request_template", "message_format", "response_format"
+    );
+
+    private final JsonNode schema;
+    private final String providerName;
+    private final String endpoint;
+    private final long timeoutMillis;
+    private final int maxRetries;
+    private final int requestsPerMinute;
+    private final int tokensPerMinute;
+    private final int maxContextLength;
+    private final int maxOutputTokens;
+    private final int templateMaxTokens;
+    private final TokenCounter tokenCounter;
+    private final String defaultModel;
+    private final List<String> supportedModels;
+    private final Set<String> supportedModelSet;
+    private final Set<String> validRoles;
+
+    private final boolean multimodal;
+    private final boolean streaming;
+    private final boolean systemMessages;
+    private final String lastMessageRole;
+
+    private final ObjectNode requestTemplate;
+    private final ObjectNode messageStructure;
+    private final ObjectNode textContentFormat;
+    private final ObjectNode imageContentFormat;
+
+    private final CompiledJsonPath textPath;
+    private final CompiledJsonPath errorPath;
+    private final CompiledJsonPath errorTypePath;
+    private final Map<Integer, String> errorCodes;
+    private final CompiledJsonPath contentPath;
+    private final CompiledJsonPath usagePath;
+    private final CompiledJsonPath modelPath;
+    private final CompiledJsonPath stopReasonPath;
+    private final CompiledJsonPath streamDeltaPath;
+    private final ResponseExtractor responseExtractor;
+    private final Set<String> streamEventTypes;
+
+    private final Map<String, ParameterDefinition> parameters;
+    private final List<HeaderTemplate> headerTemplates;
+    private final SchemaCodec codec;
+    private final HeaderBundle anonymousHeaders;
+
+    private CompiledSchema(JsonNode schema, SchemaCodecs codecs) {
+        this.schema = schema.deepCopy();
+
+        validate(schema);
+        codec = codecs.find(schema);
+
+        providerName = schema.get("provider").get("name").asText();
+        endpoint = schema.get("api").get("endpoint").asText();
+        timeoutMillis = schema.get("api").path("timeout").asLong(0);
+        maxRetries = schema.get("api").path("max_retries").asInt(0);
+
+        maxContextLength = schema.path("limits").path("max_context_length").asInt(0);
+        maxOutputTokens = schema.path("limits").path("max_output_tokens").asInt(0);
+        tokenCounter = TokenCounters.forSchema(schema.path("tokenizer"));
+
+        JsonNode rateLimits = schema.path("limits").path("rate_limits");
+        requestsPerMinute = rateLimits.path("requests_per_minute").asInt(0);
+        tokensPerMinute = rateLimits.path("tokens_per_minute").asInt(0);
+
+        JsonNode models = schema.path("models");
+        defaultModel = models.has("default") ? models.get("default").asText() : null;
+        List<String> available = new ArrayList<>();
+        for (JsonNode model : models.path("available")) {
+            available.add(model.asText());
+        }
+        supportedModels = List.copyOf(available);
+        supportedModelSet = models.has("available") ? Set.copyOf(available) : null;
+
+        Set<String> roles = new HashSet<>();
+        for (JsonNode role : schema.path("message_roles")) {
+            roles.add(role.asText());
+        }
+        validRoles = Set.copyOf(roles);
+
+        multimodal = schema.path("multimodal").path("supported").asBoolean(false);
+        streaming = schema.path("features").path("streaming").asBoolean(false);
+        systemMessages = schema.path("system_message").path("supported").asBoolean(false);
+
+        JsonNode messageValidation = schema.path("validation").path("message_validation");
+        lastMessageRole = messageValidation.has("last_message_role")
+            ? messageValidation.get("last_message_role").asText()
+            : null;
+
+        requestTemplate = schema.get("request_template").deepCopy();
+        templateMaxTokens = requestTemplate.path("max_tokens").asInt(0);
+        messageStructure = schema.get("message_format").get("structure").deepCopy();
+
+        JsonNode contentTypes = schema.get("message_format").get("content_types");
+        textContentFormat = contentTypes.has("text") ? contentTypes.get("text").deepCopy() : null;
+        imageContentFormat = contentTypes.has("image") ? contentTypes.get("image").deepCopy() : null;
+
+        JsonNode responseFormat = schema.get("response_format");
+        JsonNode success = responseFormat.get("success");
+        textPath = CompiledJsonPath.compile(success.get("text_path"));
+        contentPath = compilePath(success, "content_path");
+        usagePath = compilePath(success, "usage_path");
+        modelPath = compilePath(success, "model_path");
+        stopReasonPath = success.has("stop_reason_path")
+            ? compilePath(success, "stop_reason_path")
+            : compilePath(success, "finish_reason_path");
+        errorPath = responseFormat.path("error").has("error_path")
+            ? CompiledJsonPath.compile(responseFormat.get("error").get("error_path"))
+            : CompiledJsonPath.of(List.of());
+        errorTypePath = compilePath(responseFormat.path("error"), "error_type_path");
+        responseExtractor = new ResponseExtractor(textPath, usagePath, modelPath, stopReasonPath, codec);
+
+        Map<Integer, String> codes = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> codeFields = schema.path("error_codes").fields();
+        while (codeFields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = codeFields.next();
+            try {
+                codes.put(Integer.parseInt(entry.getKey()), entry.getValue().asText());
+            } catch (NumberFormatException e) {
+                throw new SchemaException("Invalid HTTP status in error_codes: " + entry.getKey());
+            }
+        }
+        errorCodes = Map.copyOf(codes);
+
+        JsonNode stream = responseFormat.path("stream");
+        streamDeltaPath = compilePath(stream, "content_delta_path");
+        Set<String> eventTypes = new HashSet<>();
+        for (JsonNode eventType : stream.path("event_types")) {
+            eventTypes.add(eventType.asText());
+        }
+        streamEventTypes = Set.copyOf(eventTypes);
+
+        Map<String, ParameterDefinition> definitions = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.path("parameters").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            definitions.put(entry.getKey(), new ParameterDefinition(entry.getKey(), entry.getValue()));
+        }
+        parameters = Map.copyOf(definitions);
+
+        headerTemplates = compileHeaders(schema);
+        anonymousHeaders = renderHeaders("");
+    }
+
+    /**
+     * Compiles a parsed schema
+     * @param schema The parsed JSON schema
+     * @return The compiled schema
+     * @throws SchemaException If the schema is invalid
+     */
+    public static CompiledSchema compile(JsonNode schema) {
+        return compile(schema, SchemaCodecs.none());
+    }
+
+    /**
+     * Compiles a parsed schema, using the codec generated from it if there is one
+     * @param schema The parsed JSON schema
+     * @param codecs The available codecs
+     * @return The compiled schema
+     * @throws SchemaException If the schema is invalid
+     */
+    public static CompiledSchema compile(JsonNode schema, SchemaCodecs codecs) {
+        if (schema == null) {
+            throw new SchemaException("Schema cannot be null");
+        }
+        return new CompiledSchema(schema, Objects.requireNonNull(codecs, "Codecs cannot be null"));
+    }
+
+    /**
+     * Loads and compiles a schema from the file system or, failing that, the classpath
+     * @param schemaPath Path to the schema file
+     * @return The compiled schema
+     * @throws SchemaException If the schema cannot be loaded or is invalid
+     */
+    public static CompiledSchema load(String schemaPath) {
+        return compile(readSchema(schemaPath));
+    }
+
+    /**
+     * Loads and compiles a schema, using the codec generated from it if there is one
+     * @param schemaPath Path to the schema file
+     * @param codecs The available codecs
+     * @return The compiled schema
+     * @throws SchemaException If the schema cannot be loaded or is invalid
+     */
+    public static CompiledSchema load(String schemaPath, SchemaCodecs codecs) {
+        return compile(readSchema(schemaPath), codecs);
+    }
+
+    private static CompiledJsonPath compilePath(JsonNode section, String field) {
+        return section.has(field) ? CompiledJsonPath.compile(section.get(field)) : null;
+    }
+
+    static JsonNode readSchema(String schemaPath) {
+        try {
+            Path path = Paths.get(schemaPath);
+
+            if (Files.exists(path)) {
+                // Load from file system
+                try (InputStream in = Files.newInputStream(path)) {
+                    return SCHEMA_MAPPER.readTree(in);
+                }
+            }
+
+            // Try loading from classpath
+            ClassLoader classLoader = CompiledSchema.class.getClassLoader();
+            InputStream resourceStream = classLoader.getResourceAsStream(schemaPath);
+
+            if (resourceStream == null) {
+                // Try with leading slash
+                resourceStream = classLoader.getResourceAsStream("/" + schemaPath);
+            }
+
+            if (resourceStream == null) {
+                throw new SchemaException("Failed to open schema file: " + schemaPath);
+            }
+
+            try (InputStream in = resourceStream) {
+                return SCHEMA_MAPPER.readTree(in);
+            }
+        } catch (IOException e) {
+            throw new SchemaException("Failed to parse schema JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static void validate(JsonNode schema) {
+        // Check required top-level fields
+        for (String field : REQUIRED_FIELDS) {
+            if (!schema.has(field)) {
+                throw new SchemaException("Missing required schema field: " + field);
+            }
+        }
+
+        // Validate API configuration
+        if (!schema.get("api").has("endpoint")) {
+            throw new SchemaException("Missing API endpoint in schema");
+        }
+
+        // Validate message format
+        JsonNode messageFormat = schema.get("message_format");
+        if (!messageFormat.has("structure") || !messageFormat.has("content_types")) {
+            throw new SchemaException("Invalid message format in schema");
+        }
+
+        // Validate response format
+        JsonNode responseFormat = schema.get("response_format");
+        if (!responseFormat.has("success") ||
+            !responseFormat.get("success").has("text_path")) {
+            throw new SchemaException("Invalid response format in schema");
+        }
+    }
+
+    private static List<HeaderTemplate> compileHeaders(JsonNode schema) {
+        List<HeaderTemplate> templates = new ArrayList<>();
+        JsonNode headers = schema.path("headers");
+        JsonNode placeholderNode = schema.path("authentication").path("key_placeholder");
+        String placeholder = placeholderNode.isMissingNode() ? null : placeholderNode.asText();
+
+        // Required headers may carry the API key placeholder
+        Iterator<Map.Entry<String, JsonNode>> required = headers.path("required").fields();
+        while (required.hasNext()) {
+            Map.Entry<String, JsonNode> entry = required.next();
+            templates.add(HeaderTemplate.of(entry.getKey(), entry.getValue().asText(), placeholder));
+        }
+
+        // Optional headers are only sent when they have a non-empty value
+        Iterator<Map.Entry<String, JsonNode>> optional = headers.path("optional").fields();
+        while (optional.hasNext()) {
+            Map.Entry<String, JsonNode> entry = optional.next();
+            if (entry.getValue().isTextual() && !entry.getValue().asText().isEmpty()) {
+                templates.add(HeaderTemplate.of(entry.getKey(), entry.getValue().asText(), null));
+            }
+        }
+
+        return List.copyOf(templates);
+    }
+
+    /**
+     * Renders the HTTP headers for an API key
+     *
+     * Each call renders a new bundle, except for the empty key. Callers that send many
+     * requests with one key keep its bundle and hand it to every context, see
+     * {@link GeneralContext#setApiKey(String, HeaderBundle)}.
+     * @param apiKey The API key, empty if none has been set
+     * @return The headers for the key
+     */
+    public HeaderBundle getHeaderBundle(String apiKey) {
+        return apiKey.isEmpty() ? anonymousHeaders : renderHeaders(apiKey);
+    }
+
+    private HeaderBundle renderHeaders(String apiKey) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (HeaderTemplate template : headerTemplates) {
+            headers.put(template.name, template.render(apiKey));
+        }
+        return new HeaderBundle(headers);
+    }
+
+    /**
+     * Gets the schema this instance was compiled from
+     * @return A copy of the schema as JSON
+     */
+    public JsonNode getSchema() {
+        return schema.deepCopy();
+    }
+
+    /**
+     * Gets the schema this instance was compiled from without copying it. It must not be modified.
+     */
+    JsonNode getSchemaNode() {
+        return schema;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Gets the request timeout declared by the schema's api.timeout
+     * @return The timeout in milliseconds, or 0 if the schema does not declare one
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Gets the retry limit declared by the schema's api.max_retries
+     * @return The maximum number of retries, or 0 if the schema does not declare one
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Gets the request quota declared by limits.rate_limits.requests_per_minute
+     * @return The quota, or 0 if the schema does not declare one
+     */
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    /**
+     * Gets the token quota declared by limits.rate_limits.tokens_per_minute
+     * @return The quota, or 0 if the schema does not declare one
+     */
+    public int getTokensPerMinute() {
+        return tokensPerMinute;
+    }
+
+    /**
+     * Gets the context window declared by limits.max_context_length
+     * @return The maximum number of input and output tokens, or 0 if the schema does not declare one
+     */
+    public int getMaxContextLength() {
+        return maxContextLength;
+    }
+
+    /**
+     * Gets the output limit declared by limits.max_output_tokens
+     * @return The maximum number of output tokens, or 0 if the schema does not declare one
+     */
+    public int getMaxOutputTokens() {
+        return maxOutputTokens;
+    }
+
+    /**
+     * Gets the max_tokens sent by default, as declared by request_template.max_tokens
+     * @return The maximum number of output tokens, or 0 if the template does not declare one
+     */
+    public int getTemplateMaxTokens() {
+        return templateMaxTokens;
+    }
+
+    /**
+     * Gets the token counter declared by the schema's tokenizer section
+     * @return The shared token counter
+     */
+    public TokenCounter getTokenCounter() {
+        return tokenCounter;
+    }
+
+    public String getDefaultModel() {
+        return defaultModel;
+    }
+
+    public List<String> getSupportedModels() {
+        return supportedModels;
+    }
+
+    /**
+     * Checks whether a model may be used with this provider
+     * @param model The model name
+     * @return True if the schema does not restrict models or lists the given one
+     */
+    public boolean isModelSupported(String model) {
+        return supportedModelSet == null || supportedModelSet.contains(model);
+    }
+
+    public Set<String> getValidRoles() {
+        return validRoles;
+    }
+
+    public boolean supportsMultimodal() {
+        return multimodal;
+    }
+
+    public boolean supportsStreaming() {
+        return streaming;
+    }
+
+    public boolean supportsSystemMessages() {
+        return systemMessages;
+    }
+
+    /**
+     * Gets the role the last message must have, if the schema requires one
+     * @return The required role, or null
+     */
+    public String getLastMessageRole() {
+        return lastMessageRole;
+    }
+
+    /**
+     * Gets the request template
+     * @return A copy of the request template
+     */
+    public ObjectNode getRequestTemplate() {
+        return requestTemplate.deepCopy();
+    }
+
+    /**
+     * Gets the request template without copying it. It must not be modified.
+     */
+    ObjectNode getRequestTemplateNode() {
+        return requestTemplate;
+    }
+
+    ObjectNode getMessageStructure() {
+        return messageStructure;
+    }
+
+    ObjectNode getTextContentFormat() {
+        return textContentFormat;
+    }
+
+    ObjectNode getImageContentFormat() {
+        return imageContentFormat;
+    }
+
+    public List<String> getTextPath() {
+        return textPath.getSegments();
+    }
+
+    public CompiledJsonPath getTextAccessor() {
+        return textPath;
+    }
+
+    public List<String> getErrorPath() {
+        return errorPath.getSegments();
+    }
+
+    /**
+     * Gets the compiled path of the error message inside an error response
+     * @return The error path, empty if the schema does not declare one
+     */
+    public CompiledJsonPath getErrorAccessor() {
+        return errorPath;
+    }
+
+    /**
+     * Gets the path of the error type inside an error response
+     * @return The error type path, or null if the schema does not declare one
+     */
+    public List<String> getErrorTypePath() {
+        return errorTypePath != null ? errorTypePath.getSegments() : null;
+    }
+
+    /**
+     * Gets the compiled path of the error type inside an error response
+     * @return The error type path, or null if the schema does not declare one
+     */
+    public CompiledJsonPath getErrorTypeAccessor() {
+        return errorTypePath;
+    }
+
+    /**
+     * Maps an HTTP status to the error type the schema's error_codes declare for it
+     * @param statusCode The HTTP status code
+     * @return The error type, or null if the status is not declared
+     */
+    public String getErrorCode(int statusCode) {
+        return errorCodes.get(statusCode);
+    }
+
+    /**
+     * Gets the path of the full response content
+     * @return The content path, or null if the schema does not declare one
+     */
+    public List<String> getContentPath() {
+        return contentPath != null ? contentPath.getSegments() : null;
+    }
+
+    /**
+     * Gets the compiled path of the full response content
+     * @return The content path, or null if the schema does not declare one
+     */
+    public CompiledJsonPath getContentAccessor() {
+        return contentPath;
+    }
+
+    /**
+     * Gets the compiled path of the token usage inside a response
+     * @return The usage path, or null if the schema does not declare one
+     */
+    public CompiledJsonPath getUsageAccessor() {
+        return usagePath;
+    }
+
+    /**
+     * Gets the compiled path of the model that served a response
+     * @return The model path, or null if the schema does not declare one
+     */
+    public CompiledJsonPath getModelAccessor() {
+        return modelPath;
+    }
+
+    /**
+     * Gets the compiled path of the reason generation stopped, from stop_reason_path or
+     * finish_reason_path
+     * @return The stop reason path, or null if the schema declares neither
+     */
+    public CompiledJsonPath getStopReasonAccessor() {
+        return stopReasonPath;
+    }
+
+    /**
+     * Gets the path of the text delta inside a streamed event
+     * @return The delta path, or null if the schema does not declare one
+     */
+    public List<String> getStreamDeltaPath() {
+        return streamDeltaPath != null ? streamDeltaPath.getSegments() : null;
+    }
+
+    /**
+     * Gets the codec generated from this schema
+     * @return The codec, or null if the schema is interpreted
+     */
+    public SchemaCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Gets the extractor reading the text, usage, model and stop reason paths in one pass
+     * @return The response extractor
+     */
+    public ResponseExtractor getResponseExtractor() {
+        return responseExtractor;
+    }
+
+    /**
+     * Gets the compiled path of the text delta inside a streamed event
+     * @return The delta path, or null if the schema does not declare one
+     */
+    public CompiledJsonPath getStreamDeltaAccessor() {
+        return streamDeltaPath;
+    }
+
+    /**
+     * Gets the server-sent event types the provider emits while streaming
+     * @return The declared event types, empty if none are declared
+     */
+    public Set<String> getStreamEventTypes() {
+        return streamEventTypes;
+    }
+
+    /**
+     * Gets the definition of a parameter
+     * @param name The parameter name
+     * @return The definition, or null if the schema does not define the parameter
+     */
+    public ParameterDefinition getParameterDefinition(String name) {
+        return parameters.get(name);
+    }
+
+    /**
+     * Typed, pre-resolved form of a schema parameter definition
+     */
+    public static final class ParameterDefinition {
+
+        private final String name;
+        private final String type;
+        private final ParameterValidator[] validators;
+
+        private ParameterDefinition(String name, JsonNode definition) {
+            this.name = name;
+            this.type = definition.has("type") ? definition.get("type").asText() : null;
+            this.validators = ParameterValidator.compile(definition);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Validates a value against this definition
+         * @param value The parameter value, never a JSON null
+         * @throws ValidationException If the value violates the definition
+         */
+        public void validate(JsonNode value) {
+            for (ParameterValidator validator : validators) {
+                validator.validate(name, value);
+            }
+        }
+    }
+
+    /**
+     * Header value split around the API key placeholder
+     */
+    private static final class HeaderTemplate {
+
+        private final String name;
+        private final String[] segments;
+
+        private HeaderTemplate(String name, String[] segments) {
+            this.name = name;
+            this.segments = segments;
+        }
+
+        static HeaderTemplate of(String name, String value, String placeholder) {
+            if (placeholder == null || placeholder.isEmpty() || !value.contains(placeholder)) {
+                return new HeaderTemplate(name, new String[] {value});
+            }
+
+            List<String> parts = new ArrayList<>();
+            int start = 0;
+            int index;
+            while ((index = value.indexOf(placeholder, start)) >= 0) {
+                parts.add(value.substring(start, index));
+                start = index + placeholder.length();
+            }
+            parts.add(value.substring(start));
+            return new HeaderTemplate(name, parts.toArray(new String[0]));
+        }
+
+        String render(String apiKey) {
+            if (segments.length == 1) {
+                return segments[0];
+            }
+            StringBuilder value = new StringBuilder(segments[0]);
+            for (int i = 1; i < segments.length; i++) {
+                value.append(apiKey).append(segments[i]);
+            }
+            return value.toString();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package io.hyni.core;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import io.hyni.core.token.TokenCounter;
+import io.hyni.core.util.MediaCache;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -12,9 +15,12 @@ public class ContextConfig {
     private boolean enableStreamingSupport = false;
     private boolean enableValidation = true;
     private boolean enableCaching = true;
+    private boolean enableWindowing = false;
     private Optional<Integer> defaultMaxTokens = Optional.empty();
     private Optional<Double> defaultTemperature = Optional.empty();
     private Map<String, JsonNode> customParameters = new HashMap<>();
+    private MediaCache mediaCache;
+    private TokenCounter tokenCounter;
 
     // Getters and setters
     public boolean isEnableStreamingSupport() {
@@ -41,6 +47,19 @@ public class ContextConfig {
         this.enableCaching = enableCaching;
     }
 
+    /**
+     * Whether the oldest turns are dropped to keep the conversation within the provider's
+     * context window (limits.max_context_length)
+     * @return True if windowing is enabled
+     */
+    public boolean isEnableWindowing() {
+        return enableWindowing;
+    }
+
+    public void setEnableWindowing(boolean enableWindowing) {
+        this.enableWindowing = enableWindowing;
+    }
+
     public Optional<Integer> getDefaultMaxTokens() {
         return defaultMaxTokens;
     }
@@ -64,4 +83,28 @@ public class ContextConfig {
     public void setCustomParameters(Map<String, JsonNode> customParameters) {
         this.customParameters = customParameters;
     }
+
+    /**
+     * Gets the cache that image attachments are encoded through
+     * @return The shared media cache, or null if every attachment is encoded on its own
+     */
+    public MediaCache getMediaCache() {
+        return mediaCache;
+    }
+
+    public void setMediaCache(MediaCache mediaCache) {
+        this.mediaCache = mediaCache;
+    }
+
+    /**
+     * Gets the token counter that overrides the one declared by the schema
+     * @return The token counter, or null to use the schema's
+     */
+    public TokenCounter getTokenCounter() {
+        return tokenCounter;
+    }
+
+    public void setTokenCounter(TokenCounter tokenCounter) {
+        this.tokenCounter = tokenCounter;
+    }
 }
@@ -1,25 +1,72 @@
 package io.hyni.core;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.hyni.core.exception.SchemaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
- * Factory for creating GeneralContext instances with caching and thread-local support
+ * Factory for creating GeneralContext instances with caching, pooling and thread-local support
+ *
+ * Compiled schemas are cached per provider and schema path, so creating a context for a
+ * provider whose schema is already cached involves no file I/O or JSON parsing. Schemas
+ * matching a generated {@link SchemaCodec} on the class path, such as the bundled schemas
+ * with hyni-codecs, are handled by the codec rather than interpreted.
+ * Contexts used for a single request can be recycled with {@link #borrow(String)} and
+ * {@link #release(GeneralContext)}, which keep a bounded number of idle contexts per provider.
+ * The schemas and pooled contexts of a provider are dropped as soon as the registry sees its
+ * schema file change, whether on a {@link SchemaRegistry#refresh()} or while watching the files.
+ * {@link #warmUp(Executor)} prepares all providers ahead of the first request, typically at
+ * application startup.
  */
 public class ContextFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(ContextFactory.class);
 
+    /** Default maximum number of cached schemas */
+    public static final int DEFAULT_MAX_CACHED_SCHEMAS = 64;
+
+    /** Default time-to-live of a cached schema */
+    public static final Duration DEFAULT_SCHEMA_TTL = Duration.ofMinutes(10);
+
+    /** Default maximum number of idle pooled contexts per provider */
+    public static final int DEFAULT_MAX_POOLED_CONTEXTS = 64;
+
+    /**
+     * How contexts that are borrowed but never released are reported
+     */
+    public enum LeakDetection {
+        /** Leaks are not tracked */
+        DISABLED,
+        /** Leaks are counted and logged when the context is garbage collected */
+        SIMPLE,
+        /** Like SIMPLE, and the log includes the stack trace of the borrowing call */
+        PARANOID
+    }
+
     private final SchemaRegistry registry;
     private final ContextConfig defaultConfig;
-    private final Map<String, CacheStats> cacheStats;
+    private final SchemaCache schemaCache;
     private final ThreadLocal<Map<String, GeneralContext>> threadLocalContexts;
+    private final Map<ContextPool.Key, ContextPool> pools = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxPooledContexts = new ConcurrentHashMap<>();
+    private volatile int defaultMaxPooledContexts = DEFAULT_MAX_POOLED_CONTEXTS;
+    private volatile LeakDetection leakDetection = LeakDetection.SIMPLE;
 
     /**
      * Create a new ContextFactory with the given schema registry
@@ -35,13 +82,28 @@ public class ContextFactory {
      * @param defaultConfig The default configuration to use for new contexts
      */
     public ContextFactory(SchemaRegistry registry, ContextConfig defaultConfig) {
+        this(registry, defaultConfig, DEFAULT_MAX_CACHED_SCHEMAS, DEFAULT_SCHEMA_TTL);
+    }
+
+    /**
+     * Create a new ContextFactory with explicit schema cache limits
+     * @param registry The schema registry to use
+     * @param defaultConfig The default configuration to use for new contexts
+     * @param maxCachedSchemas Maximum number of parsed schemas kept in the cache
+     * @param schemaTtl Time after which a cached schema is reloaded; zero disables expiry
+     */
+    public ContextFactory(SchemaRegistry registry, ContextConfig defaultConfig,
+                          int maxCachedSchemas, Duration schemaTtl) {
         if (registry == null) {
             throw new NullPointerException("Registry cannot be null");
         }
         this.registry = registry;
         this.defaultConfig = defaultConfig;
-        this.cacheStats = new ConcurrentHashMap<>();
+        this.schemaCache = new SchemaCache(maxCachedSchemas, schemaTtl);
         this.threadLocalContexts = ThreadLocal.withInitial(ConcurrentHashMap::new);
+
+        // Edited schemas take effect for new contexts without waiting for the cache TTL
+        registry.addChangeListener(providers -> providers.forEach(this::invalidateSchema));
     }
 
     /**
@@ -73,20 +135,13 @@ public class ContextFactory {
             // Get schema path from registry
             Path schemaPath = registry.resolveSchemaPath(provider);
 
-            // Update cache stats
-            CacheStats stats = cacheStats.computeIfAbsent(provider, k -> new CacheStats());
-
-            // Check if schema is already cached (for this simple implementation, we always count as hit after first load)
-            if (stats.getTotalRequests() > 0) {
-                stats.incrementHitCount();
-            } else {
-                stats.incrementMissCount();
-            }
-
             logger.debug("Creating context for provider: {} using schema: {}", provider, schemaPath);
 
-            // Use the string path constructor of GeneralContext
-            return new GeneralContext(schemaPath.toString(), config);
+            CompiledSchema schema = config.isEnableCaching()
+                ? schemaCache.get(provider, schemaPath, this::loadSchema)
+                : loadSchema(schemaPath);
+
+            return new GeneralContext(schema, config);
 
         } catch (Exception e) {
             logger.error("Failed to create context for provider: {}", provider, e);
@@ -95,8 +150,173 @@ public class ContextFactory {
         }
     }
 
+    private CompiledSchema loadSchema(Path schemaPath) {
+        CompiledSchema schema = CompiledSchema.load(schemaPath.toString(), SchemaCodecs.installed());
+        if (schema.getCodec() != null) {
+            logger.debug("Using generated codec {} for schema: {}", schema.getCodec().getClass().getName(), schemaPath);
+        }
+        return schema;
+    }
+
+    /**
+     * Borrow a context for the specified provider from the pool
+     *
+     * The context is in its initial state, apart from the API key, which is kept across
+     * borrowings. It must be handed back with {@link #release(GeneralContext)} once the
+     * request is done and must not be used afterwards. Borrowing never blocks: a new
+     * context is created when none is idle. Unlike {@link #getThreadLocalContext(String)},
+     * pooled contexts are not tied to a thread, so they suit virtual threads and contexts
+     * released on a different thread than the one that borrowed them.
+     * @param provider The provider name
+     * @return A context for the exclusive use of the caller until released
+     * @throws SchemaException If the provider is not found
+     */
+    public GeneralContext borrow(String provider) {
+        return borrow(provider, defaultConfig);
+    }
+
+    /**
+     * Borrow a context for the specified provider with custom configuration from the pool
+     *
+     * Contexts are pooled per provider and configuration instance, so a configuration
+     * should be created once and reused rather than created per borrowing.
+     * @param provider The provider name
+     * @param config The configuration to use
+     * @return A context for the exclusive use of the caller until released
+     * @throws SchemaException If the provider is not found
+     * @see #borrow(String)
+     */
+    public GeneralContext borrow(String provider, ContextConfig config) {
+        if (provider == null || provider.trim().isEmpty()) {
+            throw new IllegalArgumentException("Provider name cannot be null or empty");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("Config cannot be null");
+        }
+
+        ContextPool pool = pools.computeIfAbsent(new ContextPool.Key(provider, config),
+            key -> new ContextPool(this, key, maxPooledContexts.getOrDefault(provider, defaultMaxPooledContexts)));
+        GeneralContext context = pool.poll();
+        if (context == null) {
+            context = createContext(provider, config);
+            pool.created();
+        }
+        context.lease = pool.lease(context, leakDetection);
+        return context;
+    }
+
+    /**
+     * Run an action with a pooled context for the specified provider
+     *
+     * The context is borrowed for the duration of the action and released when it returns
+     * or throws, so it cannot leak. The action must not keep the context, though it may
+     * {@link GeneralContext#fork()} it.
+     * @param provider The provider name
+     * @param action The action to run
+     * @return The result of the action
+     * @throws SchemaException If the provider is not found
+     */
+    public <T> T withContext(String provider, Function<GeneralContext, T> action) {
+        GeneralContext context = borrow(provider);
+        try {
+            return action.apply(context);
+        } finally {
+            release(context);
+        }
+    }
+
+    /**
+     * Return a borrowed context to its pool
+     *
+     * The context is reset and kept for the next borrower, unless the provider's pool is
+     * full or its schema was invalidated since the context was borrowed.
+     * @param context A context obtained from {@link #borrow(String)} of this factory
+     * @throws IllegalArgumentException If the context was not borrowed from this factory
+     * @throws IllegalStateException If the context was already released
+     */
+    public void release(GeneralContext context) {
+        Objects.requireNonNull(context, "Context cannot be null");
+        ContextPool.Lease lease = context.lease;
+        if (lease == null || lease.pool().owner() != this) {
+            throw new IllegalArgumentException("Context was not borrowed from this factory");
+        }
+        if (!lease.close()) {
+            throw new IllegalStateException("Context was already released");
+        }
+
+        ContextPool pool = lease.pool();
+        if (pools.get(pool.key()) == pool) {
+            pool.recycle(context);
+        }
+    }
+
+    /**
+     * Set the maximum number of idle pooled contexts kept per provider
+     * @param max The maximum, zero to disable recycling
+     */
+    public void setMaxPooledContexts(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Pool size cannot be negative");
+        }
+        defaultMaxPooledContexts = max;
+        pools.forEach((key, pool) -> {
+            if (!maxPooledContexts.containsKey(key.provider())) {
+                pool.setMaxIdle(max);
+            }
+        });
+    }
+
+    /**
+     * Set the maximum number of idle pooled contexts kept for a provider
+     * @param provider The provider name
+     * @param max The maximum, zero to disable recycling
+     */
+    public void setMaxPooledContexts(String provider, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Pool size cannot be negative");
+        }
+        maxPooledContexts.put(provider, max);
+        pools.forEach((key, pool) -> {
+            if (key.provider().equals(provider)) {
+                pool.setMaxIdle(max);
+            }
+        });
+    }
+
+    /**
+     * Set how borrowed contexts that are never released are reported
+     * @param leakDetection The detection level, applied to contexts borrowed from now on
+     */
+    public void setLeakDetection(LeakDetection leakDetection) {
+        this.leakDetection = Objects.requireNonNull(leakDetection, "Leak detection cannot be null");
+    }
+
+    /**
+     * Get pool statistics of a provider
+     * @param provider The provider name
+     * @return Pool statistics summed over the provider's configurations, all zero if
+     *         nothing was borrowed for the provider
+     */
+    public PoolStats getPoolStats(String provider) {
+        PoolStats total = new PoolStats(0, 0, 0, 0, 0);
+        for (ContextPool pool : pools.values()) {
+            if (pool.provider().equals(provider)) {
+                PoolStats stats = pool.stats();
+                total = new PoolStats(total.createdCount + stats.createdCount, total.reusedCount + stats.reusedCount,
+                    total.discardedCount + stats.discardedCount, total.leakedCount + stats.leakedCount,
+                    total.idleCount + stats.idleCount);
+            }
+        }
+        return total;
+    }
+
     /**
      * Get a thread-local context for the specified provider
+     *
+     * The context stays attached to the calling thread until cleared. Prefer
+     * {@link #withContext(String, Function)} or {@link #borrow(String)} on virtual threads,
+     * where each task runs on a new thread and thread-local contexts would be created per
+     * task and never reused.
      * @param provider The provider name
      * @return A thread-local GeneralContext instance
      */
@@ -105,6 +325,65 @@ public class ContextFactory {
         return contexts.computeIfAbsent(provider, p -> createContext(p));
     }
 
+    /**
+     * Loads the schemas of all available providers in parallel and runs each through a
+     * request and a response once
+     *
+     * Meant for application startup, so that the first real request pays neither for reading
+     * and compiling its schema nor for loading and initializing the request and response code.
+     * Each provider's request is built from a single user message and never sent, and its
+     * response is the sample structure declared by the schema. The context used is released
+     * to the pool, so the first borrowing also finds an idle context. A provider that fails
+     * to warm up is logged and reported, without affecting the others.
+     * @param executor The executor to warm the providers up on
+     * @return The outcome per provider
+     */
+    public WarmupStats warmUp(Executor executor) {
+        long start = System.nanoTime();
+        List<String> providers = getAvailableProviders();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[providers.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            String provider = providers.get(i);
+            tasks[i] = CompletableFuture.runAsync(() -> warmUp(provider), executor)
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    logger.warn("Failed to warm up provider: {}", provider, cause);
+                    failures.put(provider, String.valueOf(cause.getMessage()));
+                    return null;
+                });
+        }
+        CompletableFuture.allOf(tasks).join();
+
+        List<String> warmed = new ArrayList<>(providers);
+        warmed.removeAll(failures.keySet());
+        WarmupStats stats = new WarmupStats(warmed, failures, Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Warmed up {} of {} providers in {} ms", warmed.size(), providers.size(),
+            stats.getElapsed().toMillis());
+        return stats;
+    }
+
+    private void warmUp(String provider) {
+        GeneralContext context = borrow(provider);
+        try {
+            context.addUserMessage("Hello");
+            context.buildRequest();
+            context.writeRequest(OutputStream.nullOutputStream(), false);
+
+            JsonNode sample = context.getCompiledSchema().getSchemaNode()
+                .path("response_format").path("success").path("structure");
+            if (sample.isObject()) {
+                context.extractResponse(sample.toString().getBytes(StandardCharsets.UTF_8));
+                context.extractTextResponse(sample);
+            }
+        } catch (IOException e) {
+            throw new SchemaException("Failed to write warmup request for provider: " + provider, e);
+        } finally {
+            release(context);
+        }
+    }
+
     /**
      * Clear thread-local contexts
      */
@@ -113,10 +392,27 @@ public class ContextFactory {
     }
 
     /**
-     * Clear the cache
+     * Clear the schema cache and context pools, and reset their statistics
      */
     public void clearCache() {
-        cacheStats.clear();
+        schemaCache.clear();
+        pools.values().forEach(ContextPool::clear);
+        pools.clear();
+    }
+
+    /**
+     * Drop the cached schema and pooled contexts of a provider so the next context reloads it
+     * @param provider The provider name
+     */
+    public void invalidateSchema(String provider) {
+        schemaCache.invalidate(provider);
+        pools.values().removeIf(pool -> {
+            if (pool.provider().equals(provider)) {
+                pool.clear();
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
@@ -124,18 +420,12 @@ public class ContextFactory {
      * @return Cache statistics
      */
     public CacheStats getCacheStats() {
-        long totalHits = cacheStats.values().stream()
-            .mapToLong(CacheStats::getHitCount)
-            .sum();
-        long totalMisses = cacheStats.values().stream()
-            .mapToLong(CacheStats::getMissCount)
-            .sum();
-
-        CacheStats combined = new CacheStats();
-        combined.hitCount = totalHits;
-        combined.missCount = totalMisses;
-        combined.cacheSize = cacheStats.size();
-        return combined;
+        CacheStats stats = new CacheStats();
+        stats.hitCount = schemaCache.hitCount();
+        stats.missCount = schemaCache.missCount();
+        stats.evictionCount = schemaCache.evictionCount();
+        stats.cacheSize = schemaCache.size();
+        return stats;
     }
 
     /**
@@ -164,11 +454,12 @@ public class ContextFactory {
     }
 
     /**
-     * Cache statistics
+     * Snapshot of schema cache statistics
      */
     public static class CacheStats {
         private long hitCount = 0;
         private long missCount = 0;
+        private long evictionCount = 0;
         private long cacheSize = 0;
 
         public long getHitCount() {
@@ -179,6 +470,10 @@ public class ContextFactory {
             return missCount;
         }
 
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
         public long getCacheSize() {
             return cacheSize;
         }
@@ -191,17 +486,80 @@ public class ContextFactory {
             long total = getTotalRequests();
             return total == 0 ? 0.0 : (double) hitCount / total;
         }
+    }
+
+    /**
+     * Outcome of {@link #warmUp(Executor)}
+     */
+    public static class WarmupStats {
+        private final List<String> warmedProviders;
+        private final Map<String, String> failures;
+        private final Duration elapsed;
+
+        WarmupStats(List<String> warmedProviders, Map<String, String> failures, Duration elapsed) {
+            this.warmedProviders = Collections.unmodifiableList(warmedProviders);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.elapsed = elapsed;
+        }
+
+        public List<String> getWarmedProviders() {
+            return warmedProviders;
+        }
+
+        /** The error message per provider that failed to warm up */
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+
+        public Duration getElapsed() {
+            return elapsed;
+        }
+    }
+
+    /**
+     * Snapshot of the statistics of a provider's context pool
+     */
+    public static class PoolStats {
+        private final long createdCount;
+        private final long reusedCount;
+        private final long discardedCount;
+        private final long leakedCount;
+        private final int idleCount;
+
+        PoolStats(long createdCount, long reusedCount, long discardedCount, long leakedCount, int idleCount) {
+            this.createdCount = createdCount;
+            this.reusedCount = reusedCount;
+            this.discardedCount = discardedCount;
+            this.leakedCount = leakedCount;
+            this.idleCount = idleCount;
+        }
+
+        /** Contexts created because none was idle */
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        /** Borrowings served by an idle context */
+        public long getReusedCount() {
+            return reusedCount;
+        }
+
+        /** Released contexts dropped because the pool was full */
+        public long getDiscardedCount() {
+            return discardedCount;
+        }
 
-        void incrementHitCount() {
-            hitCount++;
+        /** Borrowed contexts garbage collected without being released */
+        public long getLeakedCount() {
+            return leakedCount;
         }
 
-        void incrementMissCount() {
-            missCount++;
+        public int getIdleCount() {
+            return idleCount;
         }
 
-        void setCacheSize(long size) {
-            this.cacheSize = size;
+        public long getBorrowCount() {
+            return createdCount + reusedCount;
         }
     }
 }
@@ -0,0 +1,222 @@
+package io.hyni.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Idle contexts of one provider and configuration, recycled by {@link ContextFactory#borrow(String)}
+ *
+ * The pool is lock-free and holds no per-thread state, so it behaves the same on platform
+ * and virtual threads. It only bounds the number of idle contexts: a borrower never waits,
+ * a context is created when none is idle, and a released context is dropped when the pool
+ * is full. Idle contexts are spread over stripes selected by thread id, so that concurrent
+ * borrowers mostly touch different deques; a borrower whose stripe is empty takes from the
+ * others before creating a context. Each stripe holds its share of the bound, rounded up.
+ */
+final class ContextPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContextPool.class);
+
+    private static final int MAX_STRIPES =
+        Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    /**
+     * Identifies a pool: contexts are only interchangeable if created with the same config
+     */
+    record Key(String provider, ContextConfig config) {
+    }
+
+    private final ContextFactory owner;
+    private final Key key;
+    private final Stripe[] stripes;
+    private volatile int maxIdlePerStripe;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+
+    ContextPool(ContextFactory owner, Key key, int maxIdle) {
+        this.owner = owner;
+        this.key = key;
+        // Small pools keep a single stripe so that the bound stays exact
+        int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, maxIdle / 4)));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxIdlePerStripe = perStripe(maxIdle);
+    }
+
+    ContextFactory owner() {
+        return owner;
+    }
+
+    Key key() {
+        return key;
+    }
+
+    String provider() {
+        return key.provider();
+    }
+
+    void setMaxIdle(int maxIdle) {
+        int limit = perStripe(maxIdle);
+        maxIdlePerStripe = limit;
+        for (Stripe stripe : stripes) {
+            while (stripe.count.get() > limit && stripe.idle.pollLast() != null) {
+                stripe.count.decrementAndGet();
+                discarded.increment();
+            }
+        }
+    }
+
+    /**
+     * Takes an idle context, preferring the calling thread's stripe
+     * @return The context, or null if none is idle
+     */
+    GeneralContext poll() {
+        int home = stripeIndex();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(home + i) & (stripes.length - 1)];
+            GeneralContext context = stripe.idle.pollFirst();
+            if (context != null) {
+                stripe.count.decrementAndGet();
+                reused.increment();
+                return context;
+            }
+        }
+        return null;
+    }
+
+    void created() {
+        created.increment();
+    }
+
+    /**
+     * Resets a released context and keeps it if the calling thread's stripe is not full
+     */
+    void recycle(GeneralContext context) {
+        context.reset();
+        Stripe stripe = stripes[stripeIndex()];
+        if (stripe.count.incrementAndGet() <= maxIdlePerStripe) {
+            stripe.idle.offerFirst(context);
+        } else {
+            stripe.count.decrementAndGet();
+            discarded.increment();
+        }
+    }
+
+    void clear() {
+        for (Stripe stripe : stripes) {
+            while (stripe.idle.pollFirst() != null) {
+                stripe.count.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Marks a context as borrowed from this pool
+     * @param context The borrowed context
+     * @param leakDetection How unreleased contexts are reported
+     * @return The lease, released by {@link ContextFactory#release(GeneralContext)}
+     */
+    Lease lease(GeneralContext context, ContextFactory.LeakDetection leakDetection) {
+        Lease lease = new Lease(this, leakDetection == ContextFactory.LeakDetection.PARANOID
+            ? new Throwable("Context borrowed by " + Thread.currentThread())
+            : null);
+        if (leakDetection != ContextFactory.LeakDetection.DISABLED) {
+            lease.cleanable = LeakCleaner.CLEANER.register(context, lease);
+        }
+        return lease;
+    }
+
+    ContextFactory.PoolStats stats() {
+        int idle = 0;
+        for (Stripe stripe : stripes) {
+            idle += stripe.count.get();
+        }
+        return new ContextFactory.PoolStats(created.sum(), reused.sum(), discarded.sum(), leaked.sum(), idle);
+    }
+
+    private int perStripe(int maxIdle) {
+        return (maxIdle + stripes.length - 1) / stripes.length;
+    }
+
+    @SuppressWarnings("deprecation") // Thread.threadId() needs Java 19
+    private int stripeIndex() {
+        if (stripes.length == 1) {
+            return 0;
+        }
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & (stripes.length - 1);
+    }
+
+    private static final class Stripe {
+        private final Deque<GeneralContext> idle = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger count = new AtomicInteger();
+    }
+
+    /**
+     * One borrowing of a context
+     *
+     * Registered with a cleaner when leak detection is enabled: the context becoming
+     * unreachable before the lease is closed means the borrower never released it. The
+     * lease must not reference the context, or the context would never become unreachable.
+     */
+    static final class Lease implements Runnable {
+        private final ContextPool pool;
+        private final Throwable borrowSite;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private Cleaner.Cleanable cleanable;
+
+        private Lease(ContextPool pool, Throwable borrowSite) {
+            this.pool = pool;
+            this.borrowSite = borrowSite;
+        }
+
+        ContextPool pool() {
+            return pool;
+        }
+
+        /**
+         * Closes the lease
+         * @return False if it was already closed
+         */
+        boolean close() {
+            if (!open.compareAndSet(true, false)) {
+                return false;
+            }
+            if (cleanable != null) {
+                cleanable.clean();
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            if (!open.compareAndSet(true, false)) {
+                return;
+            }
+            pool.leaked.increment();
+            if (borrowSite != null) {
+                logger.warn("Context for provider {} was garbage collected without being released",
+                    pool.provider(), borrowSite);
+            } else {
+                logger.warn("Context for provider {} was garbage collected without being released; " +
+                    "use LeakDetection.PARANOID to record where it was borrowed", pool.provider());
+            }
+        }
+    }
+
+    private static final class LeakCleaner {
+        static final Cleaner CLEANER = Cleaner.create();
+    }
+}
@@ -1,18 +1,29 @@
 package io.hyni.core;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.FloatNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import io.hyni.core.exception.SchemaException;
 import io.hyni.core.exception.ValidationException;
+import io.hyni.core.token.TokenCounter;
 import io.hyni.core.util.Base64Utils;
-import io.hyni.core.util.JsonPathResolver;
+import io.hyni.core.util.CompiledJsonPath;
+import io.hyni.core.util.MediaSource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.OutputStream;
 import java.nio.file.Paths;
 import java.util.*;
 
@@ -21,35 +32,39 @@ import java.util.*;
  *
  * This class manages the context for interacting with language model APIs,
  * including message handling, parameter configuration, and request/response processing.
+ * Everything derived from the schema lives in a shared {@link CompiledSchema}; an instance
+ * only holds the mutable conversation state on top of it.
  *
  * @note This class is NOT thread-safe. In multi-threaded environments, each thread
  *       should maintain its own instance. Consider using ThreadLocal storage:
  *       {@code ThreadLocal<GeneralContext> context = ThreadLocal.withInitial(() -> new GeneralContext("schema.json"));}
+ *       To branch a conversation across threads, give each thread a {@link #fork()}.
  */
 public class GeneralContext {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final ObjectMapper objectMapper;
-    private final JsonNode schema;
+    private final CompiledSchema compiledSchema;
     private final ContextConfig config;
+    private final TokenCounter tokenCounter;
 
-    // Schema elements
-    private String providerName;
-    private String endpoint;
-    private Map<String, String> headers;
+    // Conversation state
+    private HeaderBundle headers;
+    private final MessageHistory messages;
+    private final Map<String, JsonNode> parameters;
     private String modelName;
     private Optional<String> systemMessage;
-    private List<JsonNode> messages;
-    private Map<String, JsonNode> parameters;
     private String apiKey;
-    private Set<String> validRoles;
 
-    // Cached schema paths
-    private List<String> textPath;
-    private List<String> errorPath;
-    private JsonNode messageStructure;
-    private JsonNode textContentFormat;
-    private JsonNode imageContentFormat;
-    private JsonNode requestTemplate;
+    private int systemTokens;
+
+    // Request bytes around the message history, per streaming flag; see writeRequest
+    private final byte[][] skeletons = new byte[2][];
+    private final int[] skeletonSplits = new int[2];
+
+    // Set while borrowed from a ContextFactory pool
+    ContextPool.Lease lease;
 
     /**
      * Constructs a general context with the given schema path and configuration
@@ -58,10 +73,7 @@ public class GeneralContext {
      * @throws SchemaException If the schema is invalid or cannot be loaded
      */
     public GeneralContext(String schemaPath, ContextConfig config) {
-        this.objectMapper = new ObjectMapper();
-        this.config = config;
-        this.schema = loadSchema(schemaPath);
-        initialize();
+        this(CompiledSchema.load(schemaPath), config);
     }
 
     /**
@@ -71,182 +83,57 @@ public class GeneralContext {
      * @throws SchemaException If the schema is invalid
      */
     public GeneralContext(JsonNode schema, ContextConfig config) {
-        this.objectMapper = new ObjectMapper();
-        this.config = config;
-        this.schema = schema;
-        initialize();
+        this(CompiledSchema.compile(schema), config);
     }
 
     /**
-     * Constructs a general context with default configuration
-     * @param schemaPath Path to the schema file
-     * @throws SchemaException If the schema is invalid or cannot be loaded
+     * Constructs a general context over a shared compiled schema
+     * @param compiledSchema The compiled schema, may be shared between contexts
+     * @param config Configuration options
      */
-    public GeneralContext(String schemaPath) {
-        this(schemaPath, new ContextConfig());
-    }
-
-    private void initialize() {
-        this.headers = new HashMap<>();
-        this.messages = new ArrayList<>();
+    public GeneralContext(CompiledSchema compiledSchema, ContextConfig config) {
+        this.objectMapper = OBJECT_MAPPER;
+        this.compiledSchema = Objects.requireNonNull(compiledSchema, "Compiled schema cannot be null");
+        this.config = config;
+        this.tokenCounter = config.getTokenCounter() != null
+            ? config.getTokenCounter()
+            : compiledSchema.getTokenCounter();
+        this.messages = new MessageHistory();
         this.parameters = new HashMap<>();
-        this.validRoles = new HashSet<>();
         this.systemMessage = Optional.empty();
         this.apiKey = "";
-
-        validateSchema();
-        cacheSchemaElements();
-        applyDefaults();
-        buildHeaders();
-    }
-
-    private JsonNode loadSchema(String schemaPath) {
-        try {
-            Path path = Paths.get(schemaPath);
-
-            if (Files.exists(path)) {
-                // Load from file system
-                return objectMapper.readTree(Files.newInputStream(path));
-            } else {
-                // Try loading from classpath
-                InputStream resourceStream = getClass().getClassLoader()
-                    .getResourceAsStream(schemaPath);
-
-                if (resourceStream == null) {
-                    // Try with leading slash
-                    resourceStream = getClass().getClassLoader()
-                        .getResourceAsStream("/" + schemaPath);
-                }
-
-                if (resourceStream == null) {
-                    throw new SchemaException("Failed to open schema file: " + schemaPath);
-                }
-
-                return objectMapper.readTree(resourceStream);
-            }
-        } catch (IOException e) {
-            throw new SchemaException("Failed to parse schema JSON: " + e.getMessage(), e);
-        }
-    }
-
-    private void validateSchema() {
-        // Check required top-level fields
-        List<String> requiredFields = Arrays.asList(
-            "provider", "api", "request_template", "message_format", "response_format"
-        );
-
-        for (String field : requiredFields) {
-            if (!schema.has(field)) {
-                throw new SchemaException("Missing required schema field: " + field);
-            }
-        }
-
-        // Validate API configuration
-        if (!schema.get("api").has("endpoint")) {
-            throw new SchemaException("Missing API endpoint in schema");
-        }
-
-        // Validate message format
-        JsonNode messageFormat = schema.get("message_format");
-        if (!messageFormat.has("structure") || !messageFormat.has("content_types")) {
-            throw new SchemaException("Invalid message format in schema");
-        }
-
-        // Validate response format
-        JsonNode responseFormat = schema.get("response_format");
-        if (!responseFormat.has("success") ||
-            !responseFormat.get("success").has("text_path")) {
-            throw new SchemaException("Invalid response format in schema");
-        }
+        this.modelName = compiledSchema.getDefaultModel();
+        this.headers = compiledSchema.getHeaderBundle(apiKey);
     }
 
-    private void cacheSchemaElements() {
-        // Cache provider info
-        providerName = schema.get("provider").get("name").asText();
-        endpoint = schema.get("api").get("endpoint").asText();
-
-        // Cache valid roles
-        if (schema.has("message_roles")) {
-            for (JsonNode role : schema.get("message_roles")) {
-                validRoles.add(role.asText());
-            }
-        }
-
-        // Cache request template
-        requestTemplate = schema.get("request_template").deepCopy();
-
-        // Cache response paths
-        textPath = JsonPathResolver.parseJsonPath(
-            schema.get("response_format").get("success").get("text_path")
-        );
-
-        if (schema.get("response_format").has("error") &&
-            schema.get("response_format").get("error").has("error_path")) {
-            errorPath = JsonPathResolver.parseJsonPath(
-                schema.get("response_format").get("error").get("error_path")
-            );
-        } else {
-            errorPath = new ArrayList<>();
-        }
-
-        // Cache message formats
-        messageStructure = schema.get("message_format").get("structure").deepCopy();
-
-        JsonNode contentTypes = schema.get("message_format").get("content_types");
-        if (contentTypes.has("text")) {
-            textContentFormat = contentTypes.get("text").deepCopy();
-        }
-        if (contentTypes.has("image")) {
-            imageContentFormat = contentTypes.get("image").deepCopy();
-        }
+    private GeneralContext(GeneralContext source) {
+        this.objectMapper = source.objectMapper;
+        this.compiledSchema = source.compiledSchema;
+        this.config = source.config;
+        this.tokenCounter = source.tokenCounter;
+        this.messages = source.messages.fork();
+        this.parameters = new HashMap<>(source.parameters);
+        this.systemMessage = source.systemMessage;
+        this.systemTokens = source.systemTokens;
+        this.apiKey = source.apiKey;
+        this.modelName = source.modelName;
+        this.headers = source.headers;
+        System.arraycopy(source.skeletons, 0, skeletons, 0, skeletons.length);
+        System.arraycopy(source.skeletonSplits, 0, skeletonSplits, 0, skeletonSplits.length);
     }
 
-    private void buildHeaders() {
-        headers.clear();
-
-        // Process required headers
-        if (schema.has("headers") && schema.get("headers").has("required")) {
-            JsonNode requiredHeaders = schema.get("headers").get("required");
-            Iterator<Map.Entry<String, JsonNode>> fields = requiredHeaders.fields();
-
-            while (fields.hasNext()) {
-                Map.Entry<String, JsonNode> entry = fields.next();
-                String key = entry.getKey();
-                String value = entry.getValue().asText();
-
-                // Replace API key placeholder if needed
-                if (schema.has("authentication") &&
-                    schema.get("authentication").has("key_placeholder")) {
-
-                    String placeholder = schema.get("authentication")
-                        .get("key_placeholder").asText();
-                    value = value.replace(placeholder, apiKey);
-                }
-
-                headers.put(key, value);
-            }
-        }
-
-        // Process optional headers
-        if (schema.has("headers") && schema.get("headers").has("optional")) {
-            JsonNode optionalHeaders = schema.get("headers").get("optional");
-            Iterator<Map.Entry<String, JsonNode>> fields = optionalHeaders.fields();
-
-            while (fields.hasNext()) {
-                Map.Entry<String, JsonNode> entry = fields.next();
-                if (!entry.getValue().isNull() && entry.getValue().isTextual()) {
-                    String value = entry.getValue().asText();
-                    if (!value.isEmpty()) {
-                        headers.put(entry.getKey(), value);
-                    }
-                }
-            }
-        }
+    /**
+     * Constructs a general context with default configuration
+     * @param schemaPath Path to the schema file
+     * @throws SchemaException If the schema is invalid or cannot be loaded
+     */
+    public GeneralContext(String schemaPath) {
+        this(schemaPath, new ContextConfig());
     }
 
     private void applyDefaults() {
-        if (schema.has("models") && schema.get("models").has("default")) {
-            modelName = schema.get("models").get("default").asText();
+        if (compiledSchema.getDefaultModel() != null) {
+            modelName = compiledSchema.getDefaultModel();
         }
     }
 
@@ -258,24 +145,13 @@ public class GeneralContext {
      */
     public GeneralContext setModel(String model) {
         // Validate model if available models are specified
-        if (schema.has("models") && schema.get("models").has("available")) {
-            JsonNode availableModels = schema.get("models").get("available");
-            boolean found = false;
-
-            for (JsonNode availableModel : availableModels) {
-                if (availableModel.asText().equals(model)) {
-                    found = true;
-                    break;
-                }
-            }
-
-            if (!found && config.isEnableValidation()) {
-                throw new ValidationException("Model '" + model +
-                    "' is not supported by this provider");
-            }
+        if (!compiledSchema.isModelSupported(model) && config.isEnableValidation()) {
+            throw new ValidationException("Model '" + model +
+                "' is not supported by this provider");
         }
 
         this.modelName = model;
+        invalidateSkeletons();
         return this;
     }
 
@@ -287,10 +163,12 @@ public class GeneralContext {
      */
     public GeneralContext setSystemMessage(String systemText) {
         if (!supportsSystemMessages() && config.isEnableValidation()) {
-            throw new ValidationException("Provider '" + providerName +
+            throw new ValidationException("Provider '" + compiledSchema.getProviderName() +
                 "' does not support system messages");
         }
         this.systemMessage = Optional.of(systemText);
+        this.systemTokens = tokenCounter.countTokens(systemText) + tokenCounter.messageOverhead();
+        invalidateSkeletons();
         return this;
     }
 
@@ -302,16 +180,75 @@ public class GeneralContext {
      * @throws ValidationException If the parameter is invalid and validation is enabled
      */
     public GeneralContext setParameter(String key, Object value) {
-        JsonNode jsonValue = objectMapper.valueToTree(value);
+        return putParameter(key, toJsonNode(value));
+    }
+
+    /**
+     * Sets a single integer parameter for the request
+     * @param key The parameter key
+     * @param value The parameter value
+     * @return Reference to this context for method chaining
+     * @throws ValidationException If the parameter is invalid and validation is enabled
+     */
+    public GeneralContext setParameter(String key, int value) {
+        return putParameter(key, IntNode.valueOf(value));
+    }
 
+    /**
+     * Sets a single floating-point parameter for the request
+     * @param key The parameter key
+     * @param value The parameter value
+     * @return Reference to this context for method chaining
+     * @throws ValidationException If the parameter is invalid and validation is enabled
+     */
+    public GeneralContext setParameter(String key, double value) {
+        return putParameter(key, DoubleNode.valueOf(value));
+    }
+
+    /**
+     * Sets a single boolean parameter for the request
+     * @param key The parameter key
+     * @param value The parameter value
+     * @return Reference to this context for method chaining
+     * @throws ValidationException If the parameter is invalid and validation is enabled
+     */
+    public GeneralContext setParameter(String key, boolean value) {
+        return putParameter(key, BooleanNode.valueOf(value));
+    }
+
+    private GeneralContext putParameter(String key, JsonNode jsonValue) {
         if (config.isEnableValidation()) {
             validateParameter(key, jsonValue);
         }
 
         parameters.put(key, jsonValue);
+        invalidateSkeletons();
         return this;
     }
 
+    /**
+     * Converts a parameter value to JSON, mapping common types directly rather than through
+     * the object mapper, which serializes the value into a token buffer first
+     */
+    private JsonNode toJsonNode(Object value) {
+        if (value instanceof JsonNode node) {
+            return node;
+        } else if (value instanceof String text) {
+            return TextNode.valueOf(text);
+        } else if (value instanceof Integer number) {
+            return IntNode.valueOf(number);
+        } else if (value instanceof Double number) {
+            return DoubleNode.valueOf(number);
+        } else if (value instanceof Boolean flag) {
+            return BooleanNode.valueOf(flag);
+        } else if (value instanceof Long number) {
+            return LongNode.valueOf(number);
+        } else if (value instanceof Float number) {
+            return FloatNode.valueOf(number);
+        }
+        return objectMapper.valueToTree(value);
+    }
+
     /**
      * Sets multiple parameters for the request
      * @param params Map of parameter keys and values
@@ -332,11 +269,31 @@ public class GeneralContext {
      * @throws ValidationException If the API key is empty
      */
     public GeneralContext setApiKey(String apiKey) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            throw new ValidationException("API key cannot be empty");
+        }
+        if (!apiKey.equals(this.apiKey)) {
+            this.apiKey = apiKey;
+            headers = compiledSchema.getHeaderBundle(apiKey);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the API key with headers already rendered for it, so that contexts sharing a key
+     * can share one bundle instead of rendering their own
+     * @param apiKey The API key
+     * @param headers The bundle {@link CompiledSchema#getHeaderBundle(String)} rendered for the key
+     *                from this context's schema
+     * @return Reference to this context for method chaining
+     * @throws ValidationException If the API key is empty
+     */
+    public GeneralContext setApiKey(String apiKey, HeaderBundle headers) {
         if (apiKey == null || apiKey.isEmpty()) {
             throw new ValidationException("API key cannot be empty");
         }
         this.apiKey = apiKey;
-        buildHeaders(); // Rebuild headers with new API key
+        this.headers = Objects.requireNonNull(headers, "Headers cannot be null");
         return this;
     }
 
@@ -388,13 +345,113 @@ public class GeneralContext {
             validateMessage(message);
         }
 
-        messages.add(message);
+        messages.add(message, estimateTokens(message));
+
+        if (config.isEnableWindowing()) {
+            applyWindow();
+        }
         return this;
     }
 
+    /**
+     * Estimates the number of input tokens of the conversation, including the system message
+     *
+     * Messages are counted once, when added, with the schema's token counter (or the one
+     * set on the config); this returns their running sum and costs nothing to query.
+     * @return The estimated input tokens
+     */
+    public long estimateInputTokens() {
+        return messages.tokenTotal() + (systemMessage.isPresent() ? systemTokens : 0);
+    }
+
+    /**
+     * Gets the number of tokens reserved for the response
+     *
+     * This is the max_tokens the request is built with: the max_tokens parameter, else
+     * request_template.max_tokens, else the configured default. A request without max_tokens
+     * reserves limits.max_output_tokens, capped at half the context window if one is declared.
+     * @return The reserved tokens, or 0 if neither the request nor the schema sets a limit
+     */
+    public long getReservedOutputTokens() {
+        JsonNode maxTokens = parameters.get("max_tokens");
+        if (maxTokens != null && maxTokens.canConvertToInt()) {
+            return Math.max(0, maxTokens.asInt());
+        }
+        if (compiledSchema.getTemplateMaxTokens() > 0) {
+            return compiledSchema.getTemplateMaxTokens();
+        }
+        if (config.getDefaultMaxTokens().isPresent()) {
+            return Math.max(0, config.getDefaultMaxTokens().get());
+        }
+
+        int contextLength = compiledSchema.getMaxContextLength();
+        int maxOutputTokens = compiledSchema.getMaxOutputTokens();
+        return contextLength > 0 ? Math.min(maxOutputTokens, contextLength / 2) : maxOutputTokens;
+    }
+
+    /**
+     * Gets the input token budget of the conversation under windowing
+     *
+     * The provider's context window (limits.max_context_length) minus the tokens reserved
+     * for the response, see {@link #getReservedOutputTokens()}.
+     * @return The budget, or {@link Long#MAX_VALUE} if the schema declares no context window
+     */
+    public long getInputTokenBudget() {
+        int contextLength = compiledSchema.getMaxContextLength();
+        if (contextLength <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, contextLength - getReservedOutputTokens());
+    }
+
+    /**
+     * Drops the oldest turns until the conversation fits the input token budget
+     *
+     * Messages are dropped from the front, and any non-user messages left at the front are
+     * dropped with them so that the window starts on a user turn. The system message and
+     * the last user turn are never dropped, so the conversation may still exceed the
+     * budget if those alone do not fit.
+     */
+    private void applyWindow() {
+        long budget = getInputTokenBudget();
+        long total = estimateInputTokens();
+        if (total <= budget) {
+            return;
+        }
+
+        int lastUser = messages.size() - 1;
+        while (lastUser > 0 && !"user".equals(messages.get(lastUser).path("role").asText())) {
+            lastUser--;
+        }
+
+        int drop = 0;
+        while (drop < lastUser && (total > budget || !"user".equals(messages.get(drop).path("role").asText()))) {
+            total -= messages.node(drop).tokens;
+            drop++;
+        }
+        if (drop == 0) {
+            return;
+        }
+
+        messages.dropOldest(drop);
+    }
+
+    private int estimateTokens(JsonNode message) {
+        int tokens = tokenCounter.messageOverhead();
+        JsonNode content = message.path("content");
+        if (content.isTextual()) {
+            return tokens + tokenCounter.countTokens(content.asText());
+        }
+        for (JsonNode part : content) {
+            JsonNode text = part.get("text");
+            tokens += text != null ? tokenCounter.countTokens(text.asText()) : tokenCounter.imageTokens();
+        }
+        return tokens;
+    }
+
     private JsonNode createMessage(String role, String content,
                                   String mediaType, String mediaData) {
-        ObjectNode message = messageStructure.deepCopy();
+        ObjectNode message = compiledSchema.getMessageStructure().deepCopy();
         message.put("role", role);
 
         // Create content array
@@ -404,7 +461,7 @@ public class GeneralContext {
         // Add image if provided
         if (mediaType != null && mediaData != null) {
             if (!supportsMultimodal() && config.isEnableValidation()) {
-                throw new ValidationException("Provider '" + providerName +
+                throw new ValidationException("Provider '" + compiledSchema.getProviderName() +
                     "' does not support multimodal content");
             }
             contentArray.add(createImageContent(mediaType, mediaData));
@@ -415,32 +472,37 @@ public class GeneralContext {
     }
 
     private JsonNode createTextContent(String text) {
-        ObjectNode content = textContentFormat.deepCopy();
+        ObjectNode content = compiledSchema.getTextContentFormat().deepCopy();
         content.put("text", text);
         return content;
     }
 
     private JsonNode createImageContent(String mediaType, String data) {
-        ObjectNode content = imageContentFormat.deepCopy();
+        ObjectNode content = compiledSchema.getImageContentFormat().deepCopy();
 
         try {
-            // Handle both base64 data and file paths
-            String base64Data;
+            // The file is read now, so errors surface here, but only encoded when the request is written
+            boolean dataUrl = !content.has("source") && content.has("image_url");
+            String prefix = dataUrl ? "data:" + mediaType + ";base64," : null;
+            MediaSource media;
             if (Base64Utils.isBase64Encoded(data)) {
-                base64Data = data;
+                media = MediaSource.ofEncoded(data, prefix);
+            } else if (config.getMediaCache() != null) {
+                // Assume it's a file path; repeated attachments share one encoding
+                media = config.getMediaCache().get(Paths.get(data), prefix);
             } else {
-                // Assume it's a file path and encode it
-                base64Data = Base64Utils.encodeImageToBase64(data);
+                // Assume it's a file path
+                media = MediaSource.ofBytes(Base64Utils.readImageFile(Paths.get(data)), prefix);
             }
 
             // Update the content based on the schema structure
             if (content.has("source")) {
                 ObjectNode source = (ObjectNode) content.get("source");
                 source.put("media_type", mediaType);
-                source.put("data", base64Data);
-            } else if (content.has("image_url")) {
+                source.putPOJO("data", media);
+            } else if (dataUrl) {
                 ObjectNode imageUrl = (ObjectNode) content.get("image_url");
-                imageUrl.put("url", "data:" + mediaType + ";base64," + base64Data);
+                imageUrl.putPOJO("url", media);
             }
 
         } catch (IOException e) {
@@ -464,12 +526,15 @@ public class GeneralContext {
      * @return JSON object representing the request
      */
     public JsonNode buildRequest(boolean streaming) {
-        ObjectNode request = requestTemplate.deepCopy();
+        if (config.isEnableWindowing()) {
+            applyWindow();
+        }
+        ObjectNode request = compiledSchema.getRequestTemplate();
 
         // Build messages array
         ArrayNode messagesArray = objectMapper.createArrayNode();
-        for (JsonNode msg : messages) {
-            messagesArray.add(msg);
+        for (int i = 0; i < messages.size(); i++) {
+            messagesArray.add(withEncodedMedia(messages.get(i)));
         }
 
         // Set model
@@ -479,7 +544,7 @@ public class GeneralContext {
 
         // Set system message if supported
         if (systemMessage.isPresent() && supportsSystemMessages()) {
-            boolean systemInRoles = validRoles.contains("system");
+            boolean systemInRoles = compiledSchema.getValidRoles().contains("system");
 
             if (systemInRoles) {
                 // Insert system message at beginning
@@ -512,7 +577,7 @@ public class GeneralContext {
         // Set streaming: user parameter takes precedence over function parameter
         if (!parameters.containsKey("stream")) {
             // User hasn't explicitly set stream parameter, use function parameter
-            if (streaming && schema.get("features").get("streaming").asBoolean()) {
+            if (streaming && compiledSchema.supportsStreaming()) {
                 request.put("stream", true);
             } else {
                 request.put("stream", false);
@@ -524,6 +589,368 @@ public class GeneralContext {
         return request;
     }
 
+    /**
+     * Writes the request body for the current context straight to an output stream
+     *
+     * Produces the same JSON as {@link #buildRequest(boolean)} without materializing an
+     * intermediate tree. The request is spliced from cached bytes: the fields around the
+     * message history are serialized once until the model, system message or parameters
+     * change, and each message is serialized once after it is added, so a new turn costs
+     * only its own serialization. Messages with image attachments are streamed every time
+     * rather than cached. Added messages must not be modified afterwards.
+     * The stream is flushed but not closed.
+     * @param out The stream to write the UTF-8 encoded request to
+     * @param streaming Whether to enable streaming for this request
+     * @throws IOException If writing to the stream fails
+     */
+    public void writeRequest(OutputStream out, boolean streaming) throws IOException {
+        if (config.isEnableWindowing()) {
+            applyWindow();
+        }
+
+        int index = streaming ? 1 : 0;
+        if (skeletons[index] == null) {
+            buildSkeleton(index, streaming);
+        }
+        byte[] skeleton = skeletons[index];
+        int split = skeletonSplits[index];
+
+        if (split < 0) {
+            // The messages come from a parameter, nothing to splice
+            JsonGenerator gen = createGenerator(out);
+            try (gen) {
+                writeRequest(gen, streaming);
+            }
+            return;
+        }
+
+        out.write(skeleton, 0, split);
+        boolean first = skeleton[split - 1] == '[';
+        for (int i = 0; i < messages.size(); i++) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+
+            RawJson json = messageJson(i);
+            if (json != null) {
+                out.write(json.bytes());
+            } else {
+                JsonGenerator gen = createGenerator(out);
+                try (gen) {
+                    writeWithoutNulls(gen, messages.get(i));
+                }
+            }
+        }
+        out.write(skeleton, split, skeleton.length - split);
+        out.flush();
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return gen;
+    }
+
+    /**
+     * Serializes the request with an empty history, recording where messages go
+     */
+    private void buildSkeleton(int index, boolean streaming) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        int[] split = {-1};
+        JsonGenerator gen = createGenerator(buffer);
+        try (gen) {
+            writeRequest(gen, streaming, (g, systemInMessages) -> {
+                g.writeArrayFieldStart("messages");
+                if (systemInMessages) {
+                    writeSystemMessage(g);
+                }
+                g.flush();
+                split[0] = buffer.size();
+                g.writeEndArray();
+            });
+        }
+        skeletons[index] = buffer.toByteArray();
+        skeletonSplits[index] = split[0];
+    }
+
+    private void invalidateSkeletons() {
+        skeletons[0] = null;
+        skeletons[1] = null;
+    }
+
+    /**
+     * Gets the serialized form of a message, or null if it holds lazily encoded media
+     */
+    private RawJson messageJson(int i) throws IOException {
+        MessageHistory.Node node = messages.node(i);
+        RawJson json = node.json;
+        if (json == null) {
+            JsonNode message = node.message;
+            if (containsPojo(message)) {
+                return null;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+            JsonGenerator gen = createGenerator(buffer);
+            try (gen) {
+                writeWithoutNulls(gen, message);
+            }
+            json = new RawJson(buffer.toByteArray());
+            node.json = json;
+        }
+        return json;
+    }
+
+    private static boolean containsPojo(JsonNode node) {
+        if (node.isPojo()) {
+            return true;
+        }
+        if (node.isContainerNode()) {
+            for (JsonNode child : node) {
+                if (containsPojo(child)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the request body for the current context to a JSON generator
+     *
+     * Null object fields are skipped on the fly, matching {@link #buildRequest(boolean)}.
+     * The generator is neither flushed nor closed.
+     * @param gen The generator to write the request object to
+     * @param streaming Whether to enable streaming for this request
+     * @throws IOException If writing to the generator fails
+     */
+    public void writeRequest(JsonGenerator gen, boolean streaming) throws IOException {
+        if (config.isEnableWindowing()) {
+            applyWindow();
+        }
+        writeRequest(gen, streaming, this::writeMessages);
+    }
+
+    @FunctionalInterface
+    private interface MessagesWriter {
+        void write(JsonGenerator gen, boolean systemInMessages) throws IOException;
+    }
+
+    private void writeRequest(JsonGenerator gen, boolean streaming, MessagesWriter messagesWriter) throws IOException {
+        ObjectNode template = compiledSchema.getRequestTemplateNode();
+
+        boolean hasModel = modelName != null && !modelName.isEmpty();
+        boolean hasSystem = systemMessage.isPresent() && supportsSystemMessages();
+        boolean systemInMessages = hasSystem && compiledSchema.getValidRoles().contains("system");
+        boolean systemField = hasSystem && !systemInMessages;
+        boolean writeStream = !parameters.containsKey("stream");
+        boolean streamValue = streaming && compiledSchema.supportsStreaming();
+
+        SchemaCodec codec = compiledSchema.getCodec();
+        if (codec != null) {
+            codec.writeRequest(gen, new CodecRequest(hasModel ? modelName : null,
+                systemField ? systemMessage.get() : null, systemInMessages, streamValue, messagesWriter));
+            return;
+        }
+
+        gen.writeStartObject();
+
+        // Template fields keep their position, overridden in the same order as buildRequest
+        Iterator<Map.Entry<String, JsonNode>> fields = template.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            String key = entry.getKey();
+            JsonNode parameter = parameters.get(key);
+
+            if (parameter != null) {
+                writeField(gen, key, parameter);
+            } else if (key.equals("messages")) {
+                messagesWriter.write(gen, systemInMessages);
+            } else if (key.equals("model") && hasModel) {
+                gen.writeStringField(key, modelName);
+            } else if (key.equals("system") && systemField) {
+                gen.writeStringField(key, systemMessage.get());
+            } else if (key.equals("stream") && writeStream) {
+                gen.writeBooleanField(key, streamValue);
+            } else {
+                writeField(gen, key, entry.getValue());
+            }
+        }
+
+        // Fields the template does not declare
+        boolean modelWritten = hasModel && !template.has("model");
+        if (modelWritten) {
+            JsonNode parameter = parameters.get("model");
+            if (parameter != null) {
+                writeField(gen, "model", parameter);
+            } else {
+                gen.writeStringField("model", modelName);
+            }
+        }
+
+        boolean systemWritten = systemField && !template.has("system");
+        if (systemWritten) {
+            JsonNode parameter = parameters.get("system");
+            if (parameter != null) {
+                writeField(gen, "system", parameter);
+            } else {
+                gen.writeStringField("system", systemMessage.get());
+            }
+        }
+
+        if (!template.has("messages")) {
+            JsonNode parameter = parameters.get("messages");
+            if (parameter != null) {
+                writeField(gen, "messages", parameter);
+            } else {
+                messagesWriter.write(gen, systemInMessages);
+            }
+        }
+
+        for (Map.Entry<String, JsonNode> entry : parameters.entrySet()) {
+            String key = entry.getKey();
+            if (template.has(key) || key.equals("messages")
+                || (modelWritten && key.equals("model"))
+                || (systemWritten && key.equals("system"))) {
+                continue;
+            }
+            writeField(gen, key, entry.getValue());
+        }
+
+        // Apply config defaults only if not already set
+        if (config.getDefaultMaxTokens().isPresent() && !template.has("max_tokens")
+            && !parameters.containsKey("max_tokens")) {
+            gen.writeNumberField("max_tokens", config.getDefaultMaxTokens().get());
+        }
+        if (config.getDefaultTemperature().isPresent() && !template.has("temperature")
+            && !parameters.containsKey("temperature")) {
+            gen.writeNumberField("temperature", config.getDefaultTemperature().get());
+        }
+
+        if (writeStream && !template.has("stream")) {
+            gen.writeBooleanField("stream", streamValue);
+        }
+
+        gen.writeEndObject();
+    }
+
+    /**
+     * The context's state as seen by a generated codec
+     */
+    private final class CodecRequest implements SchemaCodec.Request {
+        private final String model;
+        private final String system;
+        private final boolean systemInMessages;
+        private final boolean streaming;
+        private final MessagesWriter messagesWriter;
+
+        private CodecRequest(String model, String system, boolean systemInMessages, boolean streaming,
+                             MessagesWriter messagesWriter) {
+            this.model = model;
+            this.system = system;
+            this.systemInMessages = systemInMessages;
+            this.streaming = streaming;
+            this.messagesWriter = messagesWriter;
+        }
+
+        @Override
+        public JsonNode getParameter(String name) {
+            return parameters.get(name);
+        }
+
+        @Override
+        public Map<String, JsonNode> getParameters() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public String getModel() {
+            return model;
+        }
+
+        @Override
+        public String getSystemMessage() {
+            return system;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return streaming;
+        }
+
+        @Override
+        public Integer getDefaultMaxTokens() {
+            return config.getDefaultMaxTokens().orElse(null);
+        }
+
+        @Override
+        public Double getDefaultTemperature() {
+            return config.getDefaultTemperature().orElse(null);
+        }
+
+        @Override
+        public void writeMessages(JsonGenerator gen) throws IOException {
+            messagesWriter.write(gen, systemInMessages);
+        }
+    }
+
+    private void writeMessages(JsonGenerator gen, boolean systemInMessages) throws IOException {
+        gen.writeArrayFieldStart("messages");
+        if (systemInMessages) {
+            writeSystemMessage(gen);
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            RawJson json = messageJson(i);
+            if (json != null) {
+                gen.writeRawValue(json);
+            } else {
+                writeWithoutNulls(gen, messages.get(i));
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeSystemMessage(JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("role", "system");
+        gen.writeStringField("content", systemMessage.get());
+        gen.writeEndObject();
+    }
+
+    static void writeField(JsonGenerator gen, String key, JsonNode value) throws IOException {
+        if (value.isNull()) {
+            return;
+        }
+        gen.writeFieldName(key);
+        writeWithoutNulls(gen, value);
+    }
+
+    private static void writeWithoutNulls(JsonGenerator gen, JsonNode node) throws IOException {
+        if (node.isObject()) {
+            gen.writeStartObject();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> entry = fields.next();
+                writeField(gen, entry.getKey(), entry.getValue());
+            }
+            gen.writeEndObject();
+        } else if (node.isArray()) {
+            gen.writeStartArray();
+            for (JsonNode item : node) {
+                writeWithoutNulls(gen, item);
+            }
+            gen.writeEndArray();
+        } else if (node.isPojo() && ((POJONode) node).getPojo() instanceof JsonSerializable) {
+            // Lazy values such as media write themselves without a codec
+            node.serialize(gen, null);
+        } else if (node.isPojo() || node.isBinary()) {
+            gen.writeTree(node);
+        } else {
+            // Scalar nodes serialize without a provider
+            node.serialize(gen, null);
+        }
+    }
+
     private void removeNullsRecursive(JsonNode node) {
         if (node.isObject()) {
             ObjectNode objNode = (ObjectNode) node;
@@ -557,8 +984,7 @@ public class GeneralContext {
      */
     public String extractTextResponse(JsonNode response) {
         try {
-            JsonNode textNode = JsonPathResolver.resolvePath(response, textPath);
-            return textNode.asText();
+            return compiledSchema.getTextAccessor().resolve(response).asText();
         } catch (Exception e) {
             throw new RuntimeException("Failed to extract text response: " + e.getMessage(), e);
         }
@@ -572,31 +998,115 @@ public class GeneralContext {
      */
     public JsonNode extractFullResponse(JsonNode response) {
         try {
-            List<String> contentPath = JsonPathResolver.parseJsonPath(
-                schema.get("response_format").get("success").get("content_path")
-            );
-            return JsonPathResolver.resolvePath(response, contentPath);
+            CompiledJsonPath contentPath = compiledSchema.getContentAccessor();
+            if (contentPath == null) {
+                throw new IllegalStateException("Schema does not declare a content_path");
+            }
+            return contentPath.resolve(response);
         } catch (Exception e) {
             throw new RuntimeException("Failed to extract full response: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Extracts the text, usage, model and stop reason from a raw response body in one pass,
+     * without building a tree of the whole response
+     * @param body The UTF-8 JSON response from the API
+     * @return The extracted values
+     * @throws RuntimeException If the body is not valid JSON or has no text at the text path
+     */
+    public ResponseExtractor.Result extractResponse(byte[] body) {
+        ResponseExtractor extractor = compiledSchema.getResponseExtractor();
+        ResponseExtractor.Result result;
+        try {
+            result = extractor.extract(body);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to extract text response: " + e.getMessage(), e);
+        }
+        if (result.getText() == null) {
+            throw new RuntimeException("Failed to extract text response: no value at " + extractor.getTextPath());
+        }
+        return result;
+    }
+
+    /**
+     * Extracts the token usage from a JSON response
+     * @param response The JSON response from the API
+     * @return The usage object, or null if the schema declares no usage path or the response has none
+     */
+    public JsonNode extractUsage(JsonNode response) {
+        CompiledJsonPath usagePath = compiledSchema.getUsageAccessor();
+        return usagePath != null ? usagePath.tryResolve(response) : null;
+    }
+
+    /**
+     * Extracts the model that served a JSON response
+     * @param response The JSON response from the API
+     * @return The model, or null if the schema declares no model path or the response has none
+     */
+    public String extractModel(JsonNode response) {
+        CompiledJsonPath modelPath = compiledSchema.getModelAccessor();
+        return modelPath != null ? modelPath.tryResolveText(response) : null;
+    }
+
+    /**
+     * Extracts why generation stopped from a JSON response
+     * @param response The JSON response from the API
+     * @return The stop or finish reason, or null if the schema declares no path for it or the response has none
+     */
+    public String extractStopReason(JsonNode response) {
+        CompiledJsonPath stopReasonPath = compiledSchema.getStopReasonAccessor();
+        return stopReasonPath != null ? stopReasonPath.tryResolveText(response) : null;
+    }
+
+    /**
+     * Extracts the text delta from a single streamed event
+     * @param event The JSON payload of a server-sent event
+     * @return The text delta, or null if the event carries no text
+     */
+    public String extractStreamDelta(JsonNode event) {
+        CompiledJsonPath deltaPath = compiledSchema.getStreamDeltaAccessor();
+        // Lifecycle events such as pings carry no delta
+        return deltaPath != null ? deltaPath.tryResolveText(event) : null;
+    }
+
     /**
      * Extracts an error message from a JSON response
      * @param response The JSON response from the API
      * @return The extracted error message
      */
     public String extractError(JsonNode response) {
+        CompiledJsonPath errorPath = compiledSchema.getErrorAccessor();
         if (errorPath.isEmpty()) {
             return "Unknown error";
         }
 
-        try {
-            JsonNode errorNode = JsonPathResolver.resolvePath(response, errorPath);
-            return errorNode.asText();
-        } catch (Exception e) {
-            return "Failed to parse error message";
-        }
+        JsonNode errorNode = errorPath.tryResolve(response);
+        return errorNode != null ? errorNode.asText() : "Failed to parse error message";
+    }
+
+    /**
+     * Extracts the error type from a JSON error response
+     * @param response The JSON response from the API
+     * @return The error type, or null if the schema declares no error type path or the response has none
+     */
+    public String extractErrorType(JsonNode response) {
+        CompiledJsonPath errorTypePath = compiledSchema.getErrorTypeAccessor();
+        return errorTypePath != null ? errorTypePath.tryResolveText(response) : null;
+    }
+
+    /**
+     * Creates an independent copy of this context that continues the same conversation
+     *
+     * The fork shares the message history with this context instead of copying it, so
+     * forking costs O(1) regardless of the history's length and each side only holds the
+     * messages added after the fork. Model, system message, parameters and API key are
+     * copied and can be changed on either side without affecting the other. A context and
+     * its forks may be used from different threads, each by one thread at a time.
+     * @return The new context
+     */
+    public GeneralContext fork() {
+        return new GeneralContext(this);
     }
 
     /**
@@ -608,6 +1118,7 @@ public class GeneralContext {
         clearParameters();
         modelName = "";
         applyDefaults();
+        invalidateSkeletons();
     }
 
     /**
@@ -622,6 +1133,7 @@ public class GeneralContext {
      */
     public void clearSystemMessage() {
         systemMessage = Optional.empty();
+        invalidateSkeletons();
     }
 
     /**
@@ -629,6 +1141,7 @@ public class GeneralContext {
      */
     public void clearParameters() {
         parameters.clear();
+        invalidateSkeletons();
     }
 
     /**
@@ -641,10 +1154,18 @@ public class GeneralContext {
 
     /**
      * Gets the schema used by this context
-     * @return The schema as JSON
+     * @return A copy of the schema as JSON
      */
     public JsonNode getSchema() {
-        return schema;
+        return compiledSchema.getSchema();
+    }
+
+    /**
+     * Gets the compiled schema shared by this context
+     * @return The compiled schema
+     */
+    public CompiledSchema getCompiledSchema() {
+        return compiledSchema;
     }
 
     /**
@@ -652,7 +1173,7 @@ public class GeneralContext {
      * @return The provider name
      */
     public String getProviderName() {
-        return providerName;
+        return compiledSchema.getProviderName();
     }
 
     /**
@@ -660,7 +1181,7 @@ public class GeneralContext {
      * @return The API endpoint URL
      */
     public String getEndpoint() {
-        return endpoint;
+        return compiledSchema.getEndpoint();
     }
 
     /**
@@ -668,7 +1189,15 @@ public class GeneralContext {
      * @return Map of header names to values
      */
     public Map<String, String> getHeaders() {
-        return Collections.unmodifiableMap(headers);
+        return headers.asMap();
+    }
+
+    /**
+     * Gets the HTTP headers for API requests as a bundle
+     * @return The headers for the current API key
+     */
+    public HeaderBundle getHeaderBundle() {
+        return headers;
     }
 
     /**
@@ -676,13 +1205,7 @@ public class GeneralContext {
      * @return List of supported model names
      */
     public List<String> getSupportedModels() {
-        List<String> models = new ArrayList<>();
-        if (schema.has("models") && schema.get("models").has("available")) {
-            for (JsonNode model : schema.get("models").get("available")) {
-                models.add(model.asText());
-            }
-        }
-        return models;
+        return new ArrayList<>(compiledSchema.getSupportedModels());
     }
 
     /**
@@ -690,10 +1213,7 @@ public class GeneralContext {
      * @return True if multi modal content is supported, false otherwise
      */
     public boolean supportsMultimodal() {
-        if (schema.has("multimodal") && schema.get("multimodal").has("supported")) {
-            return schema.get("multimodal").get("supported").asBoolean();
-        }
-        return false;
+        return compiledSchema.supportsMultimodal();
     }
 
     /**
@@ -701,10 +1221,7 @@ public class GeneralContext {
      * @return True if streaming is supported, false otherwise
      */
     public boolean supportsStreaming() {
-        if (schema.has("features") && schema.get("features").has("streaming")) {
-            return schema.get("features").get("streaming").asBoolean();
-        }
-        return false;
+        return compiledSchema.supportsStreaming();
     }
 
     /**
@@ -712,10 +1229,7 @@ public class GeneralContext {
      * @return True if system messages are supported, false otherwise
      */
     public boolean supportsSystemMessages() {
-        if (schema.has("system_message") && schema.get("system_message").has("supported")) {
-            return schema.get("system_message").get("supported").asBoolean();
-        }
-        return false;
+        return compiledSchema.supportsSystemMessages();
     }
 
     /**
@@ -743,17 +1257,11 @@ public class GeneralContext {
         }
 
         // Validate message roles
-        if (schema.has("validation") && schema.get("validation").has("message_validation")) {
-            JsonNode validation = schema.get("validation").get("message_validation");
-
-            if (validation.has("last_message_role")) {
-                String requiredRole = validation.get("last_message_role").asText();
-                if (!messages.isEmpty()) {
-                    String lastRole = messages.get(messages.size() - 1).get("role").asText();
-                    if (!lastRole.equals(requiredRole)) {
-                        errors.add("Last message must be from: " + requiredRole);
-                    }
-                }
+        String requiredRole = compiledSchema.getLastMessageRole();
+        if (requiredRole != null && !messages.isEmpty()) {
+            String lastRole = messages.get(messages.size() - 1).get("role").asText();
+            if (!lastRole.equals(requiredRole)) {
+                errors.add("Last message must be from: " + requiredRole);
             }
         }
 
@@ -825,10 +1333,64 @@ public class GeneralContext {
 
     /**
      * Gets all messages in the context
-     * @return List of message objects
+     *
+     * Images are held unencoded until a request is written; a message with an image is
+     * returned as a copy holding the encoded image as text, which is encoded on every access.
+     * @return Read-only view of the message objects
      */
     public List<JsonNode> getMessages() {
-        return Collections.unmodifiableList(messages);
+        List<JsonNode> view = messages.asList();
+        return new AbstractList<>() {
+            @Override
+            public JsonNode get(int i) {
+                return withEncodedMedia(view.get(i));
+            }
+
+            @Override
+            public int size() {
+                return view.size();
+            }
+        };
+    }
+
+    /**
+     * Replaces the lazy media in a message with its encoded text, copying only if there is any
+     */
+    private static JsonNode withEncodedMedia(JsonNode node) {
+        if (node.isPojo() && ((POJONode) node).getPojo() instanceof MediaSource media) {
+            return TextNode.valueOf(media.toString());
+        }
+
+        if (node.isObject()) {
+            ObjectNode copy = null;
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = withEncodedMedia(field.getValue());
+                if (value != field.getValue()) {
+                    if (copy == null) {
+                        copy = node.deepCopy();
+                    }
+                    copy.set(field.getKey(), value);
+                }
+            }
+            return copy != null ? copy : node;
+        }
+
+        if (node.isArray()) {
+            ArrayNode copy = null;
+            for (int i = 0; i < node.size(); i++) {
+                JsonNode value = withEncodedMedia(node.get(i));
+                if (value != node.get(i)) {
+                    if (copy == null) {
+                        copy = node.deepCopy();
+                    }
+                    copy.set(i, value);
+                }
+            }
+            return copy != null ? copy : node;
+        }
+        return node;
     }
 
     private void validateMessage(JsonNode message) {
@@ -837,6 +1399,7 @@ public class GeneralContext {
         }
 
         String role = message.get("role").asText();
+        Set<String> validRoles = compiledSchema.getValidRoles();
         if (!validRoles.isEmpty() && !validRoles.contains(role)) {
             throw new ValidationException("Invalid message role: " + role);
         }
@@ -847,75 +1410,15 @@ public class GeneralContext {
             throw new ValidationException("Parameter '" + key + "' cannot be null");
         }
 
-        if (!schema.has("parameters") || !schema.get("parameters").has(key)) {
-            return; // Parameter not defined in schema
-        }
-
-        JsonNode paramDef = schema.get("parameters").get(key);
-
-        // String length validation
-        if (value.isTextual() && paramDef.has("max_length")) {
-            int maxLen = paramDef.get("max_length").asInt();
-            if (value.asText().length() > maxLen) {
-                throw new ValidationException("Parameter '" + key +
-                    "' exceeds maximum length of " + maxLen);
-            }
-        }
-
-        // Enum validation
-        if (paramDef.has("enum")) {
-            boolean found = false;
-            for (JsonNode allowed : paramDef.get("enum")) {
-                if (value.equals(allowed)) {
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                throw new ValidationException("Parameter '" + key + "' has invalid value");
-            }
-        }
-
-        // Type validation
-        if (paramDef.has("type")) {
-            String expectedType = paramDef.get("type").asText();
-            validateType(key, value, expectedType);
+        SchemaCodec codec = compiledSchema.getCodec();
+        if (codec != null) {
+            codec.validateParameter(key, value);
+            return;
         }
 
-        // Range validation for numbers
-        if (value.isNumber()) {
-            if (paramDef.has("min")) {
-                double minVal = paramDef.get("min").asDouble();
-                if (value.asDouble() < minVal) {
-                    throw new ValidationException("Parameter '" + key +
-                        "' must be >= " + minVal);
-                }
-            }
-
-            if (paramDef.has("max")) {
-                double maxVal = paramDef.get("max").asDouble();
-                if (value.asDouble() > maxVal) {
-                    throw new ValidationException("Parameter '" + key +
-                        "' must be <= " + maxVal);
-                }
-            }
-        }
-    }
-
-    private void validateType(String key, JsonNode value, String expectedType) {
-        boolean valid = switch (expectedType) {
-            case "integer" -> value.isIntegralNumber();
-            case "float", "number" -> value.isNumber();
-            case "string" -> value.isTextual();
-            case "boolean" -> value.isBoolean();
-            case "array" -> value.isArray();
-            case "object" -> value.isObject();
-            default -> true;
-        };
-
-        if (!valid) {
-            throw new ValidationException("Parameter '" + key +
-                "' must be of type " + expectedType);
+        CompiledSchema.ParameterDefinition definition = compiledSchema.getParameterDefinition(key);
+        if (definition != null) {
+            definition.validate(value);
         }
     }
 }
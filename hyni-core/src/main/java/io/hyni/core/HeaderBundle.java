@@ -0,0 +1,49 @@
+package io.hyni.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The HTTP headers of one provider rendered for one API key
+ *
+ * Bundles are built by {@link CompiledSchema#getHeaderBundle(String)}. A caller holding a
+ * bundle per key can hand it to every context through
+ * {@link GeneralContext#setApiKey(String, HeaderBundle)}, and transports pass it on by
+ * reference. Instances are immutable and thread-safe.
+ */
+public final class HeaderBundle {
+
+    private final Map<String, String> headers;
+
+    HeaderBundle(Map<String, String> headers) {
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+    }
+
+    /**
+     * Gets the headers
+     * @return Unmodifiable map of header names to values, in schema order
+     */
+    public Map<String, String> asMap() {
+        return headers;
+    }
+
+    /**
+     * Gets a header value
+     * @param name The header name, as declared in the schema
+     * @return The value, or null if the header is not sent
+     */
+    public String get(String name) {
+        return headers.get(name);
+    }
+
+    public int size() {
+        return headers.size();
+    }
+
+    @Override
+    public String toString() {
+        // Header values carry the API key
+        return "HeaderBundle" + headers.keySet();
+    }
+}
@@ -0,0 +1,190 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Persistent message history of a {@link GeneralContext}
+ *
+ * Messages are kept in an immutable list of nodes linked from the newest to the oldest, so
+ * a fork shares the whole history with its source in O(1) and each side only pays for the
+ * messages it adds afterwards. A node carries the message's token estimate and, once
+ * written, its serialized form, which forks share as well.
+ *
+ * The visible history is the newest {@code size} nodes of the chain: dropping the oldest
+ * messages only shrinks the window, and the chain is rebuilt from the visible nodes once
+ * the hidden ones outnumber them. Positional access goes through an index of the visible
+ * nodes that each instance builds lazily for itself.
+ *
+ * An instance is not thread-safe, but instances sharing nodes can be used from different
+ * threads: nodes are immutable apart from the serialized form, which is computed idempotently.
+ */
+final class MessageHistory {
+
+    private static final int COMPACTION_SLACK = 32;
+
+    static final class Node {
+        final Node previous;
+        final JsonNode message;
+        final int tokens;
+        final int depth;
+        volatile RawJson json;
+
+        private Node(Node previous, JsonNode message, int tokens) {
+            this.previous = previous;
+            this.message = message;
+            this.tokens = tokens;
+            this.depth = previous == null ? 1 : previous.depth + 1;
+        }
+    }
+
+    private Node last;
+    private int size;
+    private long tokenTotal;
+
+    // index[start, start + size) holds the visible nodes, oldest first
+    private Node[] index;
+    private int start;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the sum of the token estimates of the visible messages
+     */
+    long tokenTotal() {
+        return tokenTotal;
+    }
+
+    Node node(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+        }
+        ensureIndex();
+        return index[start + i];
+    }
+
+    JsonNode get(int i) {
+        return node(i).message;
+    }
+
+    void add(JsonNode message, int tokens) {
+        last = new Node(last, message, tokens);
+
+        if (index != null) {
+            int end = start + size;
+            if (end == index.length) {
+                if (start >= index.length / 2) {
+                    System.arraycopy(index, start, index, 0, size);
+                    Arrays.fill(index, size, end, null);
+                } else {
+                    index = Arrays.copyOfRange(index, start, start + index.length * 2);
+                }
+                start = 0;
+                end = size;
+            }
+            index[end] = last;
+        }
+
+        size++;
+        tokenTotal += tokens;
+    }
+
+    /**
+     * Hides the oldest messages
+     * @param count Number of messages to drop, at most the size
+     */
+    void dropOldest(int count) {
+        if (count >= size) {
+            clear();
+            return;
+        }
+
+        ensureIndex();
+        for (int i = start; i < start + count; i++) {
+            tokenTotal -= index[i].tokens;
+            index[i] = null;
+        }
+        start += count;
+        size -= count;
+
+        if (last.depth > 2L * size + COMPACTION_SLACK) {
+            compact();
+        }
+    }
+
+    void clear() {
+        last = null;
+        size = 0;
+        tokenTotal = 0;
+        index = null;
+        start = 0;
+    }
+
+    /**
+     * Creates a history sharing every node with this one
+     */
+    MessageHistory fork() {
+        MessageHistory fork = new MessageHistory();
+        fork.last = last;
+        fork.size = size;
+        fork.tokenTotal = tokenTotal;
+        return fork;
+    }
+
+    /**
+     * Gets a read-only live view of the visible messages
+     */
+    List<JsonNode> asList() {
+        return new AbstractList<>() {
+            @Override
+            public JsonNode get(int i) {
+                return MessageHistory.this.get(i);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void ensureIndex() {
+        if (index != null) {
+            return;
+        }
+        index = new Node[Math.max(16, size + size / 2)];
+        start = 0;
+        Node node = last;
+        for (int i = size - 1; i >= 0; i--) {
+            index[i] = node;
+            node = node.previous;
+        }
+    }
+
+    /**
+     * Rebuilds the chain from the visible nodes so that hidden ones can be collected
+     */
+    private void compact() {
+        Node[] visible = new Node[Math.max(16, size * 2)];
+        Node previous = null;
+        for (int i = 0; i < size; i++) {
+            Node old = index[start + i];
+            Node node = new Node(previous, old.message, old.tokens);
+            node.json = old.json;
+            visible[i] = node;
+            previous = node;
+        }
+        last = previous;
+        index = visible;
+        start = 0;
+    }
+}
@@ -0,0 +1,190 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hyni.core.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One check of a parameter value, specialized when the schema is compiled
+ *
+ * A parameter definition compiles into a chain holding only the checks it declares, each
+ * with its limits resolved to primitives, so validating a value involves no schema lookups
+ * and no dispatch on type names.
+ */
+interface ParameterValidator {
+
+    /**
+     * Validates a value
+     * @param name The parameter name, for error messages
+     * @param value The parameter value, never a JSON null
+     * @throws ValidationException If the value violates the check
+     */
+    void validate(String name, JsonNode value);
+
+    /**
+     * Compiles the checks of a parameter definition, in the order they are reported
+     * @param definition The parameter's definition in the schema
+     * @return The checks, possibly empty
+     */
+    static ParameterValidator[] compile(JsonNode definition) {
+        List<ParameterValidator> validators = new ArrayList<>();
+
+        if (definition.has("max_length")) {
+            validators.add(new MaxLength(definition.get("max_length").asInt()));
+        }
+        if (definition.has("enum")) {
+            List<JsonNode> values = new ArrayList<>();
+            definition.get("enum").forEach(values::add);
+            validators.add(new OneOf(Set.copyOf(values)));
+        }
+        if (definition.has("type")) {
+            Type type = Type.of(definition.get("type").asText());
+            if (type != null) {
+                validators.add(type);
+            }
+        }
+        if (definition.has("max_items")) {
+            validators.add(new MaxItems(definition.get("max_items").asInt()));
+        }
+        if (definition.has("min") || definition.has("max")) {
+            validators.add(new Range(
+                definition.has("min") ? definition.get("min").asDouble() : Double.NEGATIVE_INFINITY,
+                definition.has("max") ? definition.get("max").asDouble() : Double.POSITIVE_INFINITY));
+        }
+
+        return validators.toArray(new ParameterValidator[0]);
+    }
+
+    /**
+     * Declared JSON type of a parameter
+     */
+    enum Type implements ParameterValidator {
+        INTEGER("integer") {
+            @Override
+            boolean matches(JsonNode value) {
+                return value.isIntegralNumber();
+            }
+        },
+        FLOAT("float") {
+            @Override
+            boolean matches(JsonNode value) {
+                return value.isNumber();
+            }
+        },
+        NUMBER("number") {
+            @Override
+            boolean matches(JsonNode value) {
+                return value.isNumber();
+            }
+        },
+        STRING("string") {
+            @Override
+            boolean matches(JsonNode value) {
+                return value.isTextual();
+            }
+        },
+        BOOLEAN("boolean") {
+            @Override
+            boolean matches(JsonNode value) {
+                return value.isBoolean();
+            }
+        },
+        ARRAY("array") {
+            @Override
+            boolean matches(JsonNode value) {
+                return value.isArray();
+            }
+        },
+        OBJECT("object") {
+            @Override
+            boolean matches(JsonNode value) {
+                return value.isObject();
+            }
+        };
+
+        private final String schemaName;
+
+        Type(String schemaName) {
+            this.schemaName = schemaName;
+        }
+
+        /**
+         * @return The type, or null for type names that accept any value
+         */
+        static Type of(String schemaName) {
+            for (Type type : values()) {
+                if (type.schemaName.equals(schemaName)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        abstract boolean matches(JsonNode value);
+
+        @Override
+        public void validate(String name, JsonNode value) {
+            if (!matches(value)) {
+                throw new ValidationException("Parameter '" + name + "' must be of type " + schemaName);
+            }
+        }
+    }
+
+    /**
+     * Bound on the length of string values
+     */
+    record MaxLength(int maxLength) implements ParameterValidator {
+        @Override
+        public void validate(String name, JsonNode value) {
+            if (value.isTextual() && value.textValue().length() > maxLength) {
+                throw new ValidationException("Parameter '" + name + "' exceeds maximum length of " + maxLength);
+            }
+        }
+    }
+
+    /**
+     * Set of allowed values, compared as JSON values
+     */
+    record OneOf(Set<JsonNode> allowedValues) implements ParameterValidator {
+        @Override
+        public void validate(String name, JsonNode value) {
+            if (!allowedValues.contains(value)) {
+                throw new ValidationException("Parameter '" + name + "' has invalid value");
+            }
+        }
+    }
+
+    /**
+     * Bound on the number of elements of array values
+     */
+    record MaxItems(int maxItems) implements ParameterValidator {
+        @Override
+        public void validate(String name, JsonNode value) {
+            if (value.isArray() && value.size() > maxItems) {
+                throw new ValidationException("Parameter '" + name + "' cannot have more than " + maxItems + " items");
+            }
+        }
+    }
+
+    /**
+     * Inclusive bounds of numeric values, infinite where the schema declares none
+     */
+    record Range(double min, double max) implements ParameterValidator {
+        @Override
+        public void validate(String name, JsonNode value) {
+            if (!value.isNumber()) {
+                return;
+            }
+            double number = value.doubleValue();
+            if (number < min) {
+                throw new ValidationException("Parameter '" + name + "' must be >= " + min);
+            }
+            if (number > max) {
+                throw new ValidationException("Parameter '" + name + "' must be <= " + max);
+            }
+        }
+    }
+}
@@ -1,34 +1,70 @@
 package io.hyni.core;
 
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Convenience wrapper for a specific provider
  * Provides a simplified interface for working with a single provider
+ *
+ * {@link #get()} returns the context bound by the enclosing {@link #call(Function)} or
+ * {@link #run(Consumer)} scope. Outside of a scope, it falls back to a context cached per
+ * thread with {@link Binding#THREAD_LOCAL}, and fails with {@link Binding#SCOPED}. Scoped
+ * contexts are borrowed from the factory's pool and released when the scope ends, so they
+ * are reused across virtual threads and nothing stays attached to a thread afterwards.
  */
 public class ProviderContext {
 
+    /**
+     * How {@link #get()} finds a context outside of a scope
+     */
+    public enum Binding {
+        /** A context is created and cached per thread on first access */
+        THREAD_LOCAL,
+        /** There is no context outside of a scope; suits virtual threads */
+        SCOPED
+    }
+
     private final ContextFactory factory;
     private final String providerName;
     private final ContextConfig config;
+    private final Binding binding;
     private final ThreadLocal<GeneralContext> threadLocalContext = new ThreadLocal<>();
+    // Only set while a scope runs on the thread, and removed when it ends
+    private final ThreadLocal<GeneralContext> scopedContext = new ThreadLocal<>();
 
     public ProviderContext(ContextFactory factory, String providerName) {
         this(factory, providerName, new ContextConfig());
     }
 
     public ProviderContext(ContextFactory factory, String providerName, ContextConfig config) {
+        this(factory, providerName, config, Binding.THREAD_LOCAL);
+    }
+
+    public ProviderContext(ContextFactory factory, String providerName, ContextConfig config, Binding binding) {
         this.factory = Objects.requireNonNull(factory, "Factory cannot be null");
         this.providerName = Objects.requireNonNull(providerName, "Provider name cannot be null");
         this.config = Objects.requireNonNull(config, "Config cannot be null");
+        this.binding = Objects.requireNonNull(binding, "Binding cannot be null");
     }
 
     /**
-     * Gets the thread-local context for this provider
-     * Creates a new context on first access per thread
+     * Gets the context of the current scope, or the thread-local context for this provider
+     * Creates a new thread-local context on first access per thread
+     * @throws IllegalStateException If called outside of a scope with {@link Binding#SCOPED}
      */
     public GeneralContext get() {
-        GeneralContext context = threadLocalContext.get();
+        GeneralContext context = scopedContext.get();
+        if (context != null) {
+            return context;
+        }
+        if (binding == Binding.SCOPED) {
+            throw new IllegalStateException("No context bound for provider " + providerName +
+                "; call get() within call() or run()");
+        }
+
+        context = threadLocalContext.get();
         if (context == null) {
             context = factory.createContext(providerName, config);
             threadLocalContext.set(context);
@@ -37,10 +73,51 @@ public class ProviderContext {
     }
 
     /**
-     * Resets the current thread's context
+     * Runs an action in a scope bound to a pooled context
+     *
+     * The context is borrowed from the factory when the scope starts, is returned by
+     * {@link #get()} within the scope, and is released when the action returns or throws.
+     * Nested scopes on the same thread share the context of the outermost one. The context
+     * must not be used after the scope ends, nor from other threads started within it.
+     * @param action The action, receiving the bound context
+     * @return The result of the action
+     */
+    public <T> T call(Function<GeneralContext, T> action) {
+        GeneralContext bound = scopedContext.get();
+        if (bound != null) {
+            return action.apply(bound);
+        }
+
+        GeneralContext context = factory.borrow(providerName, config);
+        scopedContext.set(context);
+        try {
+            return action.apply(context);
+        } finally {
+            scopedContext.remove();
+            factory.release(context);
+        }
+    }
+
+    /**
+     * Runs an action in a scope bound to a pooled context
+     * @param action The action, receiving the bound context
+     * @see #call(Function)
+     */
+    public void run(Consumer<GeneralContext> action) {
+        call(context -> {
+            action.accept(context);
+            return null;
+        });
+    }
+
+    /**
+     * Resets the current scope's or thread's context
      */
     public void reset() {
-        GeneralContext context = threadLocalContext.get();
+        GeneralContext context = scopedContext.get();
+        if (context == null) {
+            context = threadLocalContext.get();
+        }
         if (context != null) {
             context.reset();
         }
@@ -60,4 +137,8 @@ public class ProviderContext {
     public ContextConfig getConfig() {
         return config;
     }
+
+    public Binding getBinding() {
+        return binding;
+    }
 }
@@ -0,0 +1,114 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Already serialized JSON, held as UTF-8 bytes
+ *
+ * Written with {@code JsonGenerator.writeRawValue(SerializableString)}, which lets a UTF-8
+ * generator copy the bytes into its buffer without re-encoding them, while the generator
+ * still takes care of separators. The quoted forms are not meaningful for raw JSON and
+ * equal the unquoted ones.
+ */
+final class RawJson implements SerializableString {
+
+    private final byte[] utf8;
+    private String value;
+
+    RawJson(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    byte[] bytes() {
+        return utf8;
+    }
+
+    @Override
+    public String getValue() {
+        String text = value;
+        if (text == null) {
+            text = new String(utf8, StandardCharsets.UTF_8);
+            value = text;
+        }
+        return text;
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return getValue().toCharArray();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return appendUnquotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String text = getValue();
+        if (offset + text.length() > buffer.length) {
+            return -1;
+        }
+        text.getChars(0, text.length(), buffer, offset);
+        return text.length();
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return writeUnquotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) {
+        return putUnquotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        if (buffer.remaining() < utf8.length) {
+            return -1;
+        }
+        buffer.put(utf8);
+        return utf8.length;
+    }
+}
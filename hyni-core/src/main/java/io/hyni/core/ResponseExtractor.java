@@ -0,0 +1,285 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import io.hyni.core.util.CompiledJsonPath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the text, usage, model and stop reason of a response in one pass over its bytes
+ *
+ * The response paths of a schema are merged into a trie. The parser descends only into
+ * fields and elements on one of the paths and skips every other subtree without building
+ * nodes for it; only the values at the paths are materialized. Parsing stops as soon as
+ * every declared path has been read, so trailing content is not validated. Extraction
+ * needs no tree of the whole response, which matters for long responses and for requests
+ * with several choices, of which the paths select one. A schema with a generated
+ * {@link SchemaCodec} is extracted by the codec's straight-line code for its paths instead.
+ * Instances are immutable and thread-safe.
+ */
+public final class ResponseExtractor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final int TEXT = 0;
+    private static final int USAGE = 1;
+    private static final int MODEL = 2;
+    private static final int STOP_REASON = 3;
+
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final CompiledJsonPath textPath;
+    private final Node root = new Node();
+    private final int targetCount;
+    private final SchemaCodec codec;
+
+    ResponseExtractor(CompiledJsonPath textPath, CompiledJsonPath usagePath,
+                      CompiledJsonPath modelPath, CompiledJsonPath stopReasonPath) {
+        this(textPath, usagePath, modelPath, stopReasonPath, null);
+    }
+
+    ResponseExtractor(CompiledJsonPath textPath, CompiledJsonPath usagePath,
+                      CompiledJsonPath modelPath, CompiledJsonPath stopReasonPath, SchemaCodec codec) {
+        this.textPath = textPath;
+        this.codec = codec;
+        CompiledJsonPath[] paths = {textPath, usagePath, modelPath, stopReasonPath};
+
+        int count = 0;
+        for (int target = 0; target < paths.length; target++) {
+            if (paths[target] != null) {
+                insert(target, paths[target]);
+                count++;
+            }
+        }
+        targetCount = count;
+
+        // A path through a captured value is resolved on that value instead
+        for (int target = 0; target < paths.length; target++) {
+            CompiledJsonPath path = paths[target];
+            Node node = root;
+            for (int i = 0; path != null && i < path.length(); i++) {
+                if (node.targets.length > 0) {
+                    node.nested.add(new NestedTarget(target, path.subPath(i)));
+                    break;
+                }
+                node = node.child(path, i);
+            }
+        }
+    }
+
+    /**
+     * Extracts the declared values from a response body
+     * @param body The UTF-8 JSON response
+     * @return The extracted values
+     * @throws IOException If the body is not valid JSON up to the last extracted value
+     */
+    public Result extract(byte[] body) throws IOException {
+        return extract(body, 0, body.length);
+    }
+
+    /**
+     * Extracts the declared values from part of a buffer
+     * @param body The buffer holding the UTF-8 JSON response
+     * @param offset Start of the response
+     * @param length Length of the response
+     * @return The extracted values
+     * @throws IOException If the body is not valid JSON up to the last extracted value
+     */
+    public Result extract(byte[] body, int offset, int length) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(body, offset, length)) {
+            return extract(parser);
+        }
+    }
+
+    /**
+     * Extracts the declared values from a response stream, which is closed afterwards
+     * @param body The UTF-8 JSON response
+     * @return The extracted values
+     * @throws IOException If the stream cannot be read or is not valid JSON up to the last extracted value
+     */
+    public Result extract(InputStream body) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            return extract(parser);
+        }
+    }
+
+    /**
+     * Gets the text path, for reporting responses without text
+     */
+    CompiledJsonPath getTextPath() {
+        return textPath;
+    }
+
+    private Result extract(JsonParser parser) throws IOException {
+        if (codec != null) {
+            return codec.extractResponse(parser);
+        }
+
+        State state = new State(targetCount);
+        if (parser.nextToken() != null && targetCount > 0) {
+            walk(parser, root, state);
+        }
+        JsonNode[] values = state.values;
+        return new Result(values[TEXT], values[USAGE], values[MODEL], values[STOP_REASON]);
+    }
+
+    /**
+     * Reads the value the parser is positioned at
+     * @return True once every declared value has been read
+     */
+    private static boolean walk(JsonParser parser, Node node, State state) throws IOException {
+        if (node.targets.length > 0) {
+            JsonNode value = parser.readValueAsTree();
+            if (value == null) {
+                value = NullNode.getInstance();
+            }
+            for (int target : node.targets) {
+                state.found(target, value);
+            }
+            for (NestedTarget nested : node.nested) {
+                state.found(nested.target, nested.path.tryResolve(value));
+            }
+            return state.remaining == 0;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT && node.fields != null) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.fields.get(parser.currentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else if (walk(parser, child, state)) {
+                    return true;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY && node.elements != null) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                Node child = index < node.elements.length ? node.elements[index] : null;
+                if (child == null) {
+                    parser.skipChildren();
+                } else if (walk(parser, child, state)) {
+                    return true;
+                }
+                index++;
+            }
+        } else {
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private void insert(int target, CompiledJsonPath path) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.child(path, i);
+        }
+        node.targets = Arrays.copyOf(node.targets, node.targets.length + 1);
+        node.targets[node.targets.length - 1] = target;
+    }
+
+    private static final class Node {
+        private Map<String, Node> fields;
+        private Node[] elements;
+        private int[] targets = NO_TARGETS;
+        private final List<NestedTarget> nested = new ArrayList<>(0);
+
+        /**
+         * Gets or adds the child for a path segment
+         */
+        private Node child(CompiledJsonPath path, int i) {
+            int index = path.indexAt(i);
+            if (index < 0) {
+                if (fields == null) {
+                    fields = new HashMap<>();
+                }
+                return fields.computeIfAbsent(path.keyAt(i), key -> new Node());
+            }
+
+            if (elements == null || elements.length <= index) {
+                elements = elements == null ? new Node[index + 1] : Arrays.copyOf(elements, index + 1);
+            }
+            if (elements[index] == null) {
+                elements[index] = new Node();
+            }
+            return elements[index];
+        }
+    }
+
+    private record NestedTarget(int target, CompiledJsonPath path) {
+    }
+
+    private static final class State {
+        private final JsonNode[] values = new JsonNode[4];
+        private int remaining;
+
+        private State(int remaining) {
+            this.remaining = remaining;
+        }
+
+        private void found(int target, JsonNode value) {
+            values[target] = value;
+            remaining--;
+        }
+    }
+
+    /**
+     * Values extracted from a response; each is null if the schema declares no path for it
+     * or the response has no value there
+     */
+    public static final class Result {
+        private final JsonNode text;
+        private final JsonNode usage;
+        private final JsonNode model;
+        private final JsonNode stopReason;
+
+        private Result(JsonNode text, JsonNode usage, JsonNode model, JsonNode stopReason) {
+            this.text = text;
+            this.usage = usage;
+            this.model = model;
+            this.stopReason = stopReason;
+        }
+
+        /**
+         * Creates a result, for {@link SchemaCodec#extractResponse(JsonParser)}
+         */
+        public static Result of(JsonNode text, JsonNode usage, JsonNode model, JsonNode stopReason) {
+            return new Result(text, usage, model, stopReason);
+        }
+
+        /**
+         * Gets the response text, as {@link GeneralContext#extractTextResponse(JsonNode)} would
+         * @return The text, or null if the response has none
+         */
+        public String getText() {
+            return text != null ? text.asText() : null;
+        }
+
+        public JsonNode getUsage() {
+            return usage;
+        }
+
+        public String getModel() {
+            return asText(model);
+        }
+
+        public String getStopReason() {
+            return asText(stopReason);
+        }
+
+        private static String asText(JsonNode node) {
+            return node == null || node.isNull() ? null : node.asText();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.hyni.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of compiled schemas keyed by provider and schema path
+ *
+ * Lookups of fresh entries are lock-free. Entries expire after the configured TTL so that
+ * edits to schema files are eventually picked up, and the least recently used entry is
+ * evicted once the cache grows beyond its maximum size.
+ * Thread-safe; cached schemas are immutable and shared by every caller.
+ */
+final class SchemaCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize Maximum number of cached schemas, must be positive
+     * @param ttl Time-to-live of a cached schema; zero or negative disables expiry
+     */
+    SchemaCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        Objects.requireNonNull(ttl, "TTL cannot be null");
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.isNegative() || ttl.isZero() ? 0 : ttl.toNanos();
+    }
+
+    /**
+     * Returns the cached schema for the given provider and path, loading it on a miss
+     * @param provider The provider name
+     * @param path The resolved schema path
+     * @param loader Loads and compiles the schema file
+     * @return The shared compiled schema
+     */
+    CompiledSchema get(String provider, Path path, Function<Path, CompiledSchema> loader) {
+        Key key = new Key(provider, path);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isExpired(now, ttlNanos)) {
+            entry.lastAccess = now;
+            hits.increment();
+            return entry.schema;
+        }
+
+        boolean[] loaded = new boolean[1];
+        entry = entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now, ttlNanos)) {
+                return existing;
+            }
+            loaded[0] = true;
+            return new Entry(loader.apply(k.path), now);
+        });
+
+        if (loaded[0]) {
+            misses.increment();
+            evictIfNecessary();
+        } else {
+            hits.increment();
+        }
+        return entry.schema;
+    }
+
+    /**
+     * Removes every cached schema of the given provider
+     * @param provider The provider name
+     */
+    void invalidate(String provider) {
+        entries.keySet().removeIf(key -> key.provider.equals(provider));
+    }
+
+    /**
+     * Removes all cached schemas and resets the counters
+     */
+    void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void evictIfNecessary() {
+        while (entries.size() > maxSize) {
+            Map.Entry<Key, Entry> eldest = null;
+            for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (entries.remove(eldest.getKey(), eldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private record Key(String provider, Path path) {
+    }
+
+    private static final class Entry {
+        private final CompiledSchema schema;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        private Entry(CompiledSchema schema, long loadedAt) {
+            this.schema = schema;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return ttlNanos > 0 && now - loadedAt >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hyni.core.exception.ValidationException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Code generated at build time from one provider schema
+ *
+ * A codec takes over the parts of a {@link GeneralContext} that otherwise interpret the
+ * schema on every call: writing the request object, validating parameters and extracting
+ * response fields. Field names, literals, limits and paths are compiled into the code, so
+ * each codec is a small monomorphic class per provider. Codecs are generated by the
+ * hyni-codegen annotation processor and registered as services; {@link SchemaCodecs} only
+ * selects one for a schema whose fingerprint matches the schema it was generated from, and
+ * any other schema is interpreted as before. Implementations are stateless and thread-safe.
+ */
+public interface SchemaCodec {
+
+    /**
+     * Gets the provider name declared by the schema
+     */
+    String getProviderName();
+
+    /**
+     * Gets the fingerprint of the schema the codec was generated from
+     * @see SchemaCodecs#fingerprint(JsonNode)
+     */
+    String getSchemaFingerprint();
+
+    /**
+     * Validates a parameter value against the schema's definition, as
+     * {@link CompiledSchema.ParameterDefinition#validate(JsonNode)} does
+     * @param name The parameter name
+     * @param value The value, never a JSON null
+     * @return False if the schema does not define the parameter
+     * @throws ValidationException If the value violates the definition
+     */
+    boolean validateParameter(String name, JsonNode value);
+
+    /**
+     * Writes the request object, as {@link GeneralContext#writeRequest(JsonGenerator, boolean)} does
+     * @param gen The generator to write to
+     * @param request The state of the context
+     * @throws IOException If writing fails
+     */
+    void writeRequest(JsonGenerator gen, Request request) throws IOException;
+
+    /**
+     * Extracts the response fields, as {@link ResponseExtractor} does
+     * @param parser A parser positioned before the response
+     * @return The extracted values
+     * @throws IOException If the response is not valid JSON up to the last extracted value
+     */
+    ResponseExtractor.Result extractResponse(JsonParser parser) throws IOException;
+
+    /**
+     * The state of a context that goes into a request
+     */
+    interface Request {
+
+        /**
+         * @return The parameter value, or null if the parameter is not set
+         */
+        JsonNode getParameter(String name);
+
+        Map<String, JsonNode> getParameters();
+
+        /**
+         * @return The model, or null if none is set
+         */
+        String getModel();
+
+        /**
+         * @return The system message if it is sent as a top-level field, otherwise null
+         */
+        String getSystemMessage();
+
+        /**
+         * @return The value of the stream field when no parameter sets it
+         */
+        boolean isStreaming();
+
+        /**
+         * @return The configured default for max_tokens, or null
+         */
+        Integer getDefaultMaxTokens();
+
+        /**
+         * @return The configured default for temperature, or null
+         */
+        Double getDefaultTemperature();
+
+        /**
+         * Writes the messages field, including the system message if it is sent as a message
+         */
+        void writeMessages(JsonGenerator gen) throws IOException;
+    }
+}
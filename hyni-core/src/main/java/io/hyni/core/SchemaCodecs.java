@@ -0,0 +1,126 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.exception.SchemaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * The set of generated {@link SchemaCodec}s available to {@link CompiledSchema}
+ *
+ * A codec is only used for the exact schema it was generated from: schemas are matched by
+ * provider name and fingerprint, so an edited or custom schema is interpreted rather than
+ * handled by a codec that no longer describes it. Immutable and thread-safe.
+ */
+public final class SchemaCodecs {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaCodecs.class);
+
+    private static final ObjectMapper FINGERPRINT_MAPPER = new ObjectMapper();
+
+    private static final SchemaCodecs NONE = new SchemaCodecs(List.of());
+
+    private final List<SchemaCodec> codecs;
+
+    private SchemaCodecs(List<SchemaCodec> codecs) {
+        this.codecs = List.copyOf(codecs);
+    }
+
+    /**
+     * Gets an empty set, so that every schema is interpreted
+     */
+    public static SchemaCodecs none() {
+        return NONE;
+    }
+
+    /**
+     * Gets the codecs registered as services on the class path, such as those of hyni-codecs
+     * @return The installed codecs, discovered once
+     */
+    public static SchemaCodecs installed() {
+        return Installed.CODECS;
+    }
+
+    /**
+     * Discovers the codecs registered as services
+     * @param classLoader The class loader to search
+     * @return The discovered codecs; codecs that fail to load are skipped
+     */
+    public static SchemaCodecs discover(ClassLoader classLoader) {
+        List<SchemaCodec> codecs = new ArrayList<>();
+        try {
+            for (SchemaCodec codec : ServiceLoader.load(SchemaCodec.class, classLoader)) {
+                codecs.add(codec);
+            }
+        } catch (ServiceConfigurationError e) {
+            logger.warn("Could not load schema codecs, schemas will be interpreted: {}", e.getMessage());
+        }
+        return new SchemaCodecs(codecs);
+    }
+
+    public static SchemaCodecs of(SchemaCodec... codecs) {
+        return new SchemaCodecs(List.of(codecs));
+    }
+
+    /**
+     * Finds the codec generated from a schema
+     * @param schema The parsed schema
+     * @return The codec, or null if none was generated from this exact schema
+     */
+    public SchemaCodec find(JsonNode schema) {
+        String providerName = schema.path("provider").path("name").asText();
+        String fingerprint = null;
+        for (SchemaCodec codec : codecs) {
+            if (!codec.getProviderName().equals(providerName)) {
+                continue;
+            }
+            if (fingerprint == null) {
+                fingerprint = fingerprint(schema);
+            }
+            if (codec.getSchemaFingerprint().equals(fingerprint)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    public List<SchemaCodec> getCodecs() {
+        return codecs;
+    }
+
+    public boolean isEmpty() {
+        return codecs.isEmpty();
+    }
+
+    /**
+     * Computes the fingerprint identifying a schema's content
+     *
+     * The SHA-256 of the schema's compact serialization, so it ignores formatting but not
+     * the order of fields, which the order of request fields depends on.
+     * @param schema The parsed schema
+     * @return The fingerprint as lowercase hex
+     */
+    public static String fingerprint(JsonNode schema) {
+        try {
+            byte[] json = FINGERPRINT_MAPPER.writeValueAsString(schema).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new SchemaException("Failed to fingerprint schema: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Installed {
+        static final SchemaCodecs CODECS = discover(SchemaCodecs.class.getClassLoader());
+    }
+}
@@ -1,24 +1,66 @@
 package io.hyni.core;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
- * Immutable configuration for schema paths
+ * Configuration for schema paths, with an in-memory index of the available schemas
+ *
+ * The index is a snapshot of the schema files found when the registry is built, so
+ * provider lookups never touch the file system. It is rebuilt by {@link #refresh()}, or
+ * by a background thread watching the schema directories when built with
+ * {@link Builder#watchForChanges(boolean)}; a new snapshot is swapped in atomically and
+ * {@link ChangeListener}s are told which providers were added, removed or modified.
  * Thread-safe after construction. Create once and share across threads.
  */
-public class SchemaRegistry {
+public class SchemaRegistry implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistry.class);
+
+    // A single save often produces several events; they are coalesced into one refresh
+    private static final long WATCH_DEBOUNCE_MILLIS = 50;
+
+    /**
+     * Notified when schema files change
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * Called after a new snapshot has been swapped in
+         * @param providers The providers whose schema was added, removed or modified
+         */
+        void schemasChanged(Set<String> providers);
+    }
 
     private final Path schemaDirectory;
     private final Map<String, Path> providerPaths;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final boolean watchForChanges;
+    private WatchService watchService;
+    private volatile Snapshot snapshot;
+    private volatile boolean closed;
 
     private SchemaRegistry(Builder builder) {
         this.schemaDirectory = builder.schemaDirectory;
         this.providerPaths = Map.copyOf(builder.providerPaths);
+        this.snapshot = scan();
+        this.watchForChanges = builder.watchForChanges;
+        this.watchService = watchForChanges ? startWatching() : null;
     }
 
     public static Builder create() {
@@ -28,6 +70,7 @@ public class SchemaRegistry {
     public static class Builder {
         private Path schemaDirectory = Paths.get("./schemas");
         private Map<String, Path> providerPaths = new HashMap<>();
+        private boolean watchForChanges;
 
         public Builder setSchemaDirectory(String directory) {
             if (directory == null || directory.trim().isEmpty()) {
@@ -58,6 +101,16 @@ public class SchemaRegistry {
             return this;
         }
 
+        /**
+         * Watch the schema directory and the directories of registered schemas, refreshing
+         * the index when files change. The watching thread stops when the registry is closed.
+         * @param watchForChanges Whether to watch for changes, false by default
+         */
+        public Builder watchForChanges(boolean watchForChanges) {
+            this.watchForChanges = watchForChanges;
+            return this;
+        }
+
         public SchemaRegistry build() {
             return new SchemaRegistry(this);
         }
@@ -76,41 +129,116 @@ public class SchemaRegistry {
         return schemaDirectory.resolve(providerName + ".json").toAbsolutePath();
     }
 
+    /**
+     * Gets the providers with a schema file, as of the last refresh
+     * @return Unmodifiable list of provider names
+     */
     public List<String> getAvailableProviders() {
-        Set<String> providers = new HashSet<>();
+        return snapshot.providers;
+    }
 
-        // From registered paths
-        for (Map.Entry<String, Path> entry : providerPaths.entrySet()) {
-            if (Files.exists(entry.getValue())) {
-                providers.add(entry.getKey());
-            }
+    /**
+     * Checks if a provider has a schema file, as of the last refresh
+     * @param providerName The provider name
+     * @return True if the provider's schema file exists
+     */
+    public boolean isProviderAvailable(String providerName) {
+        if (providerName == null || providerName.trim().isEmpty()) {
+            return false;
+        }
+        return snapshot.files.containsKey(providerName);
+    }
+
+    /**
+     * Rescans the schema files and swaps in a new index
+     *
+     * Listeners are notified if a schema was added, removed, or modified since the last scan.
+     * Called by the watching thread; call it directly when the registry is not watching,
+     * or to pick up changes made while watching was suspended.
+     */
+    public void refresh() {
+        Set<String> changed;
+        synchronized (this) {
+            Snapshot previous = snapshot;
+            Snapshot current = scan();
+            changed = new HashSet<>(previous.files.keySet());
+            changed.addAll(current.files.keySet());
+            changed.removeIf(provider -> Objects.equals(previous.files.get(provider), current.files.get(provider)));
+            snapshot = current;
         }
 
-        // From schema directory
-        if (Files.exists(schemaDirectory) && Files.isDirectory(schemaDirectory)) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        logger.info("Schema changes detected for providers: {}", changed);
+        Set<String> providers = Collections.unmodifiableSet(changed);
+        for (ChangeListener listener : listeners) {
             try {
-                providers.addAll(
-                    Files.list(schemaDirectory)
-                        .filter(Files::isRegularFile)
-                        .filter(path -> path.toString().endsWith(".json"))
-                        .map(path -> path.getFileName().toString())
-                        .map(name -> name.substring(0, name.lastIndexOf('.')))
-                        .collect(Collectors.toSet())
-                );
-            } catch (IOException e) {
-                // Log warning but don't fail - directory might be inaccessible
-                System.err.println("Warning: Could not list schema directory: " + e.getMessage());
+                listener.schemasChanged(providers);
+            } catch (RuntimeException e) {
+                logger.warn("Schema change listener failed", e);
             }
         }
+    }
 
-        return new ArrayList<>(providers);
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
     }
 
-    public boolean isProviderAvailable(String providerName) {
-        if (providerName == null || providerName.trim().isEmpty()) {
-            return false;
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Checks if a background thread refreshes the index when schema files change
+     * @return True if the registry watches for changes and has not been closed, including while suspended
+     */
+    public boolean isWatching() {
+        return watchForChanges && !closed;
+    }
+
+    /**
+     * Stops the watching thread and releases its file handles until {@link #resumeWatching()},
+     * such as before the process is checkpointed. Changes made meanwhile are only picked up
+     * by a {@link #refresh()}.
+     */
+    public synchronized void suspendWatching() {
+        closeWatchService();
+    }
+
+    /**
+     * Restarts the watching thread stopped by {@link #suspendWatching()}
+     *
+     * Does nothing if the registry does not watch for changes or is closed.
+     */
+    public synchronized void resumeWatching() {
+        if (watchForChanges && !closed && watchService == null) {
+            watchService = startWatching();
         }
-        return Files.exists(resolveSchemaPath(providerName));
+    }
+
+    /**
+     * Stops watching for changes; the index keeps its last snapshot
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeWatchService();
+    }
+
+    private void closeWatchService() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Could not close schema watch service", e);
+        }
+        watchService = null;
     }
 
     // Getters for testing
@@ -121,4 +249,117 @@ public class SchemaRegistry {
     public Map<String, Path> getProviderPaths() {
         return Collections.unmodifiableMap(providerPaths);
     }
+
+    private Snapshot scan() {
+        Map<String, SchemaFile> files = new HashMap<>();
+
+        // From schema directory
+        if (Files.isDirectory(schemaDirectory)) {
+            try (Stream<Path> paths = Files.list(schemaDirectory)) {
+                paths.filter(path -> path.toString().endsWith(".json")).forEach(path -> {
+                    String name = path.getFileName().toString();
+                    SchemaFile file = SchemaFile.of(path);
+                    if (file != null) {
+                        files.put(name.substring(0, name.lastIndexOf('.')), file);
+                    }
+                });
+            } catch (IOException e) {
+                // Log warning but don't fail - directory might be inaccessible
+                logger.warn("Could not list schema directory: {}", e.getMessage());
+            }
+        }
+
+        // From registered paths, which take precedence over the directory
+        for (Map.Entry<String, Path> entry : providerPaths.entrySet()) {
+            SchemaFile file = SchemaFile.of(entry.getValue());
+            if (file != null) {
+                files.put(entry.getKey(), file);
+            } else {
+                files.remove(entry.getKey());
+            }
+        }
+
+        return new Snapshot(Map.copyOf(files), List.copyOf(files.keySet()));
+    }
+
+    private WatchService startWatching() {
+        Set<Path> directories = new LinkedHashSet<>();
+        directories.add(schemaDirectory.toAbsolutePath());
+        for (Path path : providerPaths.values()) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                directories.add(parent);
+            }
+        }
+
+        WatchService service;
+        try {
+            service = schemaDirectory.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            logger.warn("Could not watch schema files, changes need a refresh: {}", e.getMessage());
+            return null;
+        }
+
+        for (Path directory : directories) {
+            if (!Files.isDirectory(directory)) {
+                logger.debug("Not watching missing schema directory: {}", directory);
+                continue;
+            }
+            try {
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException e) {
+                logger.warn("Could not watch schema directory {}: {}", directory, e.getMessage());
+            }
+        }
+
+        Thread watcher = new Thread(() -> watch(service), "hyni-schema-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching schema directories for changes: {}", directories);
+        return service;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (!closed) {
+                WatchKey key = service.take();
+                do {
+                    // The rescan finds what changed, so the events themselves are not needed
+                    key.pollEvents();
+                    key.reset();
+                    key = service.poll(WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                refresh();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed by close() or suspendWatching()
+        }
+    }
+
+    private record Snapshot(Map<String, SchemaFile> files, List<String> providers) {
+    }
+
+    /**
+     * Identity of a schema file's contents, compared to detect modifications
+     */
+    private record SchemaFile(Path path, FileTime lastModified, long size) {
+
+        /**
+         * @return The file's identity, or null if it is not a readable regular file
+         */
+        static SchemaFile of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    return null;
+                }
+                return new SchemaFile(path.toAbsolutePath(), attributes.lastModifiedTime(), attributes.size());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
 }
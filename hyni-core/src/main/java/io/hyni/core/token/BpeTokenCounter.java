@@ -0,0 +1,291 @@
+package io.hyni.core.token;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline byte-level BPE token counter
+ *
+ * Loads a merge list in the GPT-2 {@code merges.txt} format (one merge per line, in rank
+ * order, with bytes written through the GPT-2 byte-to-unicode mapping) and counts the tokens
+ * a text encodes to. Merges live in an open-addressing table of primitive arrays keyed by the
+ * pair of symbol ids, and the merged symbol of rank {@code r} is {@code 256 + r}, so counting
+ * allocates nothing beyond the UTF-8 bytes of the text and one working buffer.
+ *
+ * Pre-tokenization splits on letter, digit, whitespace and punctuation runs with a leading
+ * space attached to the following word, which approximates the GPT-2 pattern without regular
+ * expressions. Thread-safe and immutable once loaded.
+ */
+public final class BpeTokenCounter implements TokenCounter {
+
+    private static final int BYTE_SYMBOLS = 256;
+
+    // Long runs without a break are encoded in slices to bound the quadratic merge loop
+    private static final int MAX_PIECE_BYTES = 256;
+
+    private static final byte LETTER = 0;
+    private static final byte DIGIT = 1;
+    private static final byte SPACE = 2;
+    private static final byte OTHER = 3;
+    private static final byte[] BYTE_CLASS = new byte[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b >= 0x80) {
+                // Multi-byte UTF-8 sequences are mostly letters of other scripts
+                BYTE_CLASS[b] = LETTER;
+            } else if (b >= '0' && b <= '9') {
+                BYTE_CLASS[b] = DIGIT;
+            } else if (b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f' || b == 0x0B) {
+                BYTE_CLASS[b] = SPACE;
+            } else {
+                BYTE_CLASS[b] = OTHER;
+            }
+        }
+    }
+
+    private final long[] pairKeys;
+    private final int[] pairRanks;
+    private final int mask;
+    private final int mergeCount;
+    private final int messageOverhead;
+    private final int imageTokens;
+
+    private BpeTokenCounter(long[] pairs, int mergeCount, int messageOverhead, int imageTokens) {
+        int capacity = Integer.highestOneBit(Math.max(mergeCount, 1) * 2 - 1) << 1;
+        this.pairKeys = new long[capacity];
+        this.pairRanks = new int[capacity];
+        this.mask = capacity - 1;
+        this.mergeCount = mergeCount;
+        this.messageOverhead = messageOverhead;
+        this.imageTokens = imageTokens;
+
+        Arrays.fill(pairRanks, -1);
+        for (int rank = 0; rank < mergeCount; rank++) {
+            long key = pairs[rank];
+            int slot = slot(key);
+            while (pairRanks[slot] >= 0) {
+                if (pairKeys[slot] == key) {
+                    break; // Duplicate merge, the lower rank wins
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (pairRanks[slot] < 0) {
+                pairKeys[slot] = key;
+                pairRanks[slot] = rank;
+            }
+        }
+    }
+
+    /**
+     * Loads a merge list with the default per-message and image costs
+     * @param merges The merge list in GPT-2 {@code merges.txt} format
+     * @return The token counter
+     * @throws IOException If the list cannot be read or refers to unknown tokens
+     */
+    public static BpeTokenCounter load(InputStream merges) throws IOException {
+        return load(merges, 4, 1600);
+    }
+
+    /**
+     * Loads a merge list
+     * @param merges The merge list in GPT-2 {@code merges.txt} format
+     * @param messageOverhead Tokens added per message
+     * @param imageTokens Tokens charged per image
+     * @return The token counter
+     * @throws IOException If the list cannot be read or refers to unknown tokens
+     */
+    public static BpeTokenCounter load(InputStream merges, int messageOverhead, int imageTokens) throws IOException {
+        char[] byteToChar = byteToUnicode();
+
+        // Only needed while loading: token text to symbol id
+        Map<String, Integer> ids = new HashMap<>();
+        for (int b = 0; b < BYTE_SYMBOLS; b++) {
+            ids.put(String.valueOf(byteToChar[b]), b);
+        }
+
+        long[] pairs = new long[1024];
+        int count = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(merges, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#version")) {
+                continue;
+            }
+
+            int space = line.indexOf(' ');
+            if (space <= 0 || space == line.length() - 1) {
+                throw new IOException("Invalid merge at line " + lineNumber + ": " + line);
+            }
+            String left = line.substring(0, space);
+            String right = line.substring(space + 1).trim();
+            Integer leftId = ids.get(left);
+            Integer rightId = ids.get(right);
+            if (leftId == null || rightId == null) {
+                throw new IOException("Merge at line " + lineNumber + " refers to an unknown token: " + line);
+            }
+
+            if (count == pairs.length) {
+                pairs = Arrays.copyOf(pairs, count * 2);
+            }
+            pairs[count] = pairKey(leftId, rightId);
+            ids.putIfAbsent(left + right, BYTE_SYMBOLS + count);
+            count++;
+        }
+        return new BpeTokenCounter(pairs, count, messageOverhead, imageTokens);
+    }
+
+    /**
+     * Gets the number of merges in the vocabulary
+     * @return The merge count
+     */
+    public int getMergeCount() {
+        return mergeCount;
+    }
+
+    @Override
+    public int countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int[] symbols = new int[Math.min(bytes.length, MAX_PIECE_BYTES)];
+        int n = bytes.length;
+        int tokens = 0;
+        int i = 0;
+
+        while (i < n) {
+            int start = i;
+            byte cls = BYTE_CLASS[bytes[i] & 0xff];
+
+            if (cls == SPACE) {
+                int end = i;
+                while (end < n && BYTE_CLASS[bytes[end] & 0xff] == SPACE) {
+                    end++;
+                }
+                if (end < n && bytes[end - 1] == ' ') {
+                    if (end - 1 == i) {
+                        // A single space belongs to the following word
+                        byte next = BYTE_CLASS[bytes[end] & 0xff];
+                        end++;
+                        while (end < n && BYTE_CLASS[bytes[end] & 0xff] == next) {
+                            end++;
+                        }
+                    } else {
+                        // Leave the last space for the following word
+                        end--;
+                    }
+                }
+                tokens += encode(bytes, start, end, symbols);
+                i = end;
+            } else {
+                int end = i + 1;
+                while (end < n && BYTE_CLASS[bytes[end] & 0xff] == cls) {
+                    end++;
+                }
+                tokens += encode(bytes, start, end, symbols);
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    @Override
+    public int messageOverhead() {
+        return messageOverhead;
+    }
+
+    @Override
+    public int imageTokens() {
+        return imageTokens;
+    }
+
+    private int encode(byte[] bytes, int from, int to, int[] symbols) {
+        int tokens = 0;
+        for (int start = from; start < to; start += MAX_PIECE_BYTES) {
+            tokens += encodePiece(bytes, start, Math.min(to, start + MAX_PIECE_BYTES), symbols);
+        }
+        return tokens;
+    }
+
+    private int encodePiece(byte[] bytes, int from, int to, int[] symbols) {
+        int n = to - from;
+        for (int i = 0; i < n; i++) {
+            symbols[i] = bytes[from + i] & 0xff;
+        }
+
+        while (n > 1) {
+            int bestRank = Integer.MAX_VALUE;
+            int best = -1;
+            for (int i = 0; i < n - 1; i++) {
+                int rank = rank(symbols[i], symbols[i + 1]);
+                if (rank >= 0 && rank < bestRank) {
+                    bestRank = rank;
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+
+            // Merge every occurrence of the best pair in one pass
+            int left = symbols[best];
+            int right = symbols[best + 1];
+            int merged = BYTE_SYMBOLS + bestRank;
+            int out = 0;
+            for (int i = 0; i < n; i++) {
+                if (i < n - 1 && symbols[i] == left && symbols[i + 1] == right) {
+                    symbols[out++] = merged;
+                    i++;
+                } else {
+                    symbols[out++] = symbols[i];
+                }
+            }
+            n = out;
+        }
+        return n;
+    }
+
+    private int rank(int left, int right) {
+        long key = pairKey(left, right);
+        int slot = slot(key);
+        int rank;
+        while ((rank = pairRanks[slot]) >= 0) {
+            if (pairKeys[slot] == key) {
+                return rank;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static long pairKey(int left, int right) {
+        return ((long) left << 32) | (right & 0xffffffffL);
+    }
+
+    /**
+     * The GPT-2 mapping of bytes to printable characters used by merge files
+     */
+    private static char[] byteToUnicode() {
+        char[] chars = new char[BYTE_SYMBOLS];
+        int next = 0;
+        for (int b = 0; b < BYTE_SYMBOLS; b++) {
+            boolean printable = (b >= '!' && b <= '~') || (b >= 0xA1 && b <= 0xAC) || (b >= 0xAE && b <= 0xFF);
+            chars[b] = printable ? (char) b : (char) (BYTE_SYMBOLS + next++);
+        }
+        return chars;
+    }
+}
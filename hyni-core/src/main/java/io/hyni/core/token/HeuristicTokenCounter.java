@@ -0,0 +1,66 @@
+package io.hyni.core.token;
+
+/**
+ * Token counter that assumes a fixed number of characters per token
+ *
+ * Good to within about 20% for English prose with the default of four characters per
+ * token; code and non-Latin scripts use more tokens per character.
+ */
+public final class HeuristicTokenCounter implements TokenCounter {
+
+    /** Characters per token of common BPE vocabularies on English text */
+    public static final double DEFAULT_CHARS_PER_TOKEN = 4.0;
+
+    private static final HeuristicTokenCounter DEFAULT = new HeuristicTokenCounter(DEFAULT_CHARS_PER_TOKEN);
+
+    private final double charsPerToken;
+    private final int messageOverhead;
+    private final int imageTokens;
+
+    /**
+     * @param charsPerToken Average characters per token, must be positive
+     */
+    public HeuristicTokenCounter(double charsPerToken) {
+        this(charsPerToken, 4, 1600);
+    }
+
+    /**
+     * @param charsPerToken Average characters per token, must be positive
+     * @param messageOverhead Tokens added per message
+     * @param imageTokens Tokens charged per image
+     */
+    public HeuristicTokenCounter(double charsPerToken, int messageOverhead, int imageTokens) {
+        if (!(charsPerToken > 0)) {
+            throw new IllegalArgumentException("Characters per token must be positive");
+        }
+        this.charsPerToken = charsPerToken;
+        this.messageOverhead = messageOverhead;
+        this.imageTokens = imageTokens;
+    }
+
+    /**
+     * Gets the shared counter with the default ratio
+     * @return The default heuristic counter
+     */
+    public static HeuristicTokenCounter getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public int countTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (int) Math.ceil(text.length() / charsPerToken);
+    }
+
+    @Override
+    public int messageOverhead() {
+        return messageOverhead;
+    }
+
+    @Override
+    public int imageTokens() {
+        return imageTokens;
+    }
+}
@@ -0,0 +1,35 @@
+package io.hyni.core.token;
+
+/**
+ * Estimates how many tokens a provider will count for a piece of input
+ *
+ * Used for pre-flight sizing: conversation windowing, rate limiting and picking max_tokens.
+ * Implementations must be thread-safe, as one counter is shared by every context of a schema.
+ * The schema selects a counter through its optional {@code tokenizer} section (see
+ * {@link TokenCounters}); {@code ContextConfig} can override it.
+ */
+public interface TokenCounter {
+
+    /**
+     * Counts the tokens of a text
+     * @param text The text
+     * @return The estimated token count
+     */
+    int countTokens(String text);
+
+    /**
+     * Gets the tokens a provider adds per message for the role and framing
+     * @return The per-message overhead
+     */
+    default int messageOverhead() {
+        return 4;
+    }
+
+    /**
+     * Gets the tokens charged for an image attachment
+     * @return The estimated image cost
+     */
+    default int imageTokens() {
+        return 1600;
+    }
+}
@@ -0,0 +1,109 @@
+package io.hyni.core.token;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hyni.core.exception.SchemaException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Creates the token counter a schema declares in its {@code tokenizer} section
+ *
+ * <pre>
+ * "tokenizer": {"type": "heuristic", "chars_per_token": 3.5}
+ * "tokenizer": {"type": "bpe", "merges": "tokenizers/example-merges.txt"}
+ * </pre>
+ * Both types accept {@code message_overhead} and {@code image_tokens}. Schemas without the
+ * section get the default heuristic. Further types can be registered with {@link #register}.
+ * Merge lists are loaded from the file system or, failing that, the classpath, and are shared
+ * by every schema that names them.
+ */
+public final class TokenCounters {
+
+    private static final Map<String, Function<JsonNode, TokenCounter>> FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<String, BpeTokenCounter> MERGES = new ConcurrentHashMap<>();
+
+    static {
+        FACTORIES.put("heuristic", TokenCounters::heuristic);
+        FACTORIES.put("bpe", TokenCounters::bpe);
+    }
+
+    private TokenCounters() {
+    }
+
+    /**
+     * Registers a tokenizer type that schemas can declare
+     * @param type The value of tokenizer.type
+     * @param factory Creates a counter from the tokenizer section
+     */
+    public static void register(String type, Function<JsonNode, TokenCounter> factory) {
+        if (type == null || factory == null) {
+            throw new IllegalArgumentException("Type and factory cannot be null");
+        }
+        FACTORIES.put(type, factory);
+    }
+
+    /**
+     * Creates the counter for a schema's tokenizer section
+     * @param tokenizer The tokenizer section, missing or null for the default
+     * @return The token counter
+     * @throws SchemaException If the type is unknown or the counter cannot be created
+     */
+    public static TokenCounter forSchema(JsonNode tokenizer) {
+        if (tokenizer == null || tokenizer.isMissingNode() || tokenizer.isNull()) {
+            return HeuristicTokenCounter.getDefault();
+        }
+
+        String type = tokenizer.path("type").asText("heuristic");
+        Function<JsonNode, TokenCounter> factory = FACTORIES.get(type);
+        if (factory == null) {
+            throw new SchemaException("Unknown tokenizer type: " + type);
+        }
+        return factory.apply(tokenizer);
+    }
+
+    private static TokenCounter heuristic(JsonNode tokenizer) {
+        if (!tokenizer.has("chars_per_token") && !tokenizer.has("message_overhead") && !tokenizer.has("image_tokens")) {
+            return HeuristicTokenCounter.getDefault();
+        }
+        return new HeuristicTokenCounter(
+            tokenizer.path("chars_per_token").asDouble(HeuristicTokenCounter.DEFAULT_CHARS_PER_TOKEN),
+            tokenizer.path("message_overhead").asInt(4),
+            tokenizer.path("image_tokens").asInt(1600));
+    }
+
+    private static TokenCounter bpe(JsonNode tokenizer) {
+        String merges = tokenizer.path("merges").asText(null);
+        if (merges == null) {
+            throw new SchemaException("BPE tokenizer requires 'merges'");
+        }
+        int messageOverhead = tokenizer.path("message_overhead").asInt(4);
+        int imageTokens = tokenizer.path("image_tokens").asInt(1600);
+
+        return MERGES.computeIfAbsent(merges + "#" + messageOverhead + "#" + imageTokens, key -> {
+            try (InputStream in = open(merges)) {
+                return BpeTokenCounter.load(in, messageOverhead, imageTokens);
+            } catch (IOException e) {
+                throw new SchemaException("Failed to load BPE merges: " + merges, e);
+            }
+        });
+    }
+
+    private static InputStream open(String location) throws IOException {
+        Path path = Paths.get(location);
+        if (Files.exists(path)) {
+            return Files.newInputStream(path);
+        }
+        InputStream in = TokenCounters.class.getClassLoader().getResourceAsStream(location);
+        if (in == null) {
+            throw new IOException("Merges not found: " + location);
+        }
+        return in;
+    }
+}
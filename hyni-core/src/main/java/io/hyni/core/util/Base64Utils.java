@@ -11,9 +11,32 @@ import java.util.Base64;
  */
 public class Base64Utils {
 
-    private static final String BASE64_CHARS =
-        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/=";
-    private static final long MAX_IMAGE_SIZE = 10 * 1024 * 1024; // 10MB
+    static final long MAX_IMAGE_SIZE = 10 * 1024 * 1024; // 10MB
+
+    private static final char[] ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    // Character classes for validation, indexed by ASCII code
+    private static final byte INVALID = 0;
+    private static final byte DIGIT = 1;
+    private static final byte PADDING = 2;
+    private static final byte WHITESPACE = 3;
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    static {
+        for (char c : ALPHABET) {
+            CHAR_CLASS[c] = DIGIT;
+        }
+        CHAR_CLASS['='] = PADDING;
+        for (char c = 0; c < CHAR_CLASS.length; c++) {
+            if (Character.isWhitespace(c)) {
+                CHAR_CLASS[c] = WHITESPACE;
+            }
+        }
+    }
+
+    private static final String DATA_URI_SCHEME = "data:";
+    private static final String DATA_URI_BASE64 = ";base64,";
 
     /**
      * Encode byte array to Base64 string
@@ -22,27 +45,72 @@ public class Base64Utils {
         return Base64.getEncoder().encodeToString(data);
     }
 
+    /**
+     * Encodes bytes into Base64 characters, padding the final group
+     * @param src The bytes to encode
+     * @param from Offset of the first byte
+     * @param count Number of bytes to encode
+     * @param dst Receives the characters from index 0; needs room for {@code 4 * ceil(count / 3)}
+     * @return The number of characters written
+     */
+    public static int encode(byte[] src, int from, int count, char[] dst) {
+        int end = from + count;
+        int full = from + count / 3 * 3;
+        int d = 0;
+        int i = from;
+        while (i < full) {
+            int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[d++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[d++] = ALPHABET[bits & 0x3f];
+        }
+        if (i < end) {
+            int bits = (src[i++] & 0xff) << 16;
+            boolean two = i < end;
+            if (two) {
+                bits |= (src[i] & 0xff) << 8;
+            }
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[d++] = two ? ALPHABET[(bits >>> 6) & 0x3f] : '=';
+            dst[d++] = '=';
+        }
+        return d;
+    }
+
     /**
      * Encode image file to Base64 string
+     *
+     * Reads and encodes the whole file at once; {@link MediaSource#ofFile} encodes it lazily instead.
      */
     public static String encodeImageToBase64(String imagePath) throws IOException {
-        Path path = Paths.get(imagePath);
+        return encode(readImageFile(Paths.get(imagePath)));
+    }
 
+    /**
+     * Reads an image file
+     * @param path The image file
+     * @return The raw image
+     * @throws IOException If the file does not exist, is too large or cannot be read
+     */
+    public static byte[] readImageFile(Path path) throws IOException {
         if (!Files.exists(path)) {
-            throw new IOException("Image file does not exist: " + imagePath);
+            throw new IOException("Image file does not exist: " + path);
         }
 
         long fileSize = Files.size(path);
         if (fileSize > MAX_IMAGE_SIZE) {
             throw new IOException("Image file too large: " + fileSize + " bytes");
         }
-
-        byte[] imageBytes = Files.readAllBytes(path);
-        return encode(imageBytes);
+        return Files.readAllBytes(path);
     }
 
     /**
      * Check if a string is Base64 encoded
+     *
+     * Accepts a data URI with a Base64 payload, or Base64 characters with optional whitespace
+     * whose count is a multiple of four, with no padding or two padding characters.
      */
     public static boolean isBase64Encoded(String data) {
         if (data == null || data.isEmpty()) {
@@ -50,28 +118,41 @@ public class Base64Utils {
         }
 
         // Check for data URI scheme (e.g., "data:image/png;base64,...")
-        if (data.startsWith("data:") && data.contains(";base64,")) {
+        if (dataUriPayloadOffset(data) > 0) {
             return true;
         }
 
-        // Check for valid Base64 characters
         int padding = 0;
         int dataLen = 0;
 
-        for (char c : data.toCharArray()) {
-            if (Character.isWhitespace(c)) continue;
-
-            if (BASE64_CHARS.indexOf(c) == -1) {
-                return false;
-            }
+        for (int i = 0, n = data.length(); i < n; i++) {
+            char c = data.charAt(i);
+            byte charClass = c < 128 ? CHAR_CLASS[c] : Character.isWhitespace(c) ? WHITESPACE : INVALID;
 
-            if (c == '=') {
+            if (charClass == DIGIT) {
+                dataLen++;
+            } else if (charClass == PADDING) {
                 if (++padding > 2) return false;
+                dataLen++;
+            } else if (charClass != WHITESPACE) {
+                return false;
             }
-            dataLen++;
         }
 
         // Validate length and padding
         return (dataLen % 4 == 0) && (padding != 1);
     }
+
+    /**
+     * Finds where the Base64 payload of a data URI starts
+     * @param data The text to inspect
+     * @return Index after {@code ;base64,}, or 0 if the text is not a Base64 data URI
+     */
+    public static int dataUriPayloadOffset(String data) {
+        if (!data.startsWith(DATA_URI_SCHEME)) {
+            return 0;
+        }
+        int marker = data.indexOf(DATA_URI_BASE64, DATA_URI_SCHEME.length());
+        return marker < 0 ? 0 : marker + DATA_URI_BASE64.length();
+    }
 }
@@ -0,0 +1,161 @@
+package io.hyni.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * A JSON path with its segments classified once into array indices and object keys
+ *
+ * Schemas declare response paths as arrays such as {@code ["choices", 0, "message", "content"]}.
+ * Compiling a path when the schema is loaded leaves one field or element lookup per segment
+ * when a response is read. Textual segments made of digits are array indices, as with
+ * {@link JsonPathResolver#resolvePath(JsonNode, List)}. Instances are immutable and thread-safe.
+ */
+public final class CompiledJsonPath {
+
+    private final String[] keys;
+    // Array index of each segment, or -1 for an object key
+    private final int[] indices;
+    private final List<String> segments;
+
+    private CompiledJsonPath(List<String> segments) {
+        this.segments = List.copyOf(segments);
+        this.keys = new String[segments.size()];
+        this.indices = new int[segments.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = segments.get(i);
+            indices[i] = parseIndex(keys[i]);
+        }
+    }
+
+    /**
+     * Compiles a path declared as a JSON array of keys and indices
+     * @param pathArray The path array; other nodes compile to an empty path
+     * @return The compiled path
+     */
+    public static CompiledJsonPath compile(JsonNode pathArray) {
+        return new CompiledJsonPath(JsonPathResolver.parseJsonPath(pathArray));
+    }
+
+    /**
+     * Compiles a path given as segments
+     * @param segments The keys and indices, indices in decimal
+     * @return The compiled path
+     */
+    public static CompiledJsonPath of(List<String> segments) {
+        return new CompiledJsonPath(segments);
+    }
+
+    /**
+     * Resolves the path, returning null where the structure does not match
+     * @param json The JSON to resolve against
+     * @return The node at the path, or null if a segment is missing
+     */
+    public JsonNode tryResolve(JsonNode json) {
+        JsonNode current = json;
+        for (int i = 0; i < keys.length && current != null; i++) {
+            int index = indices[i];
+            current = index >= 0
+                ? (current.isArray() ? current.get(index) : null)
+                : (current.isObject() ? current.get(keys[i]) : null);
+        }
+        return current;
+    }
+
+    /**
+     * Resolves the path
+     * @param json The JSON to resolve against
+     * @return The node at the path
+     * @throws IllegalArgumentException If a segment is missing
+     */
+    public JsonNode resolve(JsonNode json) {
+        JsonNode current = json;
+        for (int i = 0; i < keys.length; i++) {
+            JsonNode next;
+            if (indices[i] >= 0) {
+                next = current != null && current.isArray() ? current.get(indices[i]) : null;
+                if (next == null) {
+                    throw new IllegalArgumentException("Invalid array access: index " + keys[i]);
+                }
+            } else {
+                next = current != null && current.isObject() ? current.get(keys[i]) : null;
+                if (next == null) {
+                    throw new IllegalArgumentException("Invalid object access: key " + keys[i]);
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Resolves the path to text
+     * @param json The JSON to resolve against
+     * @return The text of the node at the path, or null if a segment is missing or the node is null
+     */
+    public String tryResolveText(JsonNode json) {
+        JsonNode node = tryResolve(json);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    public List<String> getSegments() {
+        return segments;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public int length() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the array index of a segment
+     * @param i The segment position
+     * @return The index, or -1 if the segment is an object key
+     */
+    public int indexAt(int i) {
+        return indices[i];
+    }
+
+    public String keyAt(int i) {
+        return keys[i];
+    }
+
+    /**
+     * Gets the path made of the segments from a position on
+     * @param from The first segment of the sub-path
+     * @return The sub-path, relative to the node reached by the first {@code from} segments
+     */
+    public CompiledJsonPath subPath(int from) {
+        return new CompiledJsonPath(segments.subList(from, segments.size()));
+    }
+
+    @Override
+    public String toString() {
+        return segments.toString();
+    }
+
+    /**
+     * Parses a non-negative decimal array index
+     * @param segment The path segment
+     * @return The index, or -1 if the segment is not one
+     */
+    static int parseIndex(String segment) {
+        int length = segment.length();
+        if (length == 0 || length > 10) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? (int) value : -1;
+    }
+}
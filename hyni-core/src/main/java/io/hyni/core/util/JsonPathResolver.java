@@ -8,6 +8,9 @@ import java.util.List;
 
 /**
  * Utility for resolving JSON paths
+ *
+ * Paths resolved repeatedly, such as the response paths of a schema, should be compiled
+ * once with {@link CompiledJsonPath} instead.
  */
 public class JsonPathResolver {
 
@@ -18,9 +21,9 @@ public class JsonPathResolver {
         JsonNode current = json;
 
         for (String key : path) {
-            if (isNumeric(key)) {
+            int index = CompiledJsonPath.parseIndex(key);
+            if (index >= 0) {
                 // Array index
-                int index = Integer.parseInt(key);
                 if (!current.isArray() || index >= current.size()) {
                     throw new IllegalArgumentException("Invalid array access: index " + key);
                 }
@@ -55,13 +58,4 @@ public class JsonPathResolver {
 
         return path;
     }
-
-    private static boolean isNumeric(String str) {
-        try {
-            Integer.parseInt(str);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
 }
@@ -0,0 +1,242 @@
+package io.hyni.core.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache of Base64 encoded media, keyed by content hash
+ *
+ * Encoded media is stored once per distinct content (SHA-256) as ASCII bytes, and every
+ * message attaching it references the same entry. Files have a fast path keyed by path
+ * that remembers each file's modification time, size and entry, which skips reading and
+ * hashing a file that has not changed; a changed file replaces its record.
+ * The cache is bounded by the total size of the encoded media and of the file records; the
+ * least recently used entries are evicted first, together with the records of the files
+ * holding them. An evicted entry stays valid for messages still holding it.
+ * Thread-safe; one instance is meant to be shared by all contexts through {@code ContextConfig}.
+ */
+public final class MediaCache {
+
+    /** Default bound on the encoded bytes held by the cache */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    // Rough per-entry cost of the key, entry and map node
+    private static final int ENTRY_OVERHEAD = 160;
+
+    // Rough cost of a file record and its map node, besides the path's characters
+    private static final int FILE_OVERHEAD = 200;
+
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Path, FileRecord> files = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MediaCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes Maximum total size of the cached encoded media, must be positive
+     */
+    public MediaCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the encoded content of a file, reading and encoding it only if its path,
+     * modification time or size changed and its content is not cached yet
+     * @param path The media file
+     * @param prefix Text written before the encoded data, or null
+     * @return A media source referencing the cached entry
+     * @throws IOException If the file does not exist, is too large or cannot be read
+     */
+    public MediaSource get(Path path, String prefix) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Image file does not exist: " + path, e);
+        }
+        if (attributes.size() > Base64Utils.MAX_IMAGE_SIZE) {
+            throw new IOException("Image file too large: " + attributes.size() + " bytes");
+        }
+
+        Path key = path.toAbsolutePath().normalize();
+        long modified = attributes.lastModifiedTime().toMillis();
+        FileRecord record = files.get(key);
+        if (record != null && record.modified == modified && record.size == attributes.size()
+            && entries.get(record.entry.hash) == record.entry) {
+            record.entry.lastAccess = System.nanoTime();
+            hits.increment();
+            return MediaSource.ofEncodedBytes(record.entry.encoded, prefix);
+        }
+
+        Entry entry = getOrEncode(Files.readAllBytes(path));
+        if (entries.get(entry.hash) == entry) {
+            FileRecord updated = new FileRecord(key, modified, attributes.size(), entry);
+            FileRecord previous = files.put(key, updated);
+            weight.addAndGet(updated.weight - (previous != null ? previous.weight : 0));
+            evictIfNecessary();
+        }
+        return MediaSource.ofEncodedBytes(entry.encoded, prefix);
+    }
+
+    /**
+     * Returns the encoded form of raw media, encoding it only if the content is not cached yet
+     * @param data The raw media
+     * @param prefix Text written before the encoded data, or null
+     * @return A media source referencing the cached entry
+     */
+    public MediaSource get(byte[] data, String prefix) {
+        return MediaSource.ofEncodedBytes(getOrEncode(data).encoded, prefix);
+    }
+
+    /**
+     * Removes all cached media and resets the counters
+     */
+    public void clear() {
+        entries.clear();
+        files.clear();
+        weight.set(0);
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of files whose entry is remembered
+     */
+    int fileCount() {
+        return files.size();
+    }
+
+    /**
+     * Gets the estimated memory held by cached entries and file records
+     * @return The weight in bytes
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Entry getOrEncode(byte[] data) {
+        String hash = sha256(data);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(hash);
+        if (entry != null) {
+            entry.lastAccess = now;
+            hits.increment();
+            return entry;
+        }
+
+        misses.increment();
+        Entry encoded = new Entry(hash, Base64.getEncoder().encode(data), now);
+        if (encoded.weight > maxBytes) {
+            // Too large to cache; the caller still gets the encoded media
+            return encoded;
+        }
+
+        entry = entries.putIfAbsent(hash, encoded);
+        if (entry != null) {
+            return entry;
+        }
+        weight.addAndGet(encoded.weight);
+        evictIfNecessary();
+        return encoded;
+    }
+
+    private void evictIfNecessary() {
+        while (weight.get() > maxBytes) {
+            Map.Entry<String, Entry> eldest = null;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            Entry evicted = eldest.getValue();
+            if (entries.remove(eldest.getKey(), evicted)) {
+                weight.addAndGet(-evicted.weight);
+                for (FileRecord record : files.values()) {
+                    if (record.entry == evicted && files.remove(record.path, record)) {
+                        weight.addAndGet(-record.weight);
+                    }
+                }
+                evictions.increment();
+            }
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class FileRecord {
+        private final Path path;
+        private final long modified;
+        private final long size;
+        private final Entry entry;
+        private final long weight;
+
+        private FileRecord(Path path, long modified, long size, Entry entry) {
+            this.path = path;
+            this.modified = modified;
+            this.size = size;
+            this.entry = entry;
+            this.weight = FILE_OVERHEAD + 2L * path.toString().length();
+        }
+    }
+
+    private static final class Entry {
+        private final String hash;
+        private final byte[] encoded;
+        private final long weight;
+        private volatile long lastAccess;
+
+        private Entry(String hash, byte[] encoded, long lastAccess) {
+            this.hash = hash;
+            this.encoded = encoded;
+            this.weight = encoded.length + ENTRY_OVERHEAD;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
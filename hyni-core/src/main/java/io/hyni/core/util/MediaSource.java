@@ -0,0 +1,320 @@
+package io.hyni.core.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Lazy reference to Base64 encoded media
+ *
+ * Holds the raw media (a file or a byte array) or data that is already Base64 encoded,
+ * plus an optional prefix such as {@code data:image/png;base64,}. Nothing is encoded up
+ * front: when serialized, the media is read and encoded in small chunks straight into the
+ * JSON generator, so an attachment never exists in memory as one encoded string.
+ * Files are opened again on every serialization.
+ *
+ * Wrap an instance in a {@code POJONode} to place it in a JSON tree.
+ */
+public final class MediaSource implements JsonSerializable {
+
+    private static final int CHUNK_BYTES = 3 * 1024;
+
+    private final String prefix;
+    private final Path file;
+    private final byte[] bytes;
+    private final String encoded;
+    private final int encodedOffset;
+    private final byte[] encodedBytes;
+    private final long length;
+
+    private MediaSource(String prefix, Path file, byte[] bytes, String encoded, int encodedOffset,
+                        byte[] encodedBytes, long length) {
+        this.prefix = prefix == null ? "" : prefix;
+        this.file = file;
+        this.bytes = bytes;
+        this.encoded = encoded;
+        this.encodedOffset = encodedOffset;
+        this.encodedBytes = encodedBytes;
+        this.length = length;
+    }
+
+    /**
+     * Creates a source that encodes a file when serialized
+     * @param path The media file
+     * @param prefix Text written before the encoded data, or null
+     * @return The media source
+     * @throws IOException If the file does not exist or is too large
+     */
+    public static MediaSource ofFile(Path path, String prefix) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("Image file does not exist: " + path);
+        }
+
+        long fileSize = Files.size(path);
+        if (fileSize > Base64Utils.MAX_IMAGE_SIZE) {
+            throw new IOException("Image file too large: " + fileSize + " bytes");
+        }
+        return new MediaSource(prefix, path, null, null, 0, null, fileSize);
+    }
+
+    /**
+     * Creates a source that encodes raw bytes when serialized. The array is not copied.
+     * @param data The raw media
+     * @param prefix Text written before the encoded data, or null
+     * @return The media source
+     */
+    public static MediaSource ofBytes(byte[] data, String prefix) {
+        return new MediaSource(prefix, null, data, null, 0, null, data.length);
+    }
+
+    /**
+     * Creates a source for data that is already Base64 encoded. A leading data URI header
+     * is skipped, so the data is written once even if it came as a data URI.
+     * @param base64 The encoded data, optionally as a data URI
+     * @param prefix Text written before the encoded data, or null
+     * @return The media source
+     */
+    public static MediaSource ofEncoded(String base64, String prefix) {
+        int offset = Base64Utils.dataUriPayloadOffset(base64);
+        return new MediaSource(prefix, null, null, base64, offset, null, base64.length() - offset);
+    }
+
+    /**
+     * Creates a source for Base64 data held as ASCII bytes, as stored by {@link MediaCache}.
+     * The array is shared, not copied.
+     */
+    static MediaSource ofEncodedBytes(byte[] base64, String prefix) {
+        return new MediaSource(prefix, null, null, null, 0, base64, base64.length);
+    }
+
+    /**
+     * Gets the number of characters this source serializes to, including the prefix
+     * @return The encoded length
+     */
+    public long getEncodedLength() {
+        boolean isEncoded = encoded != null || encodedBytes != null;
+        long dataLength = isEncoded ? length : (length + 2) / 3 * 4;
+        return prefix.length() + dataLength;
+    }
+
+    /**
+     * Opens a reader over the prefix followed by the encoded data
+     * @return A new reader; the caller closes it
+     * @throws IOException If the media cannot be opened
+     */
+    public Reader openReader() throws IOException {
+        if (encoded != null) {
+            return new EncodedReader(prefix, encoded, encodedOffset);
+        }
+        if (encodedBytes != null) {
+            return new AsciiReader(prefix, encodedBytes);
+        }
+        InputStream in = file != null ? Files.newInputStream(file) : null;
+        return new Base64Reader(prefix, in, bytes);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        try (Reader reader = openReader()) {
+            gen.writeString(reader, -1);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers,
+                                  TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    /**
+     * Encodes the whole source into a string. Defeats the purpose of the class, but keeps
+     * {@code asText()} on the enclosing node working.
+     * @return The prefix followed by the encoded data
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder((int) Math.min(getEncodedLength(), Integer.MAX_VALUE));
+        char[] chunk = new char[4096];
+        try (Reader reader = openReader()) {
+            int read;
+            while ((read = reader.read(chunk, 0, chunk.length)) >= 0) {
+                sb.append(chunk, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MediaSource)) return false;
+        MediaSource other = (MediaSource) o;
+        return prefix.equals(other.prefix)
+            && Objects.equals(file, other.file)
+            && bytes == other.bytes
+            && encodedBytes == other.encodedBytes
+            && Objects.equals(encoded, other.encoded)
+            && encodedOffset == other.encodedOffset;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(prefix, file, encoded, encodedOffset);
+    }
+
+    /**
+     * Serves the prefix, then a slice of an already encoded string
+     */
+    private static final class EncodedReader extends Reader {
+
+        private final String prefix;
+        private final String data;
+        private int prefixPosition;
+        private int dataPosition;
+
+        EncodedReader(String prefix, String data, int offset) {
+            this.prefix = prefix;
+            this.data = data;
+            this.dataPosition = offset;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            int total = 0;
+            if (prefixPosition < prefix.length()) {
+                total = Math.min(len, prefix.length() - prefixPosition);
+                prefix.getChars(prefixPosition, prefixPosition + total, cbuf, off);
+                prefixPosition += total;
+            }
+            int n = Math.min(len - total, data.length() - dataPosition);
+            if (n > 0) {
+                data.getChars(dataPosition, dataPosition + n, cbuf, off + total);
+                dataPosition += n;
+                total += n;
+            }
+            return total > 0 || len == 0 ? total : -1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Serves the prefix, then ASCII encoded bytes as characters
+     */
+    private static final class AsciiReader extends Reader {
+
+        private final String prefix;
+        private final byte[] data;
+        private int position;
+
+        AsciiReader(String prefix, byte[] data) {
+            this.prefix = prefix;
+            this.data = data;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            int end = prefix.length() + data.length;
+            int n = Math.min(len, end - position);
+            if (n <= 0) {
+                return len == 0 ? 0 : -1;
+            }
+            for (int i = 0; i < n; i++, position++) {
+                cbuf[off + i] = position < prefix.length()
+                    ? prefix.charAt(position)
+                    : (char) data[position - prefix.length()];
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Serves the prefix, then Base64 encodes raw bytes a chunk at a time
+     */
+    private static final class Base64Reader extends Reader {
+
+        private final InputStream in;
+        private final byte[] source;
+        private final byte[] input;
+        private final char[] output;
+        private int sourcePosition;
+        private int outputPosition;
+        private int outputLimit;
+        private boolean exhausted;
+
+        Base64Reader(String prefix, InputStream in, byte[] source) {
+            this.in = in;
+            this.source = source;
+            this.input = in != null ? new byte[CHUNK_BYTES] : null;
+            this.output = new char[Math.max(CHUNK_BYTES / 3 * 4, prefix.length())];
+            prefix.getChars(0, prefix.length(), output, 0);
+            this.outputLimit = prefix.length();
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (outputPosition == outputLimit && !fill()) {
+                return -1;
+            }
+            int n = Math.min(len, outputLimit - outputPosition);
+            System.arraycopy(output, outputPosition, cbuf, off, n);
+            outputPosition += n;
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            if (exhausted) {
+                return false;
+            }
+
+            byte[] chunk;
+            int from;
+            int count;
+            if (in != null) {
+                // Fill the chunk completely so that only the final group needs padding
+                count = in.readNBytes(input, 0, input.length);
+                chunk = input;
+                from = 0;
+            } else {
+                count = Math.min(CHUNK_BYTES, source.length - sourcePosition);
+                chunk = source;
+                from = sourcePosition;
+                sourcePosition += count;
+            }
+            if (count < CHUNK_BYTES) {
+                exhausted = true;
+            }
+            if (count == 0) {
+                return false;
+            }
+
+            outputLimit = Base64Utils.encode(chunk, from, count, output);
+            outputPosition = 0;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+}
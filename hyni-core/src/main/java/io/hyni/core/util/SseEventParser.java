@@ -0,0 +1,177 @@
+package io.hyni.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Incremental parser for server-sent event streams
+ *
+ * Works on raw bytes: lines are scanned in a reusable read buffer and the data of an event
+ * is handed to the listener as a slice of a reusable byte array, so no strings are created
+ * for payloads. Only the {@code event} and {@code data} fields are interpreted.
+ * Not thread-safe; use one parser per stream.
+ */
+public class SseEventParser {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final byte[] DATA_FIELD = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EVENT_FIELD = "event".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Receives the events of a stream
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called once per dispatched event
+         * @param eventType The event type, or null if the event did not name one
+         * @param data Buffer holding the UTF-8 encoded event data; only valid during the call
+         * @param offset Offset of the data in the buffer
+         * @param length Length of the data
+         * @return False to stop parsing the stream
+         * @throws IOException If processing the event fails
+         */
+        boolean onEvent(String eventType, byte[] data, int offset, int length) throws IOException;
+    }
+
+    private final Listener listener;
+    private byte[] buffer;
+    private byte[] data;
+    private int dataLength;
+    private boolean hasData;
+    private String eventType;
+
+    public SseEventParser(Listener listener) {
+        this(listener, DEFAULT_BUFFER_SIZE);
+    }
+
+    public SseEventParser(Listener listener, int bufferSize) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.listener = listener;
+        this.buffer = new byte[bufferSize];
+        this.data = new byte[bufferSize];
+    }
+
+    /**
+     * Reads and dispatches events until the stream ends or the listener stops parsing
+     * @param in The event stream
+     * @throws IOException If reading the stream or processing an event fails
+     */
+    public void parse(InputStream in) throws IOException {
+        int start = 0;
+        int end = 0;
+        boolean skipLineFeed = false;
+
+        while (true) {
+            // Compact or grow the buffer before reading more
+            if (end == buffer.length) {
+                if (start > 0) {
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    end -= start;
+                    start = 0;
+                } else {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+
+            int read = in.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                break;
+            }
+
+            int scan = end;
+            end += read;
+
+            for (int i = scan; i < end; i++) {
+                byte b = buffer[i];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (b == '\n') {
+                        start = i + 1;
+                        continue;
+                    }
+                }
+                if (b == '\n' || b == '\r') {
+                    if (!processLine(start, i)) {
+                        return;
+                    }
+                    skipLineFeed = b == '\r';
+                    start = i + 1;
+                }
+            }
+        }
+
+        // Flush a trailing line and event that were not terminated
+        if (start < end && !processLine(start, end)) {
+            return;
+        }
+        dispatch();
+    }
+
+    private boolean processLine(int from, int to) throws IOException {
+        if (from == to) {
+            return dispatch();
+        }
+        if (buffer[from] == ':') {
+            return true; // Comment
+        }
+
+        int colon = from;
+        while (colon < to && buffer[colon] != ':') {
+            colon++;
+        }
+
+        int valueStart = colon < to ? colon + 1 : to;
+        if (valueStart < to && buffer[valueStart] == ' ') {
+            valueStart++;
+        }
+
+        if (fieldEquals(from, colon, DATA_FIELD)) {
+            appendData(valueStart, to);
+        } else if (fieldEquals(from, colon, EVENT_FIELD)) {
+            eventType = new String(buffer, valueStart, to - valueStart, StandardCharsets.UTF_8);
+        }
+        return true;
+    }
+
+    private boolean fieldEquals(int from, int to, byte[] field) {
+        return Arrays.equals(buffer, from, to, field, 0, field.length);
+    }
+
+    private void appendData(int from, int to) {
+        int length = to - from;
+        int required = dataLength + length + (hasData ? 1 : 0);
+        if (required > data.length) {
+            data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+        }
+        if (hasData) {
+            data[dataLength++] = '\n';
+        }
+        System.arraycopy(buffer, from, data, dataLength, length);
+        dataLength += length;
+        hasData = true;
+    }
+
+    private boolean dispatch() throws IOException {
+        if (!hasData) {
+            eventType = null;
+            return true;
+        }
+
+        String type = eventType;
+        int length = dataLength;
+        eventType = null;
+        dataLength = 0;
+        hasData = false;
+        return listener.onEvent(type, data, 0, length);
+    }
+}
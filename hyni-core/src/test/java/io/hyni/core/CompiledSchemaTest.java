@@ -0,0 +1,195 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.hyni.core.exception.SchemaException;
+import io.hyni.core.exception.ValidationException;
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CompiledSchema Tests")
+class CompiledSchemaTest {
+
+    private CompiledSchema claude;
+    private CompiledSchema openai;
+
+    @BeforeEach
+    void setUp() {
+        claude = CompiledSchema.load("schemas/claude.json");
+        openai = CompiledSchema.load("schemas/openai.json");
+    }
+
+    @Nested
+    @DisplayName("Compilation Tests")
+    class CompilationTests {
+
+        @Test
+        @DisplayName("Should precompute provider information")
+        void shouldPrecomputeProviderInformation() {
+            assertThat(claude.getProviderName()).isEqualTo("claude");
+            assertThat(claude.getEndpoint()).isEqualTo("https://api.anthropic.com/v1/messages");
+            assertThat(claude.getTimeoutMillis()).isEqualTo(60000);
+            assertThat(claude.getMaxRetries()).isEqualTo(3);
+            assertThat(claude.getRequestsPerMinute()).isEqualTo(1000);
+            assertThat(claude.getTokensPerMinute()).isEqualTo(40000);
+            assertThat(claude.getDefaultModel()).isEqualTo("claude-3-5-sonnet-20241022");
+            assertThat(claude.getValidRoles()).containsExactlyInAnyOrder("user", "assistant");
+            assertThat(claude.getTextPath()).containsExactly("content", "0", "text");
+            assertThat(claude.getErrorPath()).containsExactly("error", "message");
+            assertThat(claude.getLastMessageRole()).isEqualTo("user");
+        }
+
+        @Test
+        @DisplayName("Should be independent of later changes to the source tree")
+        void shouldBeIndependentOfSourceTree() throws Exception {
+            JsonNode source = new ObjectMapper().readTree(claude.getSchema().toString());
+            CompiledSchema compiled = CompiledSchema.compile(source);
+
+            ((ObjectNode) source.get("request_template")).put("max_tokens", 1);
+
+            assertThat(compiled.getRequestTemplate().get("max_tokens").asInt()).isEqualTo(1024);
+            assertThat(compiled.getSchema().at("/request_template/max_tokens").asInt()).isEqualTo(1024);
+        }
+
+        @Test
+        @DisplayName("Should hand out copies of its JSON")
+        void shouldHandOutCopies() {
+            claude.getRequestTemplate().put("max_tokens", 1);
+            ((ObjectNode) claude.getSchema().get("request_template")).put("max_tokens", 1);
+
+            assertThat(claude.getRequestTemplate().get("max_tokens").asInt()).isEqualTo(1024);
+            assertThat(claude.getSchema().at("/request_template/max_tokens").asInt()).isEqualTo(1024);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid schemas")
+        void shouldRejectInvalidSchemas() throws Exception {
+            JsonNode incomplete = new ObjectMapper().readTree("{\"provider\": {\"name\": \"test\"}}");
+
+            assertThatThrownBy(() -> CompiledSchema.compile(incomplete))
+                .isInstanceOf(SchemaException.class)
+                .hasMessageContaining("Missing required schema field");
+        }
+
+        @Test
+        @DisplayName("Should be shared by contexts without leaking state")
+        void shouldBeSharedByContexts() {
+            GeneralContext first = new GeneralContext(claude, new ContextConfig());
+            GeneralContext second = new GeneralContext(claude, new ContextConfig());
+
+            first.addUserMessage("Only in the first context");
+            first.setApiKey("first-key");
+
+            assertThat(first.getCompiledSchema()).isSameAs(second.getCompiledSchema());
+            assertThat(second.getMessages()).isEmpty();
+            assertThat(second.getHeaders().get("x-api-key")).isEqualTo("");
+            assertThat(claude.getMessageStructure().get("content")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Header Rendering Tests")
+    class HeaderRenderingTests {
+
+        @Test
+        @DisplayName("Should substitute the API key into tokenized header templates")
+        void shouldSubstituteApiKey() {
+            Map<String, String> headers = openai.getHeaderBundle("sk-test").asMap();
+
+            assertThat(headers).containsEntry("Authorization", "Bearer sk-test");
+            assertThat(headers).containsEntry("Content-Type", "application/json");
+        }
+
+        @Test
+        @DisplayName("Should share a header bundle handed to several contexts")
+        void shouldShareBundleHandedToContexts() {
+            HeaderBundle bundle = openai.getHeaderBundle("sk-one");
+            GeneralContext first = new GeneralContext(openai, new ContextConfig()).setApiKey("sk-one", bundle);
+            GeneralContext second = new GeneralContext(openai, new ContextConfig()).setApiKey("sk-one", bundle);
+
+            assertThat(first.getHeaderBundle()).isSameAs(second.getHeaderBundle());
+
+            second.setApiKey("sk-two");
+            assertThat(second.getHeaderBundle()).isNotSameAs(first.getHeaderBundle());
+            assertThat(second.getHeaders()).containsEntry("Authorization", "Bearer sk-two");
+            assertThat(first.getHeaders()).containsEntry("Authorization", "Bearer sk-one");
+        }
+
+        @Test
+        @DisplayName("Should not keep rendered API keys")
+        void shouldNotKeepApiKeys() {
+            assertThat(openai.getHeaderBundle("sk-one")).isNotSameAs(openai.getHeaderBundle("sk-one"));
+            assertThat(openai.getHeaderBundle("")).isSameAs(openai.getHeaderBundle(""));
+        }
+
+        @Test
+        @DisplayName("Should skip empty optional headers")
+        void shouldSkipEmptyOptionalHeaders() {
+            assertThat(claude.getHeaderBundle("key").asMap()).doesNotContainKey("Anthropic-Beta");
+        }
+    }
+
+    @Nested
+    @DisplayName("Parameter Definition Tests")
+    class ParameterDefinitionTests {
+
+        @Test
+        @DisplayName("Should validate against pre-resolved definitions")
+        void shouldValidateAgainstDefinitions() {
+            CompiledSchema.ParameterDefinition maxTokens = claude.getParameterDefinition("max_tokens");
+
+            assertThat(maxTokens.getType()).isEqualTo("integer");
+            assertThatCode(() -> maxTokens.validate(IntNode.valueOf(100))).doesNotThrowAnyException();
+            assertThatThrownBy(() -> maxTokens.validate(IntNode.valueOf(0)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("must be >=");
+        }
+
+        @Test
+        @DisplayName("Should validate enum values")
+        void shouldValidateEnumValues() {
+            CompiledSchema.ParameterDefinition format = openai.getParameterDefinition("response_format");
+
+            assertThatCode(() -> format.validate(TextNode.valueOf("json"))).doesNotThrowAnyException();
+            assertThatThrownBy(() -> format.validate(TextNode.valueOf("xml")))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("has invalid value");
+        }
+
+        @Test
+        @DisplayName("Should bound the number of array items")
+        void shouldBoundArrayItems() {
+            CompiledSchema.ParameterDefinition stop = claude.getParameterDefinition("stop_sequences");
+            ArrayNode sequences = new ObjectMapper().createArrayNode().add("a").add("b").add("c").add("d");
+
+            assertThatCode(() -> stop.validate(sequences)).doesNotThrowAnyException();
+            sequences.add("e");
+            assertThatThrownBy(() -> stop.validate(sequences))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("cannot have more than 4 items");
+        }
+
+        @Test
+        @DisplayName("Should reject values of the wrong type")
+        void shouldRejectWrongType() {
+            CompiledSchema.ParameterDefinition maxTokens = claude.getParameterDefinition("max_tokens");
+
+            assertThatThrownBy(() -> maxTokens.validate(TextNode.valueOf("100")))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("must be of type integer");
+        }
+
+        @Test
+        @DisplayName("Should return null for undefined parameters")
+        void shouldReturnNullForUndefinedParameters() {
+            assertThat(claude.getParameterDefinition("unknown")).isNull();
+        }
+    }
+}
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -213,6 +215,110 @@ class ContextFactoryTest {
             ContextFactory.CacheStats finalStats = factory.getCacheStats();
             assertThat(finalStats.getHitRate()).isEqualTo(0.5); // 1 hit out of 2 total
         }
+
+        @Test
+        @DisplayName("Should serve cached schema without re-reading the file")
+        void shouldServeCachedSchemaWithoutRereadingFile() throws IOException {
+            factory.createContext("test-provider");
+
+            Path schemaFile = tempDir.resolve("test-provider.json");
+            Files.writeString(schemaFile, Files.readString(schemaFile)
+                .replace("https://test.api.com", "https://changed.api.com"));
+
+            GeneralContext context = factory.createContext("test-provider");
+
+            assertThat(context.getEndpoint()).isEqualTo("https://test.api.com");
+            assertThat(factory.getCacheStats().getMissCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reload schema after TTL expiry")
+        void shouldReloadSchemaAfterTtlExpiry() throws Exception {
+            ContextFactory shortLived = new ContextFactory(registry, new ContextConfig(), 8, Duration.ofMillis(1));
+            shortLived.createContext("test-provider");
+
+            Path schemaFile = tempDir.resolve("test-provider.json");
+            Files.writeString(schemaFile, Files.readString(schemaFile)
+                .replace("https://test.api.com", "https://changed.api.com"));
+            Thread.sleep(10);
+
+            GeneralContext context = shortLived.createContext("test-provider");
+
+            assertThat(context.getEndpoint()).isEqualTo("https://changed.api.com");
+            assertThat(shortLived.getCacheStats().getMissCount()).isEqualTo(2);
+            assertThat(shortLived.getCacheStats().getHitCount()).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("Should evict least recently used schema when full")
+        void shouldEvictLeastRecentlyUsedSchema() throws IOException {
+            Files.writeString(tempDir.resolve("other-provider.json"),
+                Files.readString(tempDir.resolve("test-provider.json")));
+            ContextFactory small = new ContextFactory(registry, new ContextConfig(), 1, Duration.ZERO);
+
+            small.createContext("test-provider");
+            small.createContext("other-provider");
+
+            ContextFactory.CacheStats stats = small.getCacheStats();
+            assertThat(stats.getCacheSize()).isEqualTo(1);
+            assertThat(stats.getEvictionCount()).isEqualTo(1);
+
+            // Evicted schema has to be loaded again
+            small.createContext("test-provider");
+            assertThat(small.getCacheStats().getMissCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should bypass cache when caching is disabled")
+        void shouldBypassCacheWhenCachingDisabled() {
+            ContextConfig noCaching = new ContextConfig();
+            noCaching.setEnableCaching(false);
+
+            factory.createContext("test-provider", noCaching);
+            factory.createContext("test-provider", noCaching);
+
+            ContextFactory.CacheStats stats = factory.getCacheStats();
+            assertThat(stats.getTotalRequests()).isEqualTo(0);
+            assertThat(stats.getCacheSize()).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("Should reload a schema edited under a watching registry")
+        void shouldReloadEditedSchema() throws Exception {
+            Path schemaFile = tempDir.resolve("test-provider.json");
+            try (SchemaRegistry watching = SchemaRegistry.create()
+                    .setSchemaDirectory(tempDir.toString())
+                    .watchForChanges(true)
+                    .build()) {
+                ContextFactory watchedFactory = new ContextFactory(watching);
+                assertThat(watchedFactory.createContext("test-provider").getEndpoint())
+                    .isEqualTo("https://test.api.com");
+
+                // Listeners run in order, so the factory has dropped the schema once this one runs
+                CountDownLatch changed = new CountDownLatch(1);
+                watching.addChangeListener(providers -> changed.countDown());
+                Files.writeString(schemaFile, Files.readString(schemaFile)
+                    .replace("https://test.api.com", "https://edited.api.com"));
+
+                assertThat(changed.await(10, TimeUnit.SECONDS)).isTrue();
+                assertThat(watchedFactory.createContext("test-provider").getEndpoint())
+                    .isEqualTo("https://edited.api.com");
+            }
+        }
+
+        @Test
+        @DisplayName("Should reload a schema edited before a manual refresh")
+        void shouldReloadSchemaAfterRefresh() throws IOException {
+            factory.createContext("test-provider");
+
+            Path schemaFile = tempDir.resolve("test-provider.json");
+            Files.writeString(schemaFile, Files.readString(schemaFile)
+                .replace("https://test.api.com", "https://edited.api.com"));
+            registry.refresh();
+
+            assertThat(factory.createContext("test-provider").getEndpoint())
+                .isEqualTo("https://edited.api.com");
+        }
     }
 
     @Nested
@@ -312,6 +418,186 @@ class ContextFactoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Context Pool Tests")
+    class ContextPoolTests {
+
+        @Test
+        @DisplayName("Should recycle released contexts in their initial state")
+        void shouldRecycleReleasedContexts() {
+            GeneralContext context = factory.borrow("test-provider");
+            context.setModel("model2")
+                .setParameter("temperature", 0.5)
+                .addUserMessage("Hello");
+            factory.release(context);
+
+            GeneralContext recycled = factory.borrow("test-provider");
+
+            assertThat(recycled).isSameAs(context);
+            assertThat(recycled.getMessages()).isEmpty();
+            assertThat(recycled.getParameters()).isEmpty();
+            assertThat(recycled.buildRequest().get("model").asText()).isEqualTo("model1");
+            assertThat(factory.getPoolStats("test-provider").getCreatedCount()).isEqualTo(1);
+            assertThat(factory.getPoolStats("test-provider").getReusedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject foreign and repeated releases")
+        void shouldRejectInvalidReleases() {
+            GeneralContext created = factory.createContext("test-provider");
+            assertThatThrownBy(() -> factory.release(created))
+                .isInstanceOf(IllegalArgumentException.class);
+
+            GeneralContext borrowed = factory.borrow("test-provider");
+            assertThatThrownBy(() -> new ContextFactory(registry).release(borrowed))
+                .isInstanceOf(IllegalArgumentException.class);
+
+            factory.release(borrowed);
+            assertThatThrownBy(() -> factory.release(borrowed))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already released");
+        }
+
+        @Test
+        @DisplayName("Should bound idle contexts per provider")
+        void shouldBoundIdleContexts() {
+            factory.setMaxPooledContexts("test-provider", 1);
+
+            GeneralContext first = factory.borrow("test-provider");
+            GeneralContext second = factory.borrow("test-provider");
+            factory.release(first);
+            factory.release(second);
+
+            ContextFactory.PoolStats stats = factory.getPoolStats("test-provider");
+            assertThat(stats.getIdleCount()).isEqualTo(1);
+            assertThat(stats.getDiscardedCount()).isEqualTo(1);
+            assertThat(stats.getBorrowCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should drop pooled contexts when the schema is invalidated")
+        void shouldDropPoolOnInvalidation() {
+            GeneralContext idle = factory.borrow("test-provider");
+            GeneralContext inUse = factory.borrow("test-provider");
+            factory.release(idle);
+
+            factory.invalidateSchema("test-provider");
+            factory.release(inUse);
+
+            GeneralContext fresh = factory.borrow("test-provider");
+            assertThat(fresh).isNotSameAs(idle).isNotSameAs(inUse);
+        }
+
+        @Test
+        @DisplayName("Should detect contexts that are never released")
+        void shouldDetectLeaks() throws InterruptedException {
+            factory.borrow("test-provider");
+
+            for (int i = 0; i < 50 && factory.getPoolStats("test-provider").getLeakedCount() == 0; i++) {
+                System.gc();
+                Thread.sleep(20);
+            }
+
+            assertThat(factory.getPoolStats("test-provider").getLeakedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should release the context after a scoped action")
+        void shouldReleaseAfterScopedAction() {
+            GeneralContext used = factory.withContext("test-provider", context -> {
+                context.addUserMessage("Hello");
+                return context;
+            });
+
+            assertThatThrownBy(() -> factory.withContext("test-provider", context -> {
+                throw new IllegalStateException("boom");
+            })).hasMessage("boom");
+
+            assertThat(factory.borrow("test-provider")).isSameAs(used);
+            assertThat(factory.getPoolStats("test-provider").getLeakedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should pool contexts separately per configuration")
+        void shouldPoolPerConfig() {
+            ContextConfig config = new ContextConfig();
+            config.setEnableValidation(false);
+
+            GeneralContext custom = factory.borrow("test-provider", config);
+            factory.release(custom);
+
+            assertThat(factory.borrow("test-provider")).isNotSameAs(custom);
+            assertThat(factory.borrow("test-provider", config)).isSameAs(custom);
+            assertThat(factory.getPoolStats("test-provider").getBorrowCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should hand out each context to one borrower at a time")
+        void shouldIsolateConcurrentBorrowers() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                CompletableFuture<?>[] futures = new CompletableFuture<?>[400];
+                for (int i = 0; i < futures.length; i++) {
+                    String text = "Message " + i;
+                    futures[i] = CompletableFuture.runAsync(() -> {
+                        GeneralContext context = factory.borrow("test-provider");
+                        context.addUserMessage(text);
+                        assertThat(context.getMessages()).hasSize(1);
+                        assertThat(context.getMessages().get(0).toString()).contains(text);
+                        factory.release(context);
+                    }, executor);
+                }
+                CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdown();
+            }
+
+            ContextFactory.PoolStats stats = factory.getPoolStats("test-provider");
+            assertThat(stats.getBorrowCount()).isEqualTo(400);
+            assertThat(stats.getCreatedCount()).isLessThanOrEqualTo(8);
+            assertThat(stats.getLeakedCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Warmup Tests")
+    class WarmupTests {
+
+        @Test
+        @DisplayName("Should cache schemas and pool a context for every provider")
+        void shouldWarmUpAllProviders() throws IOException {
+            Files.copy(tempDir.resolve("test-provider.json"), tempDir.resolve("other-provider.json"));
+            registry.refresh();
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+
+            try {
+                ContextFactory.WarmupStats stats = factory.warmUp(executor);
+
+                assertThat(stats.getWarmedProviders()).containsExactlyInAnyOrder("test-provider", "other-provider");
+                assertThat(stats.getFailures()).isEmpty();
+                assertThat(factory.getCacheStats().getCacheSize()).isEqualTo(2);
+                assertThat(factory.getPoolStats("test-provider").getIdleCount()).isEqualTo(1);
+
+                factory.createContext("test-provider");
+                assertThat(factory.getCacheStats().getHitCount()).isEqualTo(1);
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("Should report providers that fail without affecting the others")
+        void shouldReportFailedProviders() throws IOException {
+            Files.writeString(tempDir.resolve("broken.json"), "{\"provider\": ");
+            registry.refresh();
+
+            ContextFactory.WarmupStats stats = factory.warmUp(Runnable::run);
+
+            assertThat(stats.getWarmedProviders()).containsExactly("test-provider");
+            assertThat(stats.getFailures()).containsOnlyKeys("broken");
+        }
+    }
+
     @Nested
     @DisplayName("Thread Safety Tests")
     class ThreadSafetyTests {
@@ -1,17 +1,27 @@
 package io.hyni.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hyni.core.exception.SchemaException;
 import io.hyni.core.exception.ValidationException;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -268,6 +278,24 @@ class GeneralContextTest {
             assertThat(context.getParameters()).isEmpty();
         }
 
+        @Test
+        @DisplayName("Should set primitive and boxed parameters alike")
+        void shouldSetPrimitiveAndBoxedParametersAlike() {
+            context.setParameter("max_tokens", 100);
+            context.setParameter("temperature", 0.5);
+            context.setParameter("stream", true);
+            Map<String, JsonNode> primitive = new HashMap<>(context.getParameters());
+
+            context.setParameter("max_tokens", (Object) 100);
+            context.setParameter("temperature", (Object) 0.5);
+            context.setParameter("stream", (Object) Boolean.TRUE);
+
+            assertThat(context.getParameters()).isEqualTo(primitive);
+            assertThatThrownBy(() -> context.setParameter("max_tokens", (Object) "100"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("must be of type integer");
+        }
+
         @Test
         @DisplayName("Should handle null parameter values")
         void shouldHandleNullParameterValues() {
@@ -426,6 +454,123 @@ class GeneralContextTest {
         }
     }
 
+    @Nested
+    @DisplayName("Streaming Serialization Tests")
+    class StreamingSerializationTests {
+
+        private JsonNode written(GeneralContext ctx, boolean streaming) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ctx.writeRequest(out, streaming);
+            return objectMapper.readTree(out.toByteArray());
+        }
+
+        @Test
+        @DisplayName("Should write the same request as buildRequest")
+        void shouldMatchBuildRequest() throws IOException {
+            context.setSystemMessage("You are helpful");
+            context.setParameter("temperature", 0.5);
+            context.setParameter("stop_sequences", List.of("END"));
+            context.addUserMessage("Hello");
+            context.addAssistantMessage("Hi");
+            context.addUserMessage("How are you?");
+
+            assertThat(written(context, false)).isEqualTo(context.buildRequest(false));
+            assertThat(written(context, true)).isEqualTo(context.buildRequest(true));
+        }
+
+        @Test
+        @DisplayName("Should match buildRequest for every bundled schema")
+        void shouldMatchBuildRequestForAllSchemas() throws IOException {
+            ContextConfig defaults = new ContextConfig();
+            defaults.setDefaultMaxTokens(256);
+            defaults.setDefaultTemperature(0.2);
+
+            for (String provider : List.of("claude", "openai", "mistral", "deepseek")) {
+                GeneralContext ctx = new GeneralContext("schemas/" + provider + ".json", defaults);
+                ctx.setSystemMessage("System prompt");
+                ctx.setParameter("stream", true);
+                ctx.addUserMessage("Question");
+
+                assertThat(written(ctx, false))
+                    .as(provider)
+                    .isEqualTo(ctx.buildRequest(false));
+            }
+        }
+
+        @Test
+        @DisplayName("Should skip null values while writing")
+        void shouldSkipNullValues() throws IOException {
+            context.addUserMessage("Hello");
+
+            JsonNode request = written(context, false);
+
+            assertThat(request.has("system")).isFalse();
+            assertThat(request.has("temperature")).isFalse();
+            assertThat(request.get("max_tokens").asInt()).isEqualTo(1024);
+        }
+
+        @Test
+        @DisplayName("Should leave the output stream open")
+        void shouldLeaveStreamOpen() throws IOException {
+            context.addUserMessage("Hello");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            context.writeRequest(out, false);
+            out.write(' ');
+
+            assertThat(out.toString()).endsWith("} ");
+        }
+
+        @Test
+        @DisplayName("Should keep cached serialization in step with every change")
+        void shouldKeepCachedSerializationInStep() throws IOException {
+            GeneralContext openai = new GeneralContext("schemas/openai.json");
+            openai.setSystemMessage("You are helpful");
+
+            for (int turn = 0; turn < 5; turn++) {
+                openai.addUserMessage("Question " + turn);
+                assertThat(written(openai, false)).isEqualTo(openai.buildRequest(false));
+                openai.addAssistantMessage("Answer " + turn);
+            }
+
+            openai.setModel("gpt-4-turbo");
+            openai.setParameter("temperature", 0.3);
+            assertThat(written(openai, true)).isEqualTo(openai.buildRequest(true));
+
+            openai.clearSystemMessage();
+            openai.addUserMessage("What's in this image?", "image/png", "QUJD");
+            assertThat(written(openai, false)).isEqualTo(openai.buildRequest(false));
+
+            openai.clearUserMessages();
+            openai.addUserMessage("Fresh start");
+            assertThat(written(openai, false)).isEqualTo(openai.buildRequest(false));
+
+            openai.reset();
+            assertThat(written(openai, false)).isEqualTo(openai.buildRequest(false));
+        }
+
+        @Test
+        @DisplayName("Should write cached messages through a generator")
+        void shouldWriteCachedMessagesThroughGenerator() throws IOException {
+            context.addUserMessage("Hello");
+            context.addAssistantMessage("Hi");
+            context.addUserMessage("Again");
+            written(context, false);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.writeStartArray();
+                context.writeRequest(gen, false);
+                context.writeRequest(gen, false);
+                gen.writeEndArray();
+            }
+
+            JsonNode requests = objectMapper.readTree(out.toByteArray());
+            assertThat(requests.get(0)).isEqualTo(context.buildRequest(false));
+            assertThat(requests.get(1)).isEqualTo(requests.get(0));
+        }
+    }
+
     @Nested
     @DisplayName("Validation Tests")
     class ValidationTests {
@@ -547,6 +692,62 @@ class GeneralContextTest {
                 assertThat(content.get(1).get("type").asText()).isEqualTo("image");
             }
         }
+
+        @Test
+        @DisplayName("Should encode image files into the request when it is written")
+        void shouldEncodeImageFilesWhenWritten(@TempDir Path dir) throws IOException {
+            byte[] image = new byte[5000];
+            new Random(7).nextBytes(image);
+            Path file = dir.resolve("image.png");
+            Files.write(file, image);
+            String encoded = Base64.getEncoder().encodeToString(image);
+
+            context.addUserMessage("What's in this image?", "image/png", file.toString());
+            GeneralContext openai = new GeneralContext("schemas/openai.json");
+            openai.addUserMessage("What's in this image?", "image/png", file.toString());
+
+            ObjectMapper mapper = new ObjectMapper();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            context.writeRequest(out, false);
+            JsonNode claudeImage = mapper.readTree(out.toByteArray()).get("messages").get(0).get("content").get(1);
+            JsonNode openaiImage = openai.buildRequest().get("messages").get(0).get("content").get(1);
+
+            assertThat(claudeImage.get("source").get("data").asText()).isEqualTo(encoded);
+            assertThat(openaiImage.get("image_url").get("url").isTextual()).isTrue();
+            assertThat(openaiImage.get("image_url").get("url").asText())
+                .isEqualTo("data:image/png;base64," + encoded);
+            assertThat(context.getMessages().get(0).get("content").get(1).get("source").get("data").textValue())
+                .isEqualTo(encoded);
+        }
+
+        @Test
+        @DisplayName("Should keep an attached image when its file goes away")
+        void shouldKeepImageWhenFileGoesAway(@TempDir Path dir) throws IOException {
+            byte[] image = new byte[5000];
+            new Random(11).nextBytes(image);
+            Path file = dir.resolve("image.png");
+            Files.write(file, image);
+            String encoded = Base64.getEncoder().encodeToString(image);
+
+            context.addUserMessage("What's in this image?", "image/png", file.toString());
+            Files.delete(file);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            context.writeRequest(out, false);
+            JsonNode written = new ObjectMapper().readTree(out.toByteArray());
+            assertThat(written.at("/messages/0/content/1/source/data").asText()).isEqualTo(encoded);
+            assertThat(context.buildRequest().at("/messages/0/content/1/source/data").asText()).isEqualTo(encoded);
+        }
+
+        @Test
+        @DisplayName("Should report a missing image file when it is attached")
+        void shouldReportMissingImageFileOnAttach(@TempDir Path dir) {
+            String missing = dir.resolve("missing.png").toString();
+
+            assertThatThrownBy(() -> context.addUserMessage("What's in this image?", "image/png", missing))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Image file does not exist");
+        }
     }
 
     @Nested
@@ -573,6 +774,30 @@ class GeneralContextTest {
             assertThat(extractedText).isEqualTo("Hello! How can I help you?");
         }
 
+        @Test
+        @DisplayName("Should extract usage, model and stop reason")
+        void shouldExtractResponseMetadata() throws IOException {
+            JsonNode response = objectMapper.readTree("""
+                {
+                    "content": [{"type": "text", "text": "Hi"}],
+                    "model": "claude-3-5-sonnet-20241022",
+                    "stop_reason": "end_turn",
+                    "usage": {"input_tokens": 10, "output_tokens": 2}
+                }
+                """);
+
+            assertThat(context.extractModel(response)).isEqualTo("claude-3-5-sonnet-20241022");
+            assertThat(context.extractStopReason(response)).isEqualTo("end_turn");
+            assertThat(context.extractUsage(response).get("output_tokens").asInt()).isEqualTo(2);
+            assertThat(context.extractUsage(objectMapper.readTree("{}"))).isNull();
+
+            GeneralContext openai = new GeneralContext("schemas/openai.json");
+            JsonNode openaiResponse = objectMapper.readTree(
+                "{\"choices\": [{\"message\": {\"content\": \"Hi\"}, \"finish_reason\": \"stop\"}]}");
+            assertThat(openai.extractStopReason(openaiResponse)).isEqualTo("stop");
+            assertThat(openai.extractModel(openaiResponse)).isNull();
+        }
+
         @Test
         @DisplayName("Should extract error from error response")
         void shouldExtractErrorFromErrorResponse() throws IOException {
@@ -592,6 +817,29 @@ class GeneralContextTest {
             assertThat(errorMessage).isEqualTo("Missing required field: max_tokens");
         }
 
+        @Test
+        @DisplayName("Should extract error type and map status codes")
+        void shouldExtractErrorType() throws IOException {
+            JsonNode errorResponse = objectMapper.readTree(
+                "{\"type\": \"error\", \"error\": {\"type\": \"overloaded_error\", \"message\": \"Overloaded\"}}");
+
+            assertThat(context.extractErrorType(errorResponse)).isEqualTo("overloaded_error");
+            assertThat(context.extractErrorType(objectMapper.readTree("{}"))).isNull();
+            assertThat(context.getCompiledSchema().getErrorCode(529)).isEqualTo("overloaded_error");
+            assertThat(context.getCompiledSchema().getErrorCode(418)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should extract text deltas from streamed events")
+        void shouldExtractStreamDeltas() throws IOException {
+            JsonNode delta = objectMapper.readTree(
+                "{\"type\": \"content_block_delta\", \"delta\": {\"type\": \"text_delta\", \"text\": \"Hel\"}}");
+            JsonNode ping = objectMapper.readTree("{\"type\": \"ping\"}");
+
+            assertThat(context.extractStreamDelta(delta)).isEqualTo("Hel");
+            assertThat(context.extractStreamDelta(ping)).isNull();
+        }
+
         @Test
         @DisplayName("Should handle malformed response gracefully")
         void shouldHandleMalformedResponseGracefully() throws IOException {
@@ -608,4 +856,188 @@ class GeneralContextTest {
                 .hasMessageContaining("Failed to extract text response");
         }
     }
+
+    @Nested
+    @DisplayName("Windowing Tests")
+    class WindowingTests {
+
+        // About 1000 estimated tokens each
+        private final String turn = "x".repeat(4000);
+
+        private GeneralContext windowed(String provider) {
+            ContextConfig windowing = new ContextConfig();
+            windowing.setEnableWindowing(true);
+            return new GeneralContext("schemas/" + provider + ".json", windowing);
+        }
+
+        @Test
+        @DisplayName("Should derive the budget from the context window and reserved output")
+        void shouldDeriveBudget() {
+            GeneralContext mistral = windowed("mistral");
+
+            // 8192 context, reserving the template's max_tokens of 1024
+            assertThat(mistral.getReservedOutputTokens()).isEqualTo(1024);
+            assertThat(mistral.getInputTokenBudget()).isEqualTo(7168);
+
+            mistral.setParameter("max_tokens", 1000);
+            assertThat(mistral.getInputTokenBudget()).isEqualTo(7192);
+        }
+
+        @Test
+        @DisplayName("Should reserve the max_tokens the request is sent with")
+        void shouldReserveRequestMaxTokens() {
+            GeneralContext claude = windowed("claude");
+            claude.addUserMessage("Hello");
+
+            // limits.max_output_tokens is 8192, but the request only asks for 1024
+            assertThat(claude.getReservedOutputTokens())
+                .isEqualTo(claude.buildRequest().get("max_tokens").asLong())
+                .isEqualTo(1024);
+        }
+
+        @Test
+        @DisplayName("Should drop the oldest turns to fit the budget")
+        void shouldDropOldestTurns() {
+            GeneralContext mistral = windowed("mistral");
+            mistral.setSystemMessage("Be brief.");
+
+            for (int i = 0; i < 5; i++) {
+                mistral.addUserMessage("q" + i + turn);
+                mistral.addAssistantMessage("a" + i + turn);
+            }
+
+            List<JsonNode> messages = mistral.getMessages();
+            assertThat(mistral.estimateInputTokens()).isLessThanOrEqualTo(mistral.getInputTokenBudget());
+            assertThat(messages.get(0).get("role").asText()).isEqualTo("user");
+            assertThat(messages.get(messages.size() - 1).get("content").get(0).get("text").asText()).startsWith("a4");
+            assertThat(mistral.buildRequest().get("messages").get(0).get("content").asText()).isEqualTo("Be brief.");
+        }
+
+        @Test
+        @DisplayName("Should keep the running estimate in step with the history")
+        void shouldKeepRunningEstimate() {
+            GeneralContext mistral = windowed("mistral");
+            for (int i = 0; i < 10; i++) {
+                mistral.addUserMessage(turn);
+            }
+            long estimate = mistral.estimateInputTokens();
+
+            assertThat(estimate).isEqualTo(mistral.getMessages().size() * 1004L);
+
+            mistral.clearUserMessages();
+            assertThat(mistral.estimateInputTokens()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should never drop the last user turn")
+        void shouldKeepLastUserTurn() {
+            GeneralContext mistral = windowed("mistral");
+            mistral.addUserMessage(turn);
+            mistral.addUserMessage("y".repeat(40000));
+
+            assertThat(mistral.getMessages()).hasSize(1);
+            assertThat(mistral.estimateInputTokens()).isGreaterThan(mistral.getInputTokenBudget());
+        }
+
+        @Test
+        @DisplayName("Should keep the full history when windowing is disabled")
+        void shouldKeepHistoryWhenDisabled() {
+            GeneralContext mistral = new GeneralContext("schemas/mistral.json");
+            for (int i = 0; i < 10; i++) {
+                mistral.addUserMessage(turn);
+            }
+
+            assertThat(mistral.getMessages()).hasSize(10);
+        }
+    }
+
+    @Nested
+    @DisplayName("Fork Tests")
+    class ForkTests {
+
+        @Test
+        @DisplayName("Should continue the conversation independently")
+        void shouldContinueIndependently() {
+            context.setSystemMessage("Shared prompt");
+            context.setParameter("temperature", 0.5);
+            context.addUserMessage("Shared question");
+            context.addAssistantMessage("Shared answer");
+
+            GeneralContext fork = context.fork();
+            fork.setSystemMessage("Variant prompt");
+            fork.setParameter("temperature", 0.9);
+            fork.addUserMessage("Follow-up B");
+            context.addUserMessage("Follow-up A");
+
+            JsonNode original = context.buildRequest();
+            JsonNode forked = fork.buildRequest();
+
+            assertThat(original.get("system").asText()).isEqualTo("Shared prompt");
+            assertThat(forked.get("system").asText()).isEqualTo("Variant prompt");
+            assertThat(original.get("temperature").asDouble()).isEqualTo(0.5);
+            assertThat(forked.get("temperature").asDouble()).isEqualTo(0.9);
+            assertThat(original.get("messages").get(2).get("content").get(0).get("text").asText())
+                .isEqualTo("Follow-up A");
+            assertThat(forked.get("messages").get(2).get("content").get(0).get("text").asText())
+                .isEqualTo("Follow-up B");
+        }
+
+        @Test
+        @DisplayName("Should share the message prefix instead of copying it")
+        void shouldSharePrefix() {
+            context.addUserMessage("Shared question");
+
+            GeneralContext fork = context.fork();
+
+            assertThat(fork.getMessages().get(0)).isSameAs(context.getMessages().get(0));
+        }
+
+        @Test
+        @DisplayName("Should not be affected by clearing the source")
+        void shouldSurviveClearingSource() throws IOException {
+            context.addUserMessage("Shared question");
+            GeneralContext fork = context.fork();
+
+            context.clearUserMessages();
+            context.reset();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            fork.writeRequest(out, false);
+            assertThat(objectMapper.readTree(out.toByteArray())).isEqualTo(fork.buildRequest());
+            assertThat(fork.getMessages()).hasSize(1);
+            assertThat(context.getMessages()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should branch concurrently from a shared prefix")
+        void shouldBranchConcurrently() throws Exception {
+            for (int i = 0; i < 50; i++) {
+                context.addUserMessage("Question " + i);
+                context.addAssistantMessage("Answer " + i);
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<JsonNode>> results = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    GeneralContext fork = context.fork();
+                    String followUp = "Branch " + t;
+                    results.add(pool.submit(() -> {
+                        fork.addUserMessage(followUp);
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        fork.writeRequest(out, false);
+                        return objectMapper.readTree(out.toByteArray());
+                    }));
+                }
+
+                for (int t = 0; t < results.size(); t++) {
+                    JsonNode messages = results.get(t).get().get("messages");
+                    assertThat(messages).hasSize(101);
+                    assertThat(messages.get(100).get("content").get(0).get("text").asText()).isEqualTo("Branch " + t);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MessageHistory Tests")
+class MessageHistoryTest {
+
+    private static MessageHistory historyOf(int count) {
+        MessageHistory history = new MessageHistory();
+        for (int i = 0; i < count; i++) {
+            history.add(TextNode.valueOf("m" + i), i);
+        }
+        return history;
+    }
+
+    private static List<String> texts(MessageHistory history) {
+        return history.asList().stream().map(JsonNode::asText).toList();
+    }
+
+    @Test
+    @DisplayName("Should keep messages and token totals in order")
+    void shouldKeepOrder() {
+        MessageHistory history = historyOf(40);
+
+        assertThat(history.size()).isEqualTo(40);
+        assertThat(history.get(0).asText()).isEqualTo("m0");
+        assertThat(history.get(39).asText()).isEqualTo("m39");
+        assertThat(history.tokenTotal()).isEqualTo(39 * 40 / 2);
+        assertThatThrownBy(() -> history.get(40)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest messages and compact the chain")
+    void shouldDropOldest() {
+        MessageHistory history = historyOf(100);
+        history.get(0);
+
+        for (int i = 0; i < 90; i++) {
+            history.dropOldest(1);
+            history.add(TextNode.valueOf("n" + i), 1);
+        }
+
+        assertThat(history.size()).isEqualTo(100);
+        assertThat(history.get(0).asText()).isEqualTo("m90");
+        assertThat(history.get(99).asText()).isEqualTo("n89");
+        assertThat(history.tokenTotal()).isEqualTo((90 + 99) * 10 / 2 + 90);
+    }
+
+    @Test
+    @DisplayName("Should share nodes with forks without seeing their changes")
+    void shouldIsolateForks() {
+        MessageHistory source = historyOf(3);
+        MessageHistory fork = source.fork();
+
+        fork.add(TextNode.valueOf("fork"), 0);
+        source.dropOldest(1);
+        source.add(TextNode.valueOf("source"), 0);
+
+        assertThat(texts(fork)).containsExactly("m0", "m1", "m2", "fork");
+        assertThat(texts(source)).containsExactly("m1", "m2", "source");
+        assertThat(fork.node(1)).isSameAs(source.node(0));
+    }
+}
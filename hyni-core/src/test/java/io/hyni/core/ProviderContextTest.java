@@ -331,4 +331,82 @@ class ProviderContextTest {
             assertThatCode(() -> newContext.clear()).doesNotThrowAnyException();
         }
     }
+
+    @Nested
+    @DisplayName("Scoped Binding Tests")
+    class ScopedBindingTests {
+
+        private ProviderContext scoped;
+
+        @BeforeEach
+        void setUp() {
+            scoped = new ProviderContext(factory, "test-provider", new ContextConfig(), ProviderContext.Binding.SCOPED);
+        }
+
+        @Test
+        @DisplayName("Should bind a pooled context for the scope")
+        void shouldBindPooledContext() {
+            GeneralContext bound = scoped.call(context -> {
+                assertThat(scoped.get()).isSameAs(context);
+                GeneralContext nested = scoped.call(inner -> inner);
+                assertThat(nested).isSameAs(context);
+                context.addUserMessage("Hello");
+                return context;
+            });
+
+            GeneralContext reused = scoped.call(context -> context);
+
+            assertThat(reused).isSameAs(bound);
+            assertThat(reused.getMessages()).isEmpty();
+            assertThat(factory.getPoolStats("test-provider").getReusedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should fail outside of a scope")
+        void shouldFailOutsideScope() {
+            assertThatThrownBy(() -> scoped.get())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("test-provider");
+
+            scoped.run(context -> assertThat(scoped.get()).isSameAs(context));
+            assertThatThrownBy(() -> scoped.get()).isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("Should release the context when the action throws")
+        void shouldReleaseOnFailure() {
+            assertThatThrownBy(() -> scoped.run(context -> {
+                throw new IllegalArgumentException("boom");
+            })).isInstanceOf(IllegalArgumentException.class);
+
+            assertThat(factory.getPoolStats("test-provider").getIdleCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should prefer the scope over the thread-local context")
+        void shouldPreferScope() {
+            GeneralContext threadLocal = providerContext.get();
+
+            providerContext.run(context -> {
+                assertThat(context).isNotSameAs(threadLocal);
+                assertThat(providerContext.get()).isSameAs(context);
+            });
+
+            assertThat(providerContext.get()).isSameAs(threadLocal);
+        }
+
+        @Test
+        @DisplayName("Should reuse contexts across tasks on fresh threads")
+        void shouldReuseAcrossFreshThreads() throws Exception {
+            for (int i = 0; i < 20; i++) {
+                Thread thread = new Thread(() -> scoped.run(context -> context.addUserMessage("Hello")));
+                thread.start();
+                thread.join();
+            }
+
+            ContextFactory.PoolStats stats = factory.getPoolStats("test-provider");
+            assertThat(stats.getCreatedCount()).isEqualTo(1);
+            assertThat(stats.getReusedCount()).isEqualTo(19);
+        }
+    }
 }
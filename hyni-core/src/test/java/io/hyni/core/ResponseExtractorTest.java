@@ -0,0 +1,105 @@
+package io.hyni.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.util.CompiledJsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ResponseExtractor Tests")
+class ResponseExtractorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static CompiledJsonPath path(String... segments) {
+        return CompiledJsonPath.of(List.of(segments));
+    }
+
+    @Test
+    @DisplayName("Should read the declared paths of a Claude response")
+    void shouldReadClaudeResponse() throws IOException {
+        ResponseExtractor extractor = CompiledSchema.load("schemas/claude.json").getResponseExtractor();
+        byte[] body = utf8("""
+            {"id": "msg_1", "content": [{"type": "text", "text": "Hello \\u00e9"}, {"type": "text", "text": "ignored"}],
+             "model": "claude-3-5-sonnet-20241022", "stop_reason": "end_turn", "stop_sequence": null,
+             "usage": {"input_tokens": 24, "output_tokens": 52}}
+            """);
+
+        ResponseExtractor.Result result = extractor.extract(body);
+
+        assertThat(result.getText()).isEqualTo("Hello é");
+        assertThat(result.getModel()).isEqualTo("claude-3-5-sonnet-20241022");
+        assertThat(result.getStopReason()).isEqualTo("end_turn");
+        assertThat(result.getUsage()).isEqualTo(MAPPER.readTree("{\"input_tokens\": 24, \"output_tokens\": 52}"));
+        assertThat(extractor.extract(new ByteArrayInputStream(body)).getText()).isEqualTo("Hello é");
+    }
+
+    @Test
+    @DisplayName("Should select the first of several choices and skip the others")
+    void shouldSelectFirstChoice() throws IOException {
+        ResponseExtractor extractor = CompiledSchema.load("schemas/openai.json").getResponseExtractor();
+        byte[] body = utf8("""
+            {"choices": [
+                {"index": 0, "message": {"role": "assistant", "content": "first"}, "finish_reason": "stop"},
+                {"index": 1, "message": {"role": "assistant", "content": "second"}, "finish_reason": "length"}
+             ], "model": "gpt-4o", "usage": {"total_tokens": 76}}
+            """);
+
+        ResponseExtractor.Result result = extractor.extract(body);
+
+        assertThat(result.getText()).isEqualTo("first");
+        assertThat(result.getStopReason()).isEqualTo("stop");
+        assertThat(result.getModel()).isEqualTo("gpt-4o");
+        assertThat(result.getUsage().get("total_tokens").asInt()).isEqualTo(76);
+    }
+
+    @Test
+    @DisplayName("Should stop reading once every path has been read")
+    void shouldStopEarly() throws IOException {
+        ResponseExtractor extractor = new ResponseExtractor(path("text"), null, path("model"), null);
+
+        ResponseExtractor.Result result = extractor.extract(utf8("{\"text\": \"Hi\", \"model\": \"m\", \"rest\": [1, 2, "));
+
+        assertThat(result.getText()).isEqualTo("Hi");
+        assertThat(result.getModel()).isEqualTo("m");
+        assertThat(result.getUsage()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should resolve paths that run through another captured value")
+    void shouldResolveNestedPaths() throws IOException {
+        ResponseExtractor extractor = new ResponseExtractor(path("usage", "text"), path("usage"), null, null);
+
+        ResponseExtractor.Result result = extractor.extract(utf8("{\"usage\": {\"text\": \"inside\", \"n\": 1}}"));
+
+        assertThat(result.getText()).isEqualTo("inside");
+        assertThat(result.getUsage().get("n").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report missing values as null and fail extraction without text")
+    void shouldReportMissingValues() throws IOException {
+        GeneralContext context = new GeneralContext("schemas/claude.json");
+        byte[] body = utf8("{\"type\": \"message\", \"content\": [], \"stop_reason\": null}");
+
+        ResponseExtractor.Result result = context.getCompiledSchema().getResponseExtractor().extract(body);
+
+        assertThat(result.getText()).isNull();
+        assertThat(result.getStopReason()).isNull();
+        assertThatThrownBy(() -> context.extractResponse(body))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Failed to extract text response");
+        assertThatThrownBy(() -> context.extractResponse(utf8("{\"content\": [")))
+            .hasMessageContaining("Failed to extract text response");
+    }
+}
@@ -6,8 +6,12 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -346,4 +350,112 @@ class SchemaRegistryTest {
             assertThat(registry.isProviderAvailable("missing")).isFalse();
         }
     }
+
+    @Nested
+    @DisplayName("Refresh Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Should serve providers from the index until refreshed")
+        void shouldServeIndexUntilRefreshed() throws IOException {
+            SchemaRegistry registry = SchemaRegistry.create()
+                .setSchemaDirectory(tempDir.toString())
+                .build();
+            List<Set<String>> changes = new ArrayList<>();
+            registry.addChangeListener(changes::add);
+
+            createTestSchema("late", getBasicSchemaContent());
+            assertThat(registry.isProviderAvailable("late")).isFalse();
+
+            registry.refresh();
+            assertThat(registry.isProviderAvailable("late")).isTrue();
+            assertThat(registry.getAvailableProviders()).containsExactly("late");
+            assertThat(changes).containsExactly(Set.of("late"));
+        }
+
+        @Test
+        @DisplayName("Should report modified and removed schemas only")
+        void shouldReportModifiedAndRemovedSchemas() throws IOException {
+            Path edited = createTestSchema("edited", getBasicSchemaContent());
+            Path removed = createTestSchema("removed", getBasicSchemaContent());
+            createTestSchema("unchanged", getBasicSchemaContent());
+
+            SchemaRegistry registry = SchemaRegistry.create()
+                .setSchemaDirectory(tempDir.toString())
+                .build();
+            List<Set<String>> changes = new ArrayList<>();
+            registry.addChangeListener(changes::add);
+
+            Files.writeString(edited, getBasicSchemaContent() + "\n");
+            Files.delete(removed);
+            registry.refresh();
+            registry.refresh();
+
+            assertThat(changes).containsExactly(Set.of("edited", "removed"));
+            assertThat(registry.getAvailableProviders()).containsExactlyInAnyOrder("edited", "unchanged");
+        }
+
+        @Test
+        @DisplayName("Should pick up new schemas when watching")
+        void shouldPickUpNewSchemasWhenWatching() throws Exception {
+            try (SchemaRegistry registry = SchemaRegistry.create()
+                    .setSchemaDirectory(tempDir.toString())
+                    .watchForChanges(true)
+                    .build()) {
+                CountDownLatch changed = new CountDownLatch(1);
+                registry.addChangeListener(providers -> {
+                    if (providers.contains("hot")) {
+                        changed.countDown();
+                    }
+                });
+
+                assertThat(registry.isWatching()).isTrue();
+                createTestSchema("hot", getBasicSchemaContent());
+
+                assertThat(changed.await(10, TimeUnit.SECONDS)).isTrue();
+                assertThat(registry.isProviderAvailable("hot")).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Should watch again after a suspension")
+        void shouldResumeWatching() throws Exception {
+            try (SchemaRegistry registry = SchemaRegistry.create()
+                    .setSchemaDirectory(tempDir.toString())
+                    .watchForChanges(true)
+                    .build()) {
+                CountDownLatch changed = new CountDownLatch(1);
+                registry.addChangeListener(providers -> {
+                    if (providers.contains("hot")) {
+                        changed.countDown();
+                    }
+                });
+
+                registry.suspendWatching();
+                createTestSchema("cold", getBasicSchemaContent());
+                registry.resumeWatching();
+                registry.refresh();
+
+                assertThat(registry.isWatching()).isTrue();
+                assertThat(registry.isProviderAvailable("cold")).isTrue();
+
+                createTestSchema("hot", getBasicSchemaContent());
+                assertThat(changed.await(10, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Should stop watching when closed")
+        void shouldStopWatchingWhenClosed() {
+            SchemaRegistry registry = SchemaRegistry.create()
+                .setSchemaDirectory(tempDir.toString())
+                .watchForChanges(true)
+                .build();
+
+            registry.close();
+
+            assertThat(registry.isWatching()).isFalse();
+            assertThatCode(registry::close).doesNotThrowAnyException();
+        }
+    }
 }
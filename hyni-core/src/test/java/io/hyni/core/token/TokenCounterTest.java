@@ -0,0 +1,141 @@
+package io.hyni.core.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.ContextConfig;
+import io.hyni.core.GeneralContext;
+import io.hyni.core.exception.SchemaException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("TokenCounter Tests")
+class TokenCounterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static BpeTokenCounter testMerges() throws IOException {
+        try (InputStream in = TokenCounterTest.class.getClassLoader()
+                .getResourceAsStream("tokenizers/test-merges.txt")) {
+            return BpeTokenCounter.load(in);
+        }
+    }
+
+    @Nested
+    @DisplayName("BPE Tests")
+    class BpeTests {
+
+        @Test
+        @DisplayName("Should apply merges in rank order")
+        void shouldApplyMergesInRankOrder() throws IOException {
+            BpeTokenCounter counter = testMerges();
+
+            assertThat(counter.getMergeCount()).isEqualTo(5);
+            assertThat(counter.countTokens("the")).isEqualTo(1);
+            // "t h" outranks "Ġ t", so " the" ends as [Ġ, the]
+            assertThat(counter.countTokens(" the")).isEqualTo(2);
+            // [the] [Ġ, th, ing]
+            assertThat(counter.countTokens("the thing")).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should count unmerged bytes as tokens")
+        void shouldCountUnmergedBytes() throws IOException {
+            BpeTokenCounter counter = testMerges();
+
+            assertThat(counter.countTokens("")).isZero();
+            assertThat(counter.countTokens("xyz")).isEqualTo(3);
+            assertThat(counter.countTokens("é")).isEqualTo(2);
+            assertThat(counter.countTokens("a, 42")).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Should bound long runs without breaks")
+        void shouldBoundLongRuns() throws IOException {
+            assertThat(testMerges().countTokens("x".repeat(10_000))).isEqualTo(10_000);
+        }
+
+        @Test
+        @DisplayName("Should reject merges of unknown tokens")
+        void shouldRejectUnknownTokens() {
+            InputStream merges = new ByteArrayInputStream("th e\n".getBytes(StandardCharsets.UTF_8));
+
+            assertThatThrownBy(() -> BpeTokenCounter.load(merges))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Selection Tests")
+    class SelectionTests {
+
+        @Test
+        @DisplayName("Should default to the heuristic counter")
+        void shouldDefaultToHeuristic() {
+            TokenCounter counter = TokenCounters.forSchema(MAPPER.missingNode());
+
+            assertThat(counter).isSameAs(HeuristicTokenCounter.getDefault());
+            assertThat(counter.countTokens("12345678")).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should create the counter a schema declares")
+        void shouldCreateDeclaredCounter() throws IOException {
+            TokenCounter heuristic = TokenCounters.forSchema(
+                MAPPER.readTree("{\"type\":\"heuristic\",\"chars_per_token\":2,\"image_tokens\":85}"));
+            TokenCounter bpe = TokenCounters.forSchema(
+                MAPPER.readTree("{\"type\":\"bpe\",\"merges\":\"tokenizers/test-merges.txt\"}"));
+
+            assertThat(heuristic.countTokens("12345")).isEqualTo(3);
+            assertThat(heuristic.imageTokens()).isEqualTo(85);
+            assertThat(bpe).isInstanceOf(BpeTokenCounter.class);
+            assertThat(bpe.countTokens("the")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject unknown tokenizer types")
+        void shouldRejectUnknownType() {
+            assertThatThrownBy(() -> TokenCounters.forSchema(MAPPER.readTree("{\"type\":\"sentencepiece\"}")))
+                .isInstanceOf(SchemaException.class)
+                .hasMessageContaining("sentencepiece");
+        }
+    }
+
+    @Nested
+    @DisplayName("Context Estimation Tests")
+    class ContextEstimationTests {
+
+        @Test
+        @DisplayName("Should estimate input tokens incrementally with the configured counter")
+        void shouldEstimateIncrementally() throws IOException {
+            ContextConfig config = new ContextConfig();
+            config.setTokenCounter(testMerges());
+            GeneralContext context = new GeneralContext("schemas/claude.json", config);
+
+            context.addUserMessage("the thing");
+            assertThat(context.estimateInputTokens()).isEqualTo(4 + 4);
+
+            context.setSystemMessage("the");
+            context.addAssistantMessage("xyz");
+            assertThat(context.estimateInputTokens()).isEqualTo(8 + (1 + 4) + (3 + 4));
+        }
+
+        @Test
+        @DisplayName("Should use the schema's counter by default")
+        void shouldUseSchemaCounter() {
+            GeneralContext claude = new GeneralContext("schemas/claude.json");
+
+            claude.addUserMessage("x".repeat(35));
+
+            // claude declares 3.5 characters per token
+            assertThat(claude.estimateInputTokens()).isEqualTo(10 + 4);
+        }
+    }
+}
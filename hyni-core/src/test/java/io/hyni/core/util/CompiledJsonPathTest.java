@@ -0,0 +1,75 @@
+package io.hyni.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CompiledJsonPath Tests")
+class CompiledJsonPathTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String RESPONSE = """
+        {
+            "choices": [{"message": {"content": "Hello"}, "finish_reason": null}],
+            "10": {"key": "numeric key"}
+        }
+        """;
+
+    @Test
+    @DisplayName("Should classify numeric segments as array indices")
+    void shouldClassifySegments() throws IOException {
+        JsonNode response = MAPPER.readTree(RESPONSE);
+        CompiledJsonPath path = CompiledJsonPath.compile(MAPPER.readTree("[\"choices\", 0, \"message\", \"content\"]"));
+
+        assertThat(path.getSegments()).containsExactly("choices", "0", "message", "content");
+        assertThat(path.resolve(response).asText()).isEqualTo("Hello");
+        assertThat(path.tryResolveText(response)).isEqualTo("Hello");
+        assertThat(CompiledJsonPath.of(List.of("choices", "0", "message", "content")).tryResolve(response))
+            .isEqualTo(path.resolve(response));
+    }
+
+    @Test
+    @DisplayName("Should return null instead of throwing for missing segments")
+    void shouldTryResolve() throws IOException {
+        JsonNode response = MAPPER.readTree(RESPONSE);
+
+        assertThat(CompiledJsonPath.of(List.of("choices", "1", "message")).tryResolve(response)).isNull();
+        assertThat(CompiledJsonPath.of(List.of("choices", "message")).tryResolve(response)).isNull();
+        assertThat(CompiledJsonPath.of(List.of("missing", "deeper")).tryResolve(response)).isNull();
+        assertThat(CompiledJsonPath.of(List.of("choices", "0", "finish_reason")).tryResolveText(response)).isNull();
+        assertThat(CompiledJsonPath.of(List.of("choices")).tryResolve(null)).isNull();
+        // A digit key only matches array elements, as with JsonPathResolver
+        assertThat(CompiledJsonPath.of(List.of("10", "key")).tryResolve(response)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should report the failing segment when resolving strictly")
+    void shouldReportFailingSegment() throws IOException {
+        JsonNode response = MAPPER.readTree(RESPONSE);
+
+        assertThatThrownBy(() -> CompiledJsonPath.of(List.of("choices", "3")).resolve(response))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid array access: index 3");
+        assertThatThrownBy(() -> CompiledJsonPath.of(List.of("content", "0")).resolve(response))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid object access: key content");
+    }
+
+    @Test
+    @DisplayName("Should only accept non-negative int indices")
+    void shouldParseIndices() {
+        assertThat(CompiledJsonPath.parseIndex("0")).isZero();
+        assertThat(CompiledJsonPath.parseIndex("2147483647")).isEqualTo(Integer.MAX_VALUE);
+        assertThat(CompiledJsonPath.parseIndex("2147483648")).isEqualTo(-1);
+        assertThat(CompiledJsonPath.parseIndex("-1")).isEqualTo(-1);
+        assertThat(CompiledJsonPath.parseIndex("")).isEqualTo(-1);
+        assertThat(CompiledJsonPath.parseIndex("content")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,166 @@
+package io.hyni.core.util;
+
+import io.hyni.core.ContextConfig;
+import io.hyni.core.GeneralContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MediaCache Tests")
+class MediaCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private Path write(String name, byte[] bytes) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, bytes);
+        return file;
+    }
+
+    @Test
+    @DisplayName("Should serve an unchanged file from the cache")
+    void shouldServeUnchangedFile() throws IOException {
+        byte[] image = randomBytes(3000, 1);
+        Path file = write("a.png", image);
+        MediaCache cache = new MediaCache();
+
+        MediaSource first = cache.get(file, null);
+        MediaSource second = cache.get(file, "data:image/png;base64,");
+
+        assertThat(first.toString()).isEqualTo(Base64.getEncoder().encodeToString(image));
+        assertThat(second.toString()).isEqualTo("data:image/png;base64," + first);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should share one entry between files with the same content")
+    void shouldShareEntryByContent() throws IOException {
+        byte[] image = randomBytes(3000, 2);
+        MediaCache cache = new MediaCache();
+
+        cache.get(write("a.png", image), null);
+        cache.get(write("b.png", image), null);
+        cache.get(image, null);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should re-read a modified file")
+    void shouldRereadModifiedFile() throws IOException {
+        Path file = write("a.png", randomBytes(3000, 3));
+        MediaCache cache = new MediaCache();
+        cache.get(file, null);
+
+        byte[] changed = randomBytes(3000, 4);
+        Files.write(file, changed);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+
+        assertThat(cache.get(file, null).toString()).isEqualTo(Base64.getEncoder().encodeToString(changed));
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep one record per file however often it changes")
+    void shouldReplaceRecordOfChangedFile() throws IOException {
+        Path file = write("a.png", randomBytes(3000, 10));
+        MediaCache cache = new MediaCache(10 * 1024);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+
+        for (int i = 1; i <= 20; i++) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(modified + i * 1000L));
+            cache.get(file, null);
+        }
+
+        assertThat(cache.fileCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(19);
+        assertThat(cache.weight()).isLessThanOrEqualTo(10 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should count file records against the size bound")
+    void shouldBoundFileRecords() throws IOException {
+        byte[] image = randomBytes(3000, 11);
+        MediaCache cache = new MediaCache(10 * 1024);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(write("copy" + i + ".png", image), null);
+        }
+
+        assertThat(cache.weight()).isLessThanOrEqualTo(10 * 1024);
+        assertThat(cache.fileCount()).isLessThan(100);
+        assertThat(cache.size()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries by encoded size")
+    void shouldEvictByWeight() {
+        // Each entry weighs about 4 KiB encoded
+        MediaCache cache = new MediaCache(10 * 1024);
+        byte[] a = randomBytes(3000, 5);
+        byte[] b = randomBytes(3000, 6);
+        byte[] c = randomBytes(3000, 7);
+
+        cache.get(a, null);
+        cache.get(b, null);
+        cache.get(a, null);
+        MediaSource evictedLater = cache.get(c, null);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.weight()).isLessThanOrEqualTo(10 * 1024);
+
+        // b was evicted, a is still cached
+        cache.get(a, null);
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(evictedLater.toString()).isEqualTo(Base64.getEncoder().encodeToString(c));
+    }
+
+    @Test
+    @DisplayName("Should not cache media larger than the cache")
+    void shouldNotCacheOversizedMedia() {
+        MediaCache cache = new MediaCache(1024);
+        byte[] image = randomBytes(3000, 8);
+
+        assertThat(cache.get(image, null).toString()).isEqualTo(Base64.getEncoder().encodeToString(image));
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should encode attachments through the configured cache")
+    void shouldEncodeThroughConfiguredCache() throws IOException {
+        Path file = write("a.png", randomBytes(3000, 9));
+        MediaCache cache = new MediaCache();
+        ContextConfig config = new ContextConfig();
+        config.setMediaCache(cache);
+
+        for (int i = 0; i < 3; i++) {
+            new GeneralContext("schemas/claude.json", config)
+                .addUserMessage("Describe this", "image/png", file.toString());
+        }
+
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,111 @@
+package io.hyni.core.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MediaSource Tests")
+class MediaSourceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String serialize(MediaSource source) throws IOException {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.putPOJO("data", source);
+        return MAPPER.readTree(MAPPER.writeValueAsBytes(node)).get("data").asText();
+    }
+
+    @Nested
+    @DisplayName("Encoding Tests")
+    class EncodingTests {
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 3, 3071, 3072, 3073, 10_000})
+        @DisplayName("Should encode bytes like java.util.Base64 across chunk boundaries")
+        void shouldEncodeBytes(int length) throws IOException {
+            byte[] bytes = randomBytes(length);
+
+            MediaSource source = MediaSource.ofBytes(bytes, null);
+
+            String expected = Base64.getEncoder().encodeToString(bytes);
+            assertThat(serialize(source)).isEqualTo(expected);
+            assertThat(source.getEncodedLength()).isEqualTo(expected.length());
+        }
+
+        @Test
+        @DisplayName("Should encode a file lazily with a prefix")
+        void shouldEncodeFile(@TempDir Path dir) throws IOException {
+            byte[] bytes = randomBytes(7000);
+            Path file = dir.resolve("image.png");
+            Files.write(file, bytes);
+
+            MediaSource source = MediaSource.ofFile(file, "data:image/png;base64,");
+
+            String expected = "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes);
+            assertThat(serialize(source)).isEqualTo(expected);
+            assertThat(source.toString()).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Should reject missing files")
+        void shouldRejectMissingFile(@TempDir Path dir) {
+            assertThatThrownBy(() -> MediaSource.ofFile(dir.resolve("missing.png"), null))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("does not exist");
+        }
+
+        @Test
+        @DisplayName("Should write encoded data once, skipping a data URI header")
+        void shouldSkipDataUriHeader() throws IOException {
+            MediaSource source = MediaSource.ofEncoded("data:image/jpeg;base64,QUJD", "data:image/png;base64,");
+
+            assertThat(serialize(source)).isEqualTo("data:image/png;base64,QUJD");
+            assertThat(source.getEncodedLength()).isEqualTo(source.toString().length());
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"QUJD", "QQ==", "QUJD\nREVG", "data:image/png;base64,xyz"})
+        @DisplayName("Should accept Base64 data")
+        void shouldAcceptBase64(String data) {
+            assertThat(Base64Utils.isBase64Encoded(data)).isTrue();
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"", "QUJ", "image.png", "QQ=A", "Q===", "QUJDé", "/tmp/a.png"})
+        @DisplayName("Should reject anything else")
+        void shouldRejectOtherText(String data) {
+            assertThat(Base64Utils.isBase64Encoded(data)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject a single padding character")
+        void shouldRejectSinglePadding() {
+            assertThat(Base64Utils.isBase64Encoded("QUI=")).isFalse();
+            assertThat(Base64Utils.isBase64Encoded("QUJD\nQUI=")).isFalse();
+        }
+    }
+}
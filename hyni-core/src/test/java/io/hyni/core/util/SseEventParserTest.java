@@ -0,0 +1,78 @@
+package io.hyni.core.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SseEventParser Tests")
+class SseEventParserTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    private SseEventParser parser(int bufferSize) {
+        return new SseEventParser((type, data, offset, length) -> {
+            events.add(type + "|" + new String(data, offset, length, StandardCharsets.UTF_8));
+            return true;
+        }, bufferSize);
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should parse named and unnamed events")
+    void shouldParseNamedAndUnnamedEvents() throws IOException {
+        parser(64).parse(stream(
+            "event: content_block_delta\ndata: {\"delta\":{\"text\":\"Hi\"}}\n\n" +
+            "data: [DONE]\n\n"));
+
+        assertThat(events).containsExactly(
+            "content_block_delta|{\"delta\":{\"text\":\"Hi\"}}",
+            "null|[DONE]");
+    }
+
+    @Test
+    @DisplayName("Should join multi-line data and ignore comments")
+    void shouldJoinMultiLineData() throws IOException {
+        parser(64).parse(stream(": keep-alive\ndata: first\ndata:second\nid: 7\n\n"));
+
+        assertThat(events).containsExactly("null|first\nsecond");
+    }
+
+    @Test
+    @DisplayName("Should handle CRLF line endings split across reads")
+    void shouldHandleCrLfAcrossReads() throws IOException {
+        // A tiny buffer forces lines and line endings to straddle reads
+        parser(3).parse(stream("event: ping\r\ndata: {}\r\n\r\ndata: é\r\n\r\n"));
+
+        assertThat(events).containsExactly("ping|{}", "null|é");
+    }
+
+    @Test
+    @DisplayName("Should dispatch an unterminated trailing event")
+    void shouldDispatchTrailingEvent() throws IOException {
+        parser(16).parse(stream("data: last"));
+
+        assertThat(events).containsExactly("null|last");
+    }
+
+    @Test
+    @DisplayName("Should stop when the listener asks to")
+    void shouldStopWhenListenerAsks() throws IOException {
+        new SseEventParser((type, data, offset, length) -> {
+            events.add(new String(data, offset, length, StandardCharsets.UTF_8));
+            return false;
+        }).parse(stream("data: one\n\ndata: two\n\n"));
+
+        assertThat(events).containsExactly("one");
+    }
+}
@@ -1,46 +1,192 @@
 package io.hyni.spring.boot;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.CompiledSchema;
 import io.hyni.core.ContextFactory;
 import io.hyni.core.GeneralContext;
+import io.hyni.core.HeaderBundle;
+import io.hyni.core.ResponseExtractor;
+import io.hyni.core.util.SseEventParser;
 import io.hyni.spring.boot.autoconfigure.HyniProperties;
+import io.hyni.spring.boot.cache.ResponseCache;
 import io.hyni.spring.boot.exception.HyniException;
+import io.hyni.spring.boot.exception.ProviderException;
+import io.hyni.spring.boot.exception.RateLimitExceededException;
+import io.hyni.spring.boot.execution.Bulkhead;
+import io.hyni.spring.boot.execution.HyniExecutors;
 import io.hyni.spring.boot.model.ChatRequest;
+import io.hyni.spring.boot.metrics.HyniMetricsRecorder;
 import io.hyni.spring.boot.model.ChatResponse;
+import io.hyni.spring.boot.ratelimit.RateLimiter;
+import io.hyni.spring.boot.ratelimit.RateLimiterRegistry;
+import io.hyni.spring.boot.retry.RetryClassifier;
+import io.hyni.spring.boot.retry.RetryExecutor;
+import io.hyni.spring.boot.retry.RetryPolicy;
+import io.hyni.spring.boot.stream.ChatStreamPublisher;
+import io.hyni.spring.boot.transport.HttpClientTransport;
+import io.hyni.spring.boot.transport.HyniTransport;
+import io.hyni.spring.boot.transport.TransportException;
+import io.hyni.spring.boot.transport.TransportRequest;
+import io.hyni.spring.boot.transport.TransportResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main template class for interacting with LLM providers in Spring applications
+ *
+ * A template creates the executors it is not given; {@link #close()} shuts those down.
  */
-public class HyniTemplate {
+public class HyniTemplate implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(HyniTemplate.class);
 
+    private static final byte[] DONE_MARKER = "[DONE]".getBytes(StandardCharsets.US_ASCII);
+
     private final ContextFactory contextFactory;
     private final HyniProperties properties;
-    private final RestTemplate restTemplate;
+    private final HyniTransport transport;
+    private final ObjectMapper objectMapper;
     private final Map<String, String> providerApiKeys;
+    private final Map<String, ProviderHeaders> providerHeaders = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final Executor deliveryExecutor;
+    private final boolean ownsExecutor;
+    private final boolean ownsDeliveryExecutor;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final RateLimiterRegistry rateLimiters;
+    private final ResponseCache responseCache;
+    private final RetryExecutor retryExecutor;
+    private volatile HyniMetricsRecorder metricsRecorder;
 
     public HyniTemplate(ContextFactory contextFactory, HyniProperties properties) {
+        this(contextFactory, properties, HyniExecutors.create(properties.getExecution()));
+    }
+
+    public HyniTemplate(ContextFactory contextFactory, HyniProperties properties, HyniTransport transport) {
+        this(contextFactory, properties, transport, HyniExecutors.create(properties.getExecution()),
+            HyniExecutors.deliveryPool(), true, true);
+    }
+
+    /**
+     * @param executor Runs blocking work such as reading streamed responses; never the common pool
+     */
+    public HyniTemplate(ContextFactory contextFactory, HyniProperties properties,
+                        HyniTransport transport, Executor executor) {
+        this(contextFactory, properties, transport, executor, HyniExecutors.deliveryPool(), false, true);
+    }
+
+    /**
+     * @param executor Runs blocking work such as reading streamed responses; never the common pool
+     * @param deliveryExecutor Delivers streamed items to subscribers; must not be the executor
+     *                         above when that is bounded, see {@link HyniExecutors#deliveryPool()}
+     */
+    public HyniTemplate(ContextFactory contextFactory, HyniProperties properties,
+                        HyniTransport transport, Executor executor, Executor deliveryExecutor) {
+        this(contextFactory, properties, transport, executor, deliveryExecutor, false, false);
+    }
+
+    private HyniTemplate(ContextFactory contextFactory, HyniProperties properties, ExecutorService executor) {
+        this(contextFactory, properties, createDefaultTransport(properties, executor), executor,
+            HyniExecutors.deliveryPool(), true, true);
+    }
+
+    private HyniTemplate(ContextFactory contextFactory, HyniProperties properties, HyniTransport transport,
+                         Executor executor, Executor deliveryExecutor,
+                         boolean ownsExecutor, boolean ownsDeliveryExecutor) {
         this.contextFactory = contextFactory;
         this.properties = properties;
-        this.restTemplate = new RestTemplate();
-        this.providerApiKeys = new HashMap<>();
+        this.transport = transport;
+        this.executor = executor;
+        this.deliveryExecutor = deliveryExecutor;
+        this.ownsExecutor = ownsExecutor;
+        this.ownsDeliveryExecutor = ownsDeliveryExecutor;
+        this.objectMapper = new ObjectMapper();
+        this.providerApiKeys = new ConcurrentHashMap<>();
+        this.rateLimiters = new RateLimiterRegistry(properties);
+        this.retryExecutor = new RetryExecutor(executor);
+
+        HyniProperties.CacheConfig cache = properties.getCache();
+        this.responseCache = cache.isEnabled()
+            ? new ResponseCache(cache.getMaxSize(), Duration.ofMinutes(cache.getTtlMinutes()))
+            : null;
+    }
+
+    /**
+     * Create the non-blocking HTTP/2 transport used when none is supplied
+     *
+     * The client shares the executor unless it is a bounded platform pool: blocking sends
+     * and streamed bodies need client tasks to complete, which a pool whose threads are all
+     * waiting on them could never run.
+     */
+    public static HyniTransport createDefaultTransport(HyniProperties properties, Executor executor) {
+        boolean bounded = properties.getExecution().getMode() == HyniProperties.ExecutionConfig.Mode.PLATFORM;
+        return new HttpClientTransport(
+            Duration.ofMillis(properties.getTransport().getConnectTimeout()),
+            Duration.ofMillis(properties.getDefaults().getTimeout()),
+            bounded ? null : executor);
+    }
+
+    /**
+     * Shuts down the executors this template created; executors it was given are left to
+     * their owner. Requests already running complete, new ones may be rejected.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+        if (ownsDeliveryExecutor) {
+            ((ExecutorService) deliveryExecutor).shutdown();
+        }
     }
 
     /**
-     * Configure API key for a provider
+     * Configure API key for a provider; may be called while requests are in flight, such as
+     * when keys are rotated. A null key falls back to the provider's configured key.
      */
     public void configureProvider(String provider, String apiKey) {
-        providerApiKeys.put(provider, apiKey);
+        if (apiKey == null) {
+            providerApiKeys.remove(provider);
+        } else {
+            providerApiKeys.put(provider, apiKey);
+        }
+    }
+
+    /**
+     * Set the recorder that receives cache metrics, or null to disable them
+     */
+    public void setMetricsRecorder(HyniMetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * Remove all cached responses
+     */
+    public void clearResponseCache() {
+        if (responseCache != null) {
+            responseCache.clear();
+        }
     }
 
     /**
@@ -65,67 +211,176 @@ public class HyniTemplate {
      * Send a chat request to a specific provider
      */
     public ChatResponse chat(String provider, ChatRequest request) {
+        GeneralContext context = null;
         try {
-            GeneralContext context = createContext(provider);
+            context = prepareContext(provider, request);
 
-            // Apply request configuration
-            if (request.getModel() != null) {
-                context.setModel(request.getModel());
+            String cacheKey = cacheKey(provider, request, context);
+            ChatResponse cached = lookupCache(cacheKey);
+            if (cached != null) {
+                return cached;
             }
 
-            if (request.getSystemMessage() != null) {
-                context.setSystemMessage(request.getSystemMessage());
-            }
+            byte[] body = serializeRequest(context, request.isStream());
+            TransportRequest transportRequest =
+                buildTransportRequest(provider, context, body, MediaType.APPLICATION_JSON_VALUE);
+
+            // Make API call, retrying transient failures
+            long startTime = System.currentTimeMillis();
+            TransportResponse response = send(provider, context, transportRequest).join();
+            ChatResponse chatResponse =
+                toChatResponse(provider, request, context, response, System.currentTimeMillis() - startTime);
+            storeInCache(cacheKey, chatResponse);
+            return chatResponse;
+
+        } catch (Exception e) {
+            throw failure(provider, context, e);
+        } finally {
+            releaseContext(context);
+        }
+    }
 
-            if (request.getParameters() != null) {
-                request.getParameters().forEach(context::setParameter);
+    /**
+     * Stream a chat request, publishing text deltas as the provider generates them
+     *
+     * The request is sent when the returned publisher is subscribed to, and server-sent
+     * events are parsed incrementally using the schema's stream content_delta_path.
+     * The publisher accepts a single subscriber; adapt it with
+     * {@code JdkFlowAdapter.flowPublisherToFlux} where a {@code Flux} is needed.
+     */
+    public Flow.Publisher<String> chatStream(String provider, ChatRequest request) {
+        return new ChatStreamPublisher(executor, deliveryExecutor, sink -> {
+            GeneralContext context = prepareContext(provider, request);
+            CompletableFuture<Void> streamed;
+            try {
+                if (!context.supportsStreaming()) {
+                    throw new HyniException("Provider does not support streaming: " + provider);
+                }
+
+                byte[] requestBody = serializeRequest(context, true);
+                TransportRequest transportRequest =
+                    buildTransportRequest(provider, context, requestBody, MediaType.TEXT_EVENT_STREAM_VALUE);
+
+                streamed = openStream(provider, context, transportRequest)
+                    .thenAcceptAsync(stream -> readStream(provider, context, stream, sink), executor);
+            } catch (Exception e) {
+                releaseContext(context);
+                throw e;
             }
 
-            // Add messages
-            request.getMessages().forEach(msg -> {
-                if ("user".equals(msg.getRole())) {
-                    context.addUserMessage(msg.getContent());
-                } else if ("assistant".equals(msg.getRole())) {
-                    context.addAssistantMessage(msg.getContent());
+            return streamed.handle((ignored, error) -> {
+                releaseContext(context);
+                if (error != null) {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof TransportException transportError) {
+                        cause = providerError(provider, context, transportError.getResponse());
+                    }
+                    throw new CompletionException(cause);
                 }
+                return null;
             });
+        });
+    }
 
-            // Build request
-            JsonNode requestBody = context.buildRequest(request.isStream());
+    /**
+     * Parses the events of an open stream into the sink, releasing its bulkhead permit once
+     * the stream has been consumed
+     */
+    private void readStream(String provider, GeneralContext context, OpenStream stream,
+                            SubmissionPublisher<String> sink) {
+        Bulkhead bulkhead = stream.bulkhead();
+        try (InputStream body = stream.body()) {
+            new SseEventParser((eventType, data, offset, length) -> {
+                if (isDoneMarker(data, offset, length)) {
+                    return false;
+                }
 
-            // Make API call
-            long startTime = System.currentTimeMillis();
-            ResponseEntity<JsonNode> response = callApi(context, requestBody);
-            long duration = System.currentTimeMillis() - startTime;
+                JsonNode event = objectMapper.readTree(data, offset, length);
+                if ("error".equals(eventType) || event.has("error")) {
+                    throw new HyniException("Stream error from provider " + provider + ": " +
+                        context.extractError(event));
+                }
 
-            // Extract response
-            String responseText = context.extractTextResponse(response.getBody());
+                String delta = context.extractStreamDelta(event);
+                if (delta != null && !delta.isEmpty()) {
+                    sink.submit(delta);
+                }
 
-            // Get the actual model used
-            String actualModel = extractModelFromResponse(response.getBody(), provider);
-            if (actualModel == null) {
-                actualModel = request.getModel() != null ? request.getModel() : getDefaultModel(provider);
-            }
+                // Stop reading once the subscriber has cancelled
+                return sink.getNumberOfSubscribers() > 0;
+            }).parse(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            bulkhead.release();
+        }
+    }
 
-            return ChatResponse.builder()
-                .provider(provider)
-                .text(responseText)
-                .model(actualModel)
-                .duration(duration)
-                .rawResponse(response.getBody())
-                .build();
+    /**
+     * Send a chat request asynchronously
+     *
+     * No thread is held while waiting for the provider when the default transport is used.
+     * The future completes exceptionally with a {@link HyniException} on failure.
+     */
+    public CompletableFuture<ChatResponse> chatAsync(String provider, ChatRequest request) {
+        GeneralContext context = null;
+        String cacheKey;
+        byte[] body;
+        TransportRequest transportRequest;
+        try {
+            context = prepareContext(provider, request);
+
+            cacheKey = cacheKey(provider, request, context);
+            ChatResponse cached = lookupCache(cacheKey);
+            if (cached != null) {
+                releaseContext(context);
+                return CompletableFuture.completedFuture(cached);
+            }
 
+            body = serializeRequest(context, request.isStream());
+            transportRequest = buildTransportRequest(provider, context, body, MediaType.APPLICATION_JSON_VALUE);
         } catch (Exception e) {
-            logger.error("Error calling provider {}: {}", provider, e.getMessage(), e);
-            throw new HyniException("Failed to call provider: " + provider, e);
+            releaseContext(context);
+            return CompletableFuture.failedFuture(new HyniException("Failed to call provider: " + provider, e));
         }
+
+        GeneralContext requestContext = context;
+
+        long startTime = System.currentTimeMillis();
+        return send(provider, requestContext, transportRequest)
+            .thenApply(response -> {
+                try {
+                    ChatResponse chatResponse =
+                        toChatResponse(provider, request, requestContext, response, System.currentTimeMillis() - startTime);
+                    storeInCache(cacheKey, chatResponse);
+                    return chatResponse;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .handle((response, error) -> {
+                if (error == null) {
+                    return response;
+                }
+                throw failure(provider, requestContext, error);
+            })
+            .whenComplete((response, error) -> releaseContext(requestContext));
     }
 
     /**
-     * Send a chat request asynchronously
+     * Send several chat requests to a provider concurrently
+     *
+     * Requests beyond the provider's concurrency limit are queued rather than rejected,
+     * up to the configured queue size.
+     * @return A future of the responses in request order, failed if any request fails
      */
-    public CompletableFuture<ChatResponse> chatAsync(String provider, ChatRequest request) {
-        return CompletableFuture.supplyAsync(() -> chat(provider, request));
+    public CompletableFuture<List<ChatResponse>> chatAll(String provider, List<ChatRequest> requests) {
+        List<CompletableFuture<ChatResponse>> futures = requests.stream()
+            .map(request -> chatAsync(provider, request))
+            .toList();
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
     }
 
     /**
@@ -151,22 +406,20 @@ public class HyniTemplate {
 
     private GeneralContext createContext(String provider) {
         GeneralContext context = contextFactory.createContext(provider);
+        return configureContext(provider, context, requireApiKey(provider));
+    }
 
-        // Set API key
-        String apiKey = providerApiKeys.get(provider);
-        if (apiKey == null) {
-            // Try to get from properties
-            HyniProperties.ProviderConfig providerConfig = properties.getProviders().get(provider);
-            if (providerConfig != null) {
-                apiKey = resolveApiKey(providerConfig);
-            }
-        }
-
+    private String requireApiKey(String provider) {
+        String apiKey = resolveProviderApiKey(provider);
         if (apiKey == null) {
             throw new HyniException("No API key configured for provider: " + provider);
         }
+        return apiKey;
+    }
 
-        context.setApiKey(apiKey);
+    private GeneralContext configureContext(String provider, GeneralContext context, String apiKey) {
+        // Set API key, with the headers every context of the provider shares
+        context.setApiKey(apiKey, headersFor(provider, context.getCompiledSchema(), apiKey));
 
         // Apply provider-specific configuration
         HyniProperties.ProviderConfig providerConfig = properties.getProviders().get(provider);
@@ -183,37 +436,426 @@ public class HyniTemplate {
         return context;
     }
 
-    private ResponseEntity<JsonNode> callApi(GeneralContext context, JsonNode requestBody) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    /**
+     * Borrow a context from the factory's pool when pooling is enabled, or create one;
+     * hand it back with {@link #releaseContext(GeneralContext)} once the request is done
+     */
+    private GeneralContext acquireContext(String provider) {
+        if (!properties.getPool().isEnabled()) {
+            return createContext(provider);
+        }
 
-        // Add provider headers
-        context.getHeaders().forEach(headers::add);
+        // Resolve the API key first so that a missing key does not borrow a context
+        String apiKey = requireApiKey(provider);
+        GeneralContext context = contextFactory.borrow(provider);
+        try {
+            return configureContext(provider, context, apiKey);
+        } catch (RuntimeException e) {
+            contextFactory.release(context);
+            throw e;
+        }
+    }
 
-        HttpEntity<JsonNode> entity = new HttpEntity<>(requestBody, headers);
+    private void releaseContext(GeneralContext context) {
+        if (context != null && properties.getPool().isEnabled()) {
+            contextFactory.release(context);
+        }
+    }
 
-        return restTemplate.exchange(
-            context.getEndpoint(),
-            HttpMethod.POST,
-            entity,
-            JsonNode.class
-        );
+    private GeneralContext prepareContext(String provider, ChatRequest request) {
+        GeneralContext context = acquireContext(provider);
+        try {
+            applyRequest(context, request);
+        } catch (RuntimeException e) {
+            releaseContext(context);
+            throw e;
+        }
+        return context;
     }
 
-    private String resolveApiKey(HyniProperties.ProviderConfig config) {
-        if (config.getApiKey() != null && !config.getApiKey().isEmpty()) {
-            return config.getApiKey();
+    private void applyRequest(GeneralContext context, ChatRequest request) {
+        // Apply request configuration
+        if (request.getModel() != null) {
+            context.setModel(request.getModel());
         }
 
-        if (config.getApiKeyEnvVar() != null && !config.getApiKeyEnvVar().isEmpty()) {
-            return System.getenv(config.getApiKeyEnvVar());
+        if (request.getSystemMessage() != null) {
+            context.setSystemMessage(request.getSystemMessage());
         }
 
-        return null;
+        if (request.getParameters() != null) {
+            request.getParameters().forEach(context::setParameter);
+        }
+
+        // Add messages
+        request.getMessages().forEach(msg -> {
+            if ("user".equals(msg.getRole())) {
+                context.addUserMessage(msg.getContent());
+            } else if ("assistant".equals(msg.getRole())) {
+                context.addAssistantMessage(msg.getContent());
+            }
+        });
+    }
+
+    /**
+     * Sends a request within the provider's rate and concurrency limits, retrying transient
+     * failures. Error responses complete the future with a {@link TransportException}.
+     */
+    private CompletableFuture<TransportResponse> send(String provider, GeneralContext context,
+                                                      TransportRequest transportRequest) {
+        return retryExecutor.execute(
+            () -> admit(provider, context).thenCompose(bulkhead -> {
+                CompletableFuture<TransportResponse> sent;
+                try {
+                    sent = transport.sendAsync(transportRequest);
+                } catch (RuntimeException e) {
+                    sent = CompletableFuture.failedFuture(e);
+                }
+                return sent.whenComplete((response, error) -> bulkhead.release());
+            }).thenApply(response -> {
+                if (!response.isSuccessful()) {
+                    throw new CompletionException(new TransportException(response));
+                }
+                return response;
+            }),
+            retryPolicy(context),
+            new RetryClassifier(context, objectMapper));
+    }
+
+    /**
+     * Opens a streamed response like {@link #send}. Only opening the response takes a thread
+     * of the executor; admission and retries are waited for without one. The bulkhead permit
+     * is held until the stream has been consumed.
+     */
+    private CompletableFuture<OpenStream> openStream(String provider, GeneralContext context,
+                                                     TransportRequest transportRequest) {
+        return retryExecutor.execute(
+            () -> admit(provider, context).thenApplyAsync(bulkhead -> {
+                try {
+                    return new OpenStream(transport.openStream(transportRequest), bulkhead);
+                } catch (IOException e) {
+                    bulkhead.release();
+                    throw new CompletionException(e);
+                } catch (RuntimeException e) {
+                    bulkhead.release();
+                    throw e;
+                }
+            }, executor),
+            retryPolicy(context),
+            new RetryClassifier(context, objectMapper));
+    }
+
+    private RetryPolicy retryPolicy(GeneralContext context) {
+        HyniProperties.RetryConfig retry = properties.getRetry();
+
+        int maxRetries = 0;
+        if (retry.isEnabled()) {
+            CompiledSchema schema = context.getCompiledSchema();
+            if (retry.getMaxRetries() != null) {
+                maxRetries = retry.getMaxRetries();
+            } else if (schema != null) {
+                maxRetries = schema.getMaxRetries();
+            }
+        }
+
+        return new RetryPolicy(maxRetries,
+            Duration.ofMillis(retry.getInitialDelay()),
+            Duration.ofMillis(retry.getMaxDelay()),
+            Duration.ofMillis(retry.getDeadline()));
+    }
+
+    private HyniException failure(String provider, GeneralContext context, Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof TransportException transportError && context != null) {
+            cause = providerError(provider, context, transportError.getResponse());
+        }
+        logger.error("Error calling provider {}: {}", provider, cause.getMessage(), cause);
+        return new HyniException("Failed to call provider: " + provider, cause);
+    }
+
+    /**
+     * Computes the response cache key of a request, or returns null if it must not be cached
+     */
+    private String cacheKey(String provider, ChatRequest request, GeneralContext context) {
+        if (responseCache == null || request.isStream()) {
+            return null;
+        }
+
+        HyniProperties.ProviderConfig providerConfig = properties.getProviders().get(provider);
+
+        // Effective model and parameters, as applied by createContext and prepareContext
+        String model = request.getModel();
+        if (model == null && providerConfig != null) {
+            model = providerConfig.getModel();
+        }
+        if (model == null && context.getCompiledSchema() != null) {
+            model = context.getCompiledSchema().getDefaultModel();
+        }
+
+        Map<String, Object> parameters = new HashMap<>();
+        if (providerConfig != null && providerConfig.getParameters() != null) {
+            parameters.putAll(providerConfig.getParameters());
+        }
+        if (request.getParameters() != null) {
+            parameters.putAll(request.getParameters());
+        }
+
+        return responseCache.key(provider, model, request, parameters);
+    }
+
+    /**
+     * Looks up a cached response. A hit is returned as a copy marked as cached, with its
+     * own duration and JSON, so callers never share the cached instance.
+     */
+    private ChatResponse lookupCache(String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+
+        long startTime = System.currentTimeMillis();
+        ChatResponse cached = responseCache.get(cacheKey);
+        HyniMetricsRecorder recorder = metricsRecorder;
+        if (recorder != null) {
+            recorder.recordCacheMetrics(cached != null);
+        }
+        if (cached == null) {
+            return null;
+        }
+
+        return cached.toBuilder()
+            .usage(cached.getUsage() != null ? cached.getUsage().deepCopy() : null)
+            .rawResponse(cached.getRawResponse() != null ? cached.getRawResponse().deepCopy() : null)
+            .duration(System.currentTimeMillis() - startTime)
+            .cached(true)
+            .build();
+    }
+
+    private void storeInCache(String cacheKey, ChatResponse response) {
+        if (cacheKey != null) {
+            responseCache.put(cacheKey, response);
+        }
+    }
+
+    /**
+     * Waits for the provider's rate limit, then for a bulkhead permit, without holding a thread.
+     * The returned bulkhead must be released once the call completes.
+     */
+    private CompletableFuture<Bulkhead> admit(String provider, GeneralContext context) {
+        Bulkhead bulkhead = getBulkhead(provider);
+        return awaitRateLimit(provider, context)
+            .thenCompose(ignored -> bulkhead.acquire())
+            .thenApply(ignored -> bulkhead);
+    }
+
+    private CompletableFuture<Void> awaitRateLimit(String provider, GeneralContext context) {
+        long waitNanos;
+        try {
+            waitNanos = reserveRateLimit(provider, context);
+        } catch (RateLimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+            CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, executor));
+    }
+
+    /**
+     * Reserves the request's tokens with the provider's rate limiter
+     * @return The nanoseconds to wait before sending
+     * @throws RateLimitExceededException If the wait would exceed the configured maximum
+     */
+    private long reserveRateLimit(String provider, GeneralContext context) {
+        HyniProperties.RateLimitConfig config = properties.getRateLimit();
+        if (!config.isEnabled()) {
+            return 0;
+        }
+
+        RateLimiter limiter = rateLimiters.get(provider, resolveProviderApiKey(provider), context.getCompiledSchema());
+        if (limiter.isUnlimited()) {
+            return 0;
+        }
+
+        long waitNanos = limiter.reserve(estimateTokens(context), TimeUnit.MILLISECONDS.toNanos(config.getMaxWait()));
+        if (waitNanos < 0) {
+            throw new RateLimitExceededException("Rate limit exceeded for provider: " + provider);
+        }
+        if (waitNanos > 0) {
+            logger.debug("Delaying request to provider {} by {} ms for its rate limit", provider,
+                TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Estimates the tokens a request counts against the provider's quota: the context's
+     * input token estimate plus the tokens it reserves for the completion
+     */
+    private static long estimateTokens(GeneralContext context) {
+        return context.estimateInputTokens() + context.getReservedOutputTokens();
+    }
+
+    private Bulkhead getBulkhead(String provider) {
+        return bulkheads.computeIfAbsent(provider, name -> {
+            HyniProperties.ExecutionConfig execution = properties.getExecution();
+            HyniProperties.ProviderConfig providerConfig = properties.getProviders().get(name);
+            int maxConcurrent = providerConfig != null && providerConfig.getMaxConcurrentRequests() != null
+                ? providerConfig.getMaxConcurrentRequests()
+                : execution.getMaxConcurrentRequests();
+            return new Bulkhead(name, maxConcurrent, execution.getMaxQueuedRequests());
+        });
     }
 
-    private String extractModelFromResponse(JsonNode response, String provider) {
-        // Try to extract model from response based on provider
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof UncheckedIOException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private byte[] serializeRequest(GeneralContext context, boolean streaming) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        context.writeRequest(out, streaming);
+        return out.toByteArray();
+    }
+
+    private TransportRequest buildTransportRequest(String provider, GeneralContext context,
+                                                   byte[] body, String accept) {
+        return TransportRequest.builder()
+            .uri(resolveEndpoint(provider, context))
+            .headers(context.getHeaderBundle())
+            .accept(accept)
+            .timeout(resolveTimeout(context))
+            .body(out -> out.write(body))
+            .build();
+    }
+
+    private Duration resolveTimeout(GeneralContext context) {
+        // The schema's api.timeout is specific to the provider; fall back to the global default
+        CompiledSchema schema = context.getCompiledSchema();
+        if (schema != null && schema.getTimeoutMillis() > 0) {
+            return Duration.ofMillis(schema.getTimeoutMillis());
+        }
+        return Duration.ofMillis(properties.getDefaults().getTimeout());
+    }
+
+    private ChatResponse toChatResponse(String provider, ChatRequest request, GeneralContext context,
+                                        TransportResponse response, long duration) throws IOException {
+        if (!response.isSuccessful()) {
+            throw providerError(provider, context, response);
+        }
+
+        ChatResponse.Builder builder = ChatResponse.builder()
+            .provider(provider)
+            .duration(duration);
+        String actualModel;
+
+        if (properties.getResponse().isRetainRaw()) {
+            JsonNode body = objectMapper.readTree(response.getBody());
+
+            // Extract response
+            builder.text(context.extractTextResponse(body))
+                .usage(context.extractUsage(body))
+                .stopReason(context.extractStopReason(body))
+                .rawResponse(body);
+
+            // Get the actual model used
+            actualModel = extractModelFromResponse(body, context);
+        } else {
+            // Read only the schema's response paths, skipping the rest of the body
+            ResponseExtractor.Result extracted = context.extractResponse(response.getBody());
+            builder.text(extracted.getText())
+                .usage(extracted.getUsage())
+                .stopReason(extracted.getStopReason());
+            actualModel = extracted.getModel();
+        }
+
+        if (actualModel == null) {
+            actualModel = request.getModel() != null ? request.getModel() : getDefaultModel(provider);
+        }
+        return builder.model(actualModel).build();
+    }
+
+    private ProviderException providerError(String provider, GeneralContext context, TransportResponse response) {
+        int status = response.getStatusCode();
+        CompiledSchema schema = context.getCompiledSchema();
+        String errorType = schema != null ? schema.getErrorCode(status) : null;
+        String errorMessage = null;
+        try {
+            JsonNode body = objectMapper.readTree(response.getBody());
+            if (body != null && !body.isMissingNode()) {
+                String bodyType = context.extractErrorType(body);
+                if (bodyType != null && !bodyType.isEmpty()) {
+                    errorType = bodyType;
+                }
+                errorMessage = context.extractError(body);
+            }
+        } catch (IOException e) {
+            logger.debug("Error response from provider {} is not JSON", provider);
+        }
+
+        StringBuilder message = new StringBuilder("Provider ").append(provider)
+            .append(" returned HTTP ").append(status);
+        if (errorType != null) {
+            message.append(" (").append(errorType).append(')');
+        }
+        if (errorMessage != null) {
+            message.append(": ").append(errorMessage);
+        }
+        return new ProviderException(message.toString(), status, errorType);
+    }
+
+    private String resolveEndpoint(String provider, GeneralContext context) {
+        HyniProperties.ProviderConfig providerConfig = properties.getProviders().get(provider);
+        if (providerConfig != null && providerConfig.getEndpoint() != null && !providerConfig.getEndpoint().isEmpty()) {
+            return providerConfig.getEndpoint();
+        }
+        return context.getEndpoint();
+    }
+
+    private record OpenStream(InputStream body, Bulkhead bulkhead) {
+    }
+
+    private static boolean isDoneMarker(byte[] data, int offset, int length) {
+        return Arrays.equals(data, offset, offset + length, DONE_MARKER, 0, DONE_MARKER.length);
+    }
+
+    /**
+     * Gets the headers of a provider's current key, rendering them once per key and schema;
+     * a rotated key or reloaded schema replaces the provider's bundle
+     */
+    private HeaderBundle headersFor(String provider, CompiledSchema schema, String apiKey) {
+        ProviderHeaders current = providerHeaders.get(provider);
+        if (current == null || current.schema() != schema || !current.apiKey().equals(apiKey)) {
+            current = new ProviderHeaders(apiKey, schema, schema.getHeaderBundle(apiKey));
+            providerHeaders.put(provider, current);
+        }
+        return current.headers();
+    }
+
+    private record ProviderHeaders(String apiKey, CompiledSchema schema, HeaderBundle headers) {
+    }
+
+    private String resolveProviderApiKey(String provider) {
+        String apiKey = providerApiKeys.get(provider);
+        if (apiKey == null) {
+            // Try to get from properties
+            HyniProperties.ProviderConfig providerConfig = properties.getProviders().get(provider);
+            if (providerConfig != null) {
+                apiKey = providerConfig.resolveApiKey();
+            }
+        }
+        return apiKey;
+    }
+
+    private String extractModelFromResponse(JsonNode response, GeneralContext context) {
+        // Use the schema's model_path, falling back to a top-level model field
+        String model = context.extractModel(response);
+        if (model != null) {
+            return model;
+        }
         if (response != null && response.has("model")) {
             return response.get("model").asText();
         }
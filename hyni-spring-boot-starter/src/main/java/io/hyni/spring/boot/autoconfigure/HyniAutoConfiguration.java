@@ -4,12 +4,19 @@ import io.hyni.core.ContextConfig;
 import io.hyni.core.ContextFactory;
 import io.hyni.core.SchemaRegistry;
 import io.hyni.spring.boot.HyniTemplate;
+import io.hyni.spring.boot.crac.HyniCracResource;
+import io.hyni.spring.boot.execution.HyniExecutors;
 import io.hyni.spring.boot.interceptor.LoggingInterceptor;
 import io.hyni.spring.boot.metrics.HyniMetricsRecorder;
+import io.hyni.spring.boot.transport.HyniTransport;
+import io.hyni.spring.boot.transport.RestTemplateTransport;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -17,8 +24,11 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 @AutoConfiguration
 @ConditionalOnClass({ContextFactory.class, SchemaRegistry.class})
@@ -39,6 +49,7 @@ public class HyniAutoConfiguration {
         // Just use the existing SchemaRegistry without the non-existent method
         return SchemaRegistry.create()
             .setSchemaDirectory(properties.getSchemaDirectory())
+            .watchForChanges(properties.isWatchSchemas())
             .build();
     }
 
@@ -61,22 +72,62 @@ public class HyniAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public ContextFactory contextFactory(SchemaRegistry schemaRegistry) {
+    public ContextFactory contextFactory(SchemaRegistry schemaRegistry, HyniProperties properties) {
         logger.info("Creating ContextFactory");
         // Use the constructor that takes only SchemaRegistry
-        return new ContextFactory(schemaRegistry);
+        ContextFactory factory = new ContextFactory(schemaRegistry);
+
+        HyniProperties.PoolConfig pool = properties.getPool();
+        factory.setMaxPooledContexts(pool.getMaxIdlePerProvider());
+        factory.setLeakDetection(pool.getLeakDetection());
+        properties.getProviders().forEach((provider, config) -> {
+            if (config.getMaxPooledContexts() != null) {
+                factory.setMaxPooledContexts(provider, config.getMaxPooledContexts());
+            }
+        });
+
+        return factory;
+    }
+
+    @Bean(name = "hyniExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "hyniExecutor")
+    public ExecutorService hyniExecutor(HyniProperties properties) {
+        logger.info("Creating {} executor", properties.getExecution().getMode());
+        return HyniExecutors.create(properties.getExecution());
+    }
+
+    @Bean(name = "hyniDeliveryExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "hyniDeliveryExecutor")
+    public ExecutorService hyniDeliveryExecutor() {
+        return HyniExecutors.deliveryPool();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HyniTransport hyniTransport(HyniProperties properties, @Qualifier("hyniExecutor") Executor hyniExecutor) {
+        logger.info("Creating {} transport", properties.getTransport().getType());
+
+        if (properties.getTransport().getType() == HyniProperties.TransportConfig.Type.REST_TEMPLATE) {
+            return new RestTemplateTransport(new RestTemplate(), hyniExecutor);
+        }
+        return HyniTemplate.createDefaultTransport(properties, hyniExecutor);
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public HyniTemplate hyniTemplate(ContextFactory contextFactory, HyniProperties properties) {
+    public HyniTemplate hyniTemplate(ContextFactory contextFactory, HyniProperties properties,
+                                     HyniTransport hyniTransport, @Qualifier("hyniExecutor") Executor hyniExecutor,
+                                     @Qualifier("hyniDeliveryExecutor") Executor hyniDeliveryExecutor,
+                                     ObjectProvider<HyniMetricsRecorder> metricsRecorder) {
         logger.info("Creating HyniTemplate with default provider: {}", properties.getDefaultProvider());
 
-        HyniTemplate template = new HyniTemplate(contextFactory, properties);
+        HyniTemplate template =
+            new HyniTemplate(contextFactory, properties, hyniTransport, hyniExecutor, hyniDeliveryExecutor);
+        template.setMetricsRecorder(metricsRecorder.getIfAvailable());
 
         // Configure providers with API keys
         properties.getProviders().forEach((provider, config) -> {
-            String apiKey = resolveApiKey(config);
+            String apiKey = config.resolveApiKey();
             if (apiKey != null) {
                 template.configureProvider(provider, apiKey);
             }
@@ -103,20 +154,27 @@ public class HyniAutoConfiguration {
         return null;
     }
 
-    private String resolveApiKey(HyniProperties.ProviderConfig config) {
-        // First check direct API key
-        if (config.getApiKey() != null && !config.getApiKey().isEmpty()) {
-            return config.getApiKey();
-        }
+    /**
+     * Warms up all providers once every singleton exists, so before the application serves
+     * requests and before a checkpoint is taken after refresh
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hyni", name = "warmup", havingValue = "true")
+    public SmartInitializingSingleton hyniWarmup(ContextFactory contextFactory,
+                                                 @Qualifier("hyniExecutor") Executor hyniExecutor) {
+        return () -> contextFactory.warmUp(hyniExecutor);
+    }
 
-        // Then check environment variable
-        if (config.getApiKeyEnvVar() != null && !config.getApiKeyEnvVar().isEmpty()) {
-            String apiKey = System.getenv(config.getApiKeyEnvVar());
-            if (apiKey != null && !apiKey.isEmpty()) {
-                return apiKey;
-            }
-        }
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.crac.Resource")
+    static class CracConfiguration {
 
-        return null;
+        @Bean
+        @ConditionalOnMissingBean
+        public HyniCracResource hyniCracResource(SchemaRegistry schemaRegistry, HyniTransport hyniTransport,
+                                                 HyniTemplate hyniTemplate, HyniProperties properties) {
+            return new HyniCracResource(schemaRegistry, hyniTransport, hyniTemplate, properties)
+                .register();
+        }
     }
 }
@@ -1,5 +1,6 @@
 package io.hyni.spring.boot.autoconfigure;
 
+import io.hyni.core.ContextFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.HashMap;
@@ -23,6 +24,16 @@ public class HyniProperties {
      */
     private String schemaDirectory = "schemas";
 
+    /**
+     * Watch the schema directory and apply schema edits without a restart
+     */
+    private boolean watchSchemas = false;
+
+    /**
+     * Load all schemas in parallel at startup and run each provider through a request once
+     */
+    private boolean warmup = false;
+
     /**
      * Enable request/response logging
      */
@@ -53,6 +64,36 @@ public class HyniProperties {
      */
     private CacheConfig cache = new CacheConfig();
 
+    /**
+     * Response handling configuration
+     */
+    private ResponseConfig response = new ResponseConfig();
+
+    /**
+     * Context pooling configuration
+     */
+    private PoolConfig pool = new PoolConfig();
+
+    /**
+     * HTTP transport configuration
+     */
+    private TransportConfig transport = new TransportConfig();
+
+    /**
+     * Execution and concurrency configuration
+     */
+    private ExecutionConfig execution = new ExecutionConfig();
+
+    /**
+     * Client-side rate limiting configuration
+     */
+    private RateLimitConfig rateLimit = new RateLimitConfig();
+
+    /**
+     * Retry configuration
+     */
+    private RetryConfig retry = new RetryConfig();
+
     // Getters and setters
     public boolean isEnabled() {
         return enabled;
@@ -78,6 +119,22 @@ public class HyniProperties {
         this.schemaDirectory = schemaDirectory;
     }
 
+    public boolean isWatchSchemas() {
+        return watchSchemas;
+    }
+
+    public void setWatchSchemas(boolean watchSchemas) {
+        this.watchSchemas = watchSchemas;
+    }
+
+    public boolean isWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(boolean warmup) {
+        this.warmup = warmup;
+    }
+
     public boolean isLoggingEnabled() {
         return loggingEnabled;
     }
@@ -126,6 +183,54 @@ public class HyniProperties {
         this.cache = cache;
     }
 
+    public ResponseConfig getResponse() {
+        return response;
+    }
+
+    public void setResponse(ResponseConfig response) {
+        this.response = response;
+    }
+
+    public PoolConfig getPool() {
+        return pool;
+    }
+
+    public void setPool(PoolConfig pool) {
+        this.pool = pool;
+    }
+
+    public TransportConfig getTransport() {
+        return transport;
+    }
+
+    public void setTransport(TransportConfig transport) {
+        this.transport = transport;
+    }
+
+    public ExecutionConfig getExecution() {
+        return execution;
+    }
+
+    public void setExecution(ExecutionConfig execution) {
+        this.execution = execution;
+    }
+
+    public RateLimitConfig getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimitConfig rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public RetryConfig getRetry() {
+        return retry;
+    }
+
+    public void setRetry(RetryConfig retry) {
+        this.retry = retry;
+    }
+
     public static class DefaultConfig {
         private Integer maxTokens;
         private Double temperature;
@@ -171,6 +276,10 @@ public class HyniProperties {
         private String apiKeyEnvVar;
         private String endpoint;
         private String model;
+        private Integer maxConcurrentRequests;
+        private Integer requestsPerMinute;
+        private Integer tokensPerMinute;
+        private Integer maxPooledContexts; // Defaults to pool.max-idle-per-provider
         private Map<String, Object> parameters = new HashMap<>();
 
         // Getters and setters
@@ -206,6 +315,38 @@ public class HyniProperties {
             this.model = model;
         }
 
+        public Integer getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public Integer getRequestsPerMinute() {
+            return requestsPerMinute;
+        }
+
+        public void setRequestsPerMinute(Integer requestsPerMinute) {
+            this.requestsPerMinute = requestsPerMinute;
+        }
+
+        public Integer getTokensPerMinute() {
+            return tokensPerMinute;
+        }
+
+        public void setTokensPerMinute(Integer tokensPerMinute) {
+            this.tokensPerMinute = tokensPerMinute;
+        }
+
+        public Integer getMaxPooledContexts() {
+            return maxPooledContexts;
+        }
+
+        public void setMaxPooledContexts(Integer maxPooledContexts) {
+            this.maxPooledContexts = maxPooledContexts;
+        }
+
         public Map<String, Object> getParameters() {
             return parameters;
         }
@@ -213,6 +354,69 @@ public class HyniProperties {
         public void setParameters(Map<String, Object> parameters) {
             this.parameters = parameters;
         }
+
+        /**
+         * Resolves the API key, from the configured key or else from the environment variable
+         * @return The API key, or null if neither is set
+         */
+        public String resolveApiKey() {
+            if (apiKey != null && !apiKey.isEmpty()) {
+                return apiKey;
+            }
+            if (apiKeyEnvVar != null && !apiKeyEnvVar.isEmpty()) {
+                String value = System.getenv(apiKeyEnvVar);
+                if (value != null && !value.isEmpty()) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class ResponseConfig {
+        // Keep the parsed response as ChatResponse.rawResponse; when false, only the
+        // schema's response paths are read and the rest of the body is skipped
+        private boolean retainRaw = true;
+
+        // Getters and setters
+        public boolean isRetainRaw() {
+            return retainRaw;
+        }
+
+        public void setRetainRaw(boolean retainRaw) {
+            this.retainRaw = retainRaw;
+        }
+    }
+
+    public static class PoolConfig {
+        private boolean enabled = true;
+        private int maxIdlePerProvider = ContextFactory.DEFAULT_MAX_POOLED_CONTEXTS;
+        private ContextFactory.LeakDetection leakDetection = ContextFactory.LeakDetection.SIMPLE;
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxIdlePerProvider() {
+            return maxIdlePerProvider;
+        }
+
+        public void setMaxIdlePerProvider(int maxIdlePerProvider) {
+            this.maxIdlePerProvider = maxIdlePerProvider;
+        }
+
+        public ContextFactory.LeakDetection getLeakDetection() {
+            return leakDetection;
+        }
+
+        public void setLeakDetection(ContextFactory.LeakDetection leakDetection) {
+            this.leakDetection = leakDetection;
+        }
     }
 
     public static class CacheConfig {
@@ -245,4 +449,160 @@ public class HyniProperties {
             this.ttlMinutes = ttlMinutes;
         }
     }
+
+    public static class TransportConfig {
+
+        /**
+         * HTTP client used to reach providers
+         */
+        public enum Type {
+            /** Non-blocking java.net.http client with HTTP/2 */
+            HTTP_CLIENT,
+            /** Blocking RestTemplate, for compatibility with existing interceptors */
+            REST_TEMPLATE
+        }
+
+        private Type type = Type.HTTP_CLIENT;
+        private int connectTimeout = 10000; // 10 seconds default
+
+        // Getters and setters
+        public Type getType() {
+            return type;
+        }
+
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+    }
+
+    public static class ExecutionConfig {
+
+        /**
+         * Threads used for blocking work such as reading streamed responses.
+         * Define an Executor bean named "hyniExecutor" to supply your own instead.
+         */
+        public enum Mode {
+            /** A virtual thread per task on Java 21+, a cached daemon pool on older runtimes */
+            VIRTUAL,
+            /** A fixed-size pool of platform threads */
+            PLATFORM
+        }
+
+        private Mode mode = Mode.VIRTUAL;
+        private int poolSize = 64;
+        private int maxConcurrentRequests = 256; // Per provider
+        private int maxQueuedRequests = 1024; // Per provider
+
+        // Getters and setters
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public int getMaxQueuedRequests() {
+            return maxQueuedRequests;
+        }
+
+        public void setMaxQueuedRequests(int maxQueuedRequests) {
+            this.maxQueuedRequests = maxQueuedRequests;
+        }
+    }
+
+    public static class RateLimitConfig {
+        private boolean enabled = true;
+        private long maxWait = 30000; // Milliseconds; 0 fails fast instead of waiting
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(long maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    public static class RetryConfig {
+        private boolean enabled = true;
+        private Integer maxRetries; // Defaults to the schema's api.max_retries
+        private long initialDelay = 500; // Milliseconds
+        private long maxDelay = 30000; // Milliseconds
+        private long deadline = 120000; // Milliseconds for all attempts; 0 for none
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Integer getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(Integer maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public long getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(long initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public long getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(long maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(long deadline) {
+            this.deadline = deadline;
+        }
+    }
 }
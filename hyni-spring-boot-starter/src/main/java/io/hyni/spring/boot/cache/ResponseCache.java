@@ -0,0 +1,121 @@
+package io.hyni.spring.boot.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.hyni.spring.boot.model.ChatRequest;
+import io.hyni.spring.boot.model.ChatResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Size-bounded LRU cache of chat responses with a time-to-live
+ *
+ * Keys are SHA-256 hashes of a canonical encoding of the provider, model, system message,
+ * messages and parameters, so requests that differ only in parameter order share an entry.
+ * Thread-safe.
+ */
+public class ResponseCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+    private final ObjectMapper canonicalMapper = new ObjectMapper()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+        .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    /**
+     * @param maxSize Maximum number of cached responses, must be positive
+     * @param ttl Time-to-live of a cached response; zero or negative disables expiry
+     */
+    public ResponseCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.isNegative() || ttl.isZero() ? 0 : ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Computes the cache key of a request
+     * @param provider The provider name
+     * @param model The model the request will use
+     * @param request The request
+     * @param parameters The effective parameters, including provider defaults
+     * @return The hex-encoded key
+     */
+    public String key(String provider, String model, ChatRequest request, Map<String, Object> parameters) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest);
+             JsonGenerator gen = canonicalMapper.getFactory().createGenerator(out)) {
+            gen.writeStartArray();
+            gen.writeString(provider);
+            gen.writeString(model);
+            gen.writeString(request.getSystemMessage());
+            gen.writeStartArray();
+            for (ChatRequest.Message message : request.getMessages()) {
+                gen.writeString(message.getRole());
+                gen.writeString(message.getContent());
+            }
+            gen.writeEndArray();
+            canonicalMapper.writeValue(gen, new TreeMap<>(parameters));
+            gen.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compute cache key", e);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return The cached response, or null if absent or expired
+     */
+    public synchronized ChatResponse get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entry.storedAt >= ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.response;
+    }
+
+    public synchronized void put(String key, ChatResponse response) {
+        entries.put(key, new Entry(response, System.nanoTime()));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(ChatResponse response, long storedAt) {
+    }
+}
@@ -0,0 +1,75 @@
+package io.hyni.spring.boot.crac;
+
+import io.hyni.core.SchemaRegistry;
+import io.hyni.spring.boot.HyniTemplate;
+import io.hyni.spring.boot.autoconfigure.HyniProperties;
+import io.hyni.spring.boot.transport.HyniTransport;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prepares Hyni for a CRaC checkpoint and brings it back up after restore
+ *
+ * Compiled schemas, pooled contexts and loaded classes are kept in the checkpoint, so a
+ * restored process starts warm. What cannot or should not be carried over is released
+ * before the checkpoint: the schema watcher's file handles, cached responses and, as far
+ * as the transport can release them, its connections; see
+ * {@link HyniTransport#resetConnections()}. After restore, schema files changed in the
+ * meantime are reloaded and API keys are resolved again, so keys read from the
+ * environment are those of the restored process rather than of the one that was
+ * checkpointed.
+ *
+ * Outside a CRaC-enabled JVM the hooks are never called.
+ */
+public class HyniCracResource implements Resource {
+
+    private static final Logger logger = LoggerFactory.getLogger(HyniCracResource.class);
+
+    private final SchemaRegistry schemaRegistry;
+    private final HyniTransport transport;
+    private final HyniTemplate template;
+    private final HyniProperties properties;
+
+    public HyniCracResource(SchemaRegistry schemaRegistry, HyniTransport transport, HyniTemplate template,
+                            HyniProperties properties) {
+        this.schemaRegistry = schemaRegistry;
+        this.transport = transport;
+        this.template = template;
+        this.properties = properties;
+    }
+
+    /**
+     * Registers the resource with the global CRaC context, which only holds it weakly:
+     * the caller must keep a reference to it, as the application context does for beans
+     * @return This resource
+     */
+    public HyniCracResource register() {
+        Core.getGlobalContext().register(this);
+        return this;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        logger.info("Preparing Hyni for checkpoint");
+        schemaRegistry.suspendWatching();
+        transport.resetConnections();
+        template.clearResponseCache();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        logger.info("Restoring Hyni after checkpoint");
+        schemaRegistry.resumeWatching();
+        schemaRegistry.refresh();
+
+        properties.getProviders().forEach((provider, config) -> {
+            String apiKey = config.resolveApiKey();
+            if (apiKey != null) {
+                template.configureProvider(provider, apiKey);
+            }
+        });
+    }
+}
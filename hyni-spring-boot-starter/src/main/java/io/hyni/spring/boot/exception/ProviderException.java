@@ -0,0 +1,27 @@
+package io.hyni.spring.boot.exception;
+
+/**
+ * Thrown when a provider answers with an error status
+ */
+public class ProviderException extends HyniException {
+
+    private final int statusCode;
+    private final String errorType;
+
+    public ProviderException(String message, int statusCode, String errorType) {
+        super(message);
+        this.statusCode = statusCode;
+        this.errorType = errorType;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return The provider's error type, such as rate_limit_error, or null if unknown
+     */
+    public String getErrorType() {
+        return errorType;
+    }
+}
@@ -0,0 +1,11 @@
+package io.hyni.spring.boot.exception;
+
+/**
+ * Thrown when a request would exceed a provider's rate limit for longer than allowed
+ */
+public class RateLimitExceededException extends HyniException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
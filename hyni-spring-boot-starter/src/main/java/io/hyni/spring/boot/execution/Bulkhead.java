@@ -0,0 +1,90 @@
+package io.hyni.spring.boot.execution;
+
+import io.hyni.spring.boot.exception.HyniException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Limits the number of concurrent requests to one provider
+ *
+ * Permits are handed out as futures, so asynchronous callers queue without holding a
+ * thread. A released permit is passed directly to the oldest waiter. Callers beyond the
+ * queue limit are rejected with a {@link HyniException}.
+ * Thread-safe.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int active;
+
+    /**
+     * @param name Name used in error messages, usually the provider
+     * @param maxConcurrent Maximum number of permits held at once, must be positive
+     * @param maxQueued Maximum number of callers waiting for a permit
+     */
+    public Bulkhead(String name, int maxConcurrent, int maxQueued) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("Max queued requests cannot be negative");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Requests a permit. Every successfully completed future must be matched by one
+     * call to {@link #release()}.
+     * @return A future completed once the permit is granted, or failed if the queue is full
+     */
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (active < maxConcurrent) {
+                active++;
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiters.size() >= maxQueued) {
+                return CompletableFuture.failedFuture(
+                    new HyniException("Too many concurrent requests for provider: " + name));
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Returns a permit, handing it to the next waiter if there is one
+     */
+    public void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            // A waiter cancelled by its caller cannot take the permit; try the next one
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    public synchronized int getQueuedCount() {
+        return waiters.size();
+    }
+}
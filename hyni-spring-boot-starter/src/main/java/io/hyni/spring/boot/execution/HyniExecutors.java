@@ -0,0 +1,80 @@
+package io.hyni.spring.boot.execution;
+
+import io.hyni.spring.boot.autoconfigure.HyniProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors that run Hyni's blocking work, such as reading streamed responses
+ * and blocking transports, away from the common fork-join pool
+ */
+public final class HyniExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(HyniExecutors.class);
+
+    private HyniExecutors() {
+    }
+
+    /**
+     * Create the executor described by the execution configuration
+     */
+    public static ExecutorService create(HyniProperties.ExecutionConfig config) {
+        if (config.getMode() == HyniProperties.ExecutionConfig.Mode.PLATFORM) {
+            return boundedPool(config.getPoolSize());
+        }
+        return virtualThreadPerTask();
+    }
+
+    /**
+     * Create an executor that starts a virtual thread per task
+     *
+     * Virtual threads are only available on Java 21 and later. On older runtimes an
+     * unbounded pool of daemon platform threads is used instead; combine it with the
+     * per-provider bulkheads to bound concurrency.
+     */
+    public static ExecutorService virtualThreadPerTask() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not available on Java {}, using a cached thread pool",
+                Runtime.version().feature());
+            return Executors.newCachedThreadPool(daemonThreadFactory("hyni-worker-"));
+        }
+    }
+
+    /**
+     * Create a fixed-size pool of daemon platform threads
+     * @param size Number of threads, must be positive
+     */
+    public static ExecutorService boundedPool(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        return Executors.newFixedThreadPool(size, daemonThreadFactory("hyni-worker-"));
+    }
+
+    /**
+     * Create an unbounded pool of daemon platform threads for short tasks that must not wait
+     * for a thread of the executor running the work they serve, such as delivering streamed
+     * items to subscribers. Idle threads are discarded after a minute.
+     */
+    public static ExecutorService deliveryPool() {
+        return Executors.newCachedThreadPool(daemonThreadFactory("hyni-delivery-"));
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
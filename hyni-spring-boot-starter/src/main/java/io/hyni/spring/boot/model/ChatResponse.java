@@ -7,33 +7,57 @@ public class ChatResponse {
     private final String text;
     private final String model;
     private final long duration;
+    private final JsonNode usage;
+    private final String stopReason;
     private final JsonNode rawResponse;
+    private final boolean cached;
 
     private ChatResponse(Builder builder) {
         this.provider = builder.provider;
         this.text = builder.text;
         this.model = builder.model;
         this.duration = builder.duration;
+        this.usage = builder.usage;
+        this.stopReason = builder.stopReason;
         this.rawResponse = builder.rawResponse;
+        this.cached = builder.cached;
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
+    public Builder toBuilder() {
+        return new Builder()
+            .provider(provider)
+            .text(text)
+            .model(model)
+            .duration(duration)
+            .usage(usage)
+            .stopReason(stopReason)
+            .rawResponse(rawResponse)
+            .cached(cached);
+    }
+
     // Getters
     public String getProvider() { return provider; }
     public String getText() { return text; }
     public String getModel() { return model; }
     public long getDuration() { return duration; }
+    public JsonNode getUsage() { return usage; }
+    public String getStopReason() { return stopReason; }
     public JsonNode getRawResponse() { return rawResponse; }
+    public boolean isCached() { return cached; }
 
     public static class Builder {
         private String provider;
         private String text;
         private String model;
         private long duration;
+        private JsonNode usage;
+        private String stopReason;
         private JsonNode rawResponse;
+        private boolean cached;
 
         public Builder provider(String provider) {
             this.provider = provider;
@@ -55,11 +79,26 @@ public class ChatResponse {
             return this;
         }
 
+        public Builder usage(JsonNode usage) {
+            this.usage = usage;
+            return this;
+        }
+
+        public Builder stopReason(String stopReason) {
+            this.stopReason = stopReason;
+            return this;
+        }
+
         public Builder rawResponse(JsonNode rawResponse) {
             this.rawResponse = rawResponse;
             return this;
         }
 
+        public Builder cached(boolean cached) {
+            this.cached = cached;
+            return this;
+        }
+
         public ChatResponse build() {
             return new ChatResponse(this);
         }
@@ -0,0 +1,102 @@
+package io.hyni.spring.boot.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free limiter for a provider's requests-per-minute and tokens-per-minute quotas
+ *
+ * Each quota is a token bucket holding up to one minute of capacity and refilling
+ * continuously. A bucket is stored as a single "theoretical arrival time" (the generic
+ * cell rate algorithm), so reserving capacity is one compare-and-set with no locks and no
+ * background refill task. Reservations are made up front: a caller that is told to wait
+ * has already been granted its share and must not reserve again.
+ * Thread-safe.
+ */
+public class RateLimiter {
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Bucket requests;
+    private final Bucket tokens;
+
+    /**
+     * @param requestsPerMinute Request quota; zero or negative for no limit
+     * @param tokensPerMinute Token quota; zero or negative for no limit
+     */
+    public RateLimiter(long requestsPerMinute, long tokensPerMinute) {
+        long now = System.nanoTime();
+        this.requests = requestsPerMinute > 0 ? new Bucket(requestsPerMinute, now) : null;
+        this.tokens = tokensPerMinute > 0 ? new Bucket(tokensPerMinute, now) : null;
+    }
+
+    /**
+     * @return True if neither quota is limited
+     */
+    public boolean isUnlimited() {
+        return requests == null && tokens == null;
+    }
+
+    /**
+     * Reserves one request costing the given number of tokens
+     * @param tokenCost Estimated tokens of the request
+     * @param maxWaitNanos Longest acceptable wait; zero to only succeed immediately
+     * @return Nanoseconds to wait before sending, or -1 if the wait would exceed the maximum,
+     *         in which case nothing was reserved
+     */
+    public long reserve(long tokenCost, long maxWaitNanos) {
+        return reserve(tokenCost, maxWaitNanos, System.nanoTime());
+    }
+
+    long reserve(long tokenCost, long maxWaitNanos, long now) {
+        long requestWait = 0;
+        if (requests != null) {
+            requestWait = requests.reserve(1, maxWaitNanos, now);
+            if (requestWait < 0) {
+                return -1;
+            }
+        }
+
+        if (tokens != null && tokenCost > 0) {
+            long tokenWait = tokens.reserve(tokenCost, maxWaitNanos, now);
+            if (tokenWait < 0) {
+                if (requests != null) {
+                    requests.refund(1);
+                }
+                return -1;
+            }
+            return Math.max(requestWait, tokenWait);
+        }
+        return requestWait;
+    }
+
+    private static final class Bucket {
+        private final double nanosPerUnit;
+        private final AtomicLong theoreticalArrival;
+
+        private Bucket(long perMinute, long now) {
+            this.nanosPerUnit = (double) MINUTE_NANOS / perMinute;
+            // Start with a full bucket
+            this.theoreticalArrival = new AtomicLong(now - MINUTE_NANOS);
+        }
+
+        private long reserve(long cost, long maxWaitNanos, long now) {
+            long increment = (long) Math.ceil(cost * nanosPerUnit);
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long next = (arrival - now > 0 ? arrival : now) + increment;
+                long wait = Math.max(0, next - now - MINUTE_NANOS);
+                if (wait > maxWaitNanos) {
+                    return -1;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return wait;
+                }
+            }
+        }
+
+        private void refund(long cost) {
+            theoreticalArrival.addAndGet(-(long) Math.ceil(cost * nanosPerUnit));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.hyni.spring.boot.ratelimit;
+
+import io.hyni.core.CompiledSchema;
+import io.hyni.spring.boot.autoconfigure.HyniProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one shared rate limiter per provider and API key
+ *
+ * Quotas come from the schema's limits.rate_limits, overridden by the provider's
+ * requests-per-minute and tokens-per-minute properties.
+ */
+public class RateLimiterRegistry {
+
+    private final HyniProperties properties;
+    private final Map<Key, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimiterRegistry(HyniProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Gets the limiter for a provider and API key, creating it on first use
+     */
+    public RateLimiter get(String provider, String apiKey, CompiledSchema schema) {
+        return limiters.computeIfAbsent(new Key(provider, apiKey), key -> {
+            HyniProperties.ProviderConfig config = properties.getProviders().get(provider);
+
+            long requestsPerMinute = schema != null ? schema.getRequestsPerMinute() : 0;
+            long tokensPerMinute = schema != null ? schema.getTokensPerMinute() : 0;
+            if (config != null && config.getRequestsPerMinute() != null) {
+                requestsPerMinute = config.getRequestsPerMinute();
+            }
+            if (config != null && config.getTokensPerMinute() != null) {
+                tokensPerMinute = config.getTokensPerMinute();
+            }
+
+            return new RateLimiter(requestsPerMinute, tokensPerMinute);
+        });
+    }
+
+    /**
+     * Forgets all limiters, for example after quotas were reconfigured
+     */
+    public void clear() {
+        limiters.clear();
+    }
+
+    private record Key(String provider, String apiKey) {
+    }
+}
@@ -0,0 +1,124 @@
+package io.hyni.spring.boot.retry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.CompiledSchema;
+import io.hyni.core.GeneralContext;
+import io.hyni.spring.boot.transport.TransportException;
+import io.hyni.spring.boot.transport.TransportResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+
+/**
+ * Decides which failed provider calls are worth retrying
+ *
+ * Error responses are classified by the error type in the body, falling back to the type the
+ * schema's error_codes map assigns to the HTTP status. Only rate limiting, overload and
+ * server-side errors are transient; request, authentication and permission errors are not.
+ * Network failures and timeouts are always transient.
+ */
+public class RetryClassifier {
+
+    private static final Set<String> TRANSIENT_ERROR_TYPES = Set.of(
+        "rate_limit_error",
+        "overloaded_error",
+        "api_error",
+        "server_error",
+        "bad_gateway",
+        "service_unavailable",
+        "service_unavailable_error",
+        "gateway_timeout",
+        "timeout_error"
+    );
+
+    private final GeneralContext context;
+    private final ObjectMapper objectMapper;
+
+    public RetryClassifier(GeneralContext context, ObjectMapper objectMapper) {
+        this.context = context;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param error The failure of an attempt
+     * @return True if another attempt may succeed
+     */
+    public boolean isRetryable(Throwable error) {
+        if (error instanceof TransportException transportError) {
+            return isRetryable(transportError.getResponse());
+        }
+        return error instanceof IOException;
+    }
+
+    /**
+     * @param response An error response
+     * @return True if another attempt may succeed
+     */
+    public boolean isRetryable(TransportResponse response) {
+        String errorType = errorType(response);
+        if (errorType != null) {
+            return TRANSIENT_ERROR_TYPES.contains(errorType);
+        }
+        int status = response.getStatusCode();
+        return status == 408 || status == 429 || status >= 500;
+    }
+
+    /**
+     * Reads the delay the provider asked for in a Retry-After (seconds or HTTP date) or
+     * retry-after-ms header
+     * @return The requested delay, or null if there is none
+     */
+    public Duration retryAfter(Throwable error) {
+        if (!(error instanceof TransportException transportError)) {
+            return null;
+        }
+        TransportResponse response = transportError.getResponse();
+
+        String millis = response.getHeader("retry-after-ms");
+        if (millis != null) {
+            try {
+                return Duration.ofMillis(Math.max(0, (long) Double.parseDouble(millis.trim())));
+            } catch (NumberFormatException e) {
+                // Fall through to Retry-After
+            }
+        }
+
+        String value = response.getHeader("Retry-After");
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                Instant at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                Duration delay = Duration.between(Instant.now(), at);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private String errorType(TransportResponse response) {
+        try {
+            JsonNode body = objectMapper.readTree(response.getBody());
+            String type = context.extractErrorType(body);
+            if (type != null && !type.isEmpty()) {
+                return type;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not a JSON error body; classify by status
+        }
+
+        CompiledSchema schema = context.getCompiledSchema();
+        return schema != null ? schema.getErrorCode(response.getStatusCode()) : null;
+    }
+}
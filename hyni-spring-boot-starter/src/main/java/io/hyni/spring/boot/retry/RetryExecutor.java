@@ -0,0 +1,91 @@
+package io.hyni.spring.boot.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous attempts until one succeeds, the failure is not transient, the retries
+ * are used up or the deadline would pass
+ *
+ * Delays between attempts are scheduled on a delayed executor, so no thread sleeps while
+ * waiting. The failure of the last attempt is propagated unchanged.
+ */
+public class RetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryExecutor.class);
+
+    private final Executor executor;
+
+    public RetryExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param attempt Starts one attempt
+     * @param policy Retry limits and backoff
+     * @param classifier Decides which failures are transient
+     * @return The result of the first successful attempt, or the last failure
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> attempt, RetryPolicy policy,
+                                            RetryClassifier classifier) {
+        long deadline = policy.getDeadlineNanos() > 0 ? System.nanoTime() + policy.getDeadlineNanos() : 0;
+        return run(attempt, policy, classifier, 0, 0, deadline);
+    }
+
+    private <T> CompletableFuture<T> run(Supplier<CompletableFuture<T>> attempt, RetryPolicy policy,
+                                         RetryClassifier classifier, int retry, long previousDelay, long deadline) {
+        CompletableFuture<T> result;
+        try {
+            result = attempt.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        return result.handle((value, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(value);
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            long delay = nextDelay(cause, policy, classifier, retry, previousDelay, deadline);
+            if (delay < 0) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+
+            return CompletableFuture.runAsync(() -> { },
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executor))
+                .thenCompose(ignored -> run(attempt, policy, classifier, retry + 1, delay, deadline));
+        }).thenCompose(future -> future);
+    }
+
+    /**
+     * @return The delay before the next attempt in nanoseconds, or -1 not to retry
+     */
+    private long nextDelay(Throwable cause, RetryPolicy policy, RetryClassifier classifier,
+                           int retry, long previousDelay, long deadline) {
+        if (retry >= policy.getMaxRetries() || !classifier.isRetryable(cause)) {
+            return -1;
+        }
+
+        long delay = policy.nextDelayNanos(previousDelay);
+        Duration retryAfter = classifier.retryAfter(cause);
+        if (retryAfter != null) {
+            delay = Math.max(delay, retryAfter.toNanos());
+        }
+        if (deadline != 0 && System.nanoTime() + delay - deadline > 0) {
+            logger.debug("Not retrying: next attempt would start after the deadline");
+            return -1;
+        }
+
+        logger.debug("Retrying in {} ms after attempt {} failed: {}",
+            TimeUnit.NANOSECONDS.toMillis(delay), retry + 1, cause.toString());
+        return delay;
+    }
+}
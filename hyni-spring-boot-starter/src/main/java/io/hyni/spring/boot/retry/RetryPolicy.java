@@ -0,0 +1,59 @@
+package io.hyni.spring.boot.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Limits and backoff of retried provider calls
+ *
+ * Delays follow the "decorrelated jitter" scheme: each delay is drawn uniformly between the
+ * initial delay and three times the previous delay, capped at the maximum delay. This
+ * spreads out clients that failed together while still growing roughly exponentially.
+ */
+public class RetryPolicy {
+
+    private final int maxRetries;
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final long deadlineNanos;
+
+    /**
+     * @param maxRetries Retries after the first attempt; zero disables retrying
+     * @param initialDelay Smallest delay between attempts
+     * @param maxDelay Largest delay between attempts, unless the provider asks for more
+     * @param deadline Total time allowed for all attempts; zero or negative for none
+     */
+    public RetryPolicy(int maxRetries, Duration initialDelay, Duration maxDelay, Duration deadline) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Max retries cannot be negative");
+        }
+        this.maxRetries = maxRetries;
+        this.initialDelayNanos = Math.max(1, initialDelay.toNanos());
+        this.maxDelayNanos = Math.max(initialDelayNanos, maxDelay.toNanos());
+        this.deadlineNanos = deadline.isNegative() || deadline.isZero() ? 0 : deadline.toNanos();
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @return The deadline in nanoseconds, or 0 if there is none
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Draws the delay before the next attempt
+     * @param previousDelayNanos The previous delay, or 0 before the first retry
+     * @return The delay in nanoseconds
+     */
+    public long nextDelayNanos(long previousDelayNanos) {
+        long upper = Math.max(initialDelayNanos, Math.min(maxDelayNanos, previousDelayNanos * 3));
+        long delay = upper > initialDelayNanos
+            ? ThreadLocalRandom.current().nextLong(initialDelayNanos, upper + 1)
+            : initialDelayNanos;
+        return Math.min(maxDelayNanos, delay);
+    }
+}
@@ -0,0 +1,90 @@
+package io.hyni.spring.boot.stream;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-subscriber publisher of streamed chat text deltas
+ *
+ * Nothing is sent to the provider until a subscriber subscribes. The source is then started
+ * on the given executor and submits deltas as they are parsed; submission blocks while the
+ * subscriber's buffer is full, which propagates backpressure down to the connection.
+ * Deltas are delivered to the subscriber on a separate executor, so that sources blocked
+ * on slow subscribers cannot take the threads their own deliveries need.
+ */
+public class ChatStreamPublisher implements Flow.Publisher<String> {
+
+    /**
+     * Produces the deltas of one streamed response
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        /**
+         * Starts streaming the response into the sink. Implementations should not hold a
+         * thread while waiting to send, and should stop early once the sink has no
+         * subscribers left.
+         * @return A stage completed once the response has been streamed
+         */
+        CompletionStage<?> stream(SubmissionPublisher<String> sink) throws Exception;
+    }
+
+    private final Executor executor;
+    private final Executor deliveryExecutor;
+    private final Source source;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param executor Starts the source
+     * @param deliveryExecutor Delivers deltas to the subscriber; must not be a bounded pool
+     *                         shared with the executor
+     * @param source Produces the deltas
+     */
+    public ChatStreamPublisher(Executor executor, Executor deliveryExecutor, Source source) {
+        this.executor = executor;
+        this.deliveryExecutor = deliveryExecutor;
+        this.source = source;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super String> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Chat stream supports a single subscriber"));
+            return;
+        }
+
+        SubmissionPublisher<String> sink = new SubmissionPublisher<>(deliveryExecutor, Flow.defaultBufferSize());
+        sink.subscribe(subscriber);
+
+        executor.execute(() -> {
+            CompletionStage<?> streamed;
+            try {
+                streamed = source.stream(sink);
+            } catch (Throwable e) {
+                sink.closeExceptionally(e);
+                return;
+            }
+            streamed.whenComplete((ignored, error) -> {
+                if (error == null) {
+                    sink.close();
+                } else {
+                    sink.closeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package io.hyni.spring.boot.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking transport built on {@link HttpClient}
+ *
+ * A single client is shared by all requests, so connections are pooled per endpoint and
+ * HTTP/2 streams are multiplexed over them. {@link #sendAsync} does not occupy a thread
+ * while waiting for the provider.
+ */
+public class HttpClientTransport implements HyniTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientTransport.class);
+
+    private final Supplier<HttpClient> clientFactory;
+    private final Duration defaultTimeout;
+    private volatile HttpClient client;
+
+    /**
+     * @param connectTimeout Timeout for establishing connections
+     * @param defaultTimeout Response timeout of requests that do not specify one
+     */
+    public HttpClientTransport(Duration connectTimeout, Duration defaultTimeout) {
+        this(connectTimeout, defaultTimeout, null);
+    }
+
+    /**
+     * @param connectTimeout Timeout for establishing connections
+     * @param defaultTimeout Response timeout of requests that do not specify one
+     * @param executor Executor for the client's asynchronous tasks and completions, or null for the client's own
+     */
+    public HttpClientTransport(Duration connectTimeout, Duration defaultTimeout, Executor executor) {
+        this(() -> newClient(connectTimeout, executor), defaultTimeout);
+    }
+
+    /**
+     * Uses the given client for all requests; {@link #resetConnections()} has no effect
+     */
+    public HttpClientTransport(HttpClient client, Duration defaultTimeout) {
+        if (client == null) {
+            throw new IllegalArgumentException("HTTP client cannot be null");
+        }
+        this.clientFactory = null;
+        this.client = client;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    private HttpClientTransport(Supplier<HttpClient> clientFactory, Duration defaultTimeout) {
+        this.clientFactory = clientFactory;
+        this.client = clientFactory.get();
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    private static HttpClient newClient(Duration connectTimeout, Executor executor) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = toHttpRequest(request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> new TransportResponse(
+                response.statusCode(), response.headers().map(), response.body()));
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws IOException {
+        HttpResponse<byte[]> response = execute(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray());
+        return new TransportResponse(response.statusCode(), response.headers().map(), response.body());
+    }
+
+    @Override
+    public InputStream openStream(TransportRequest request) throws IOException {
+        HttpResponse<InputStream> response = execute(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            try (InputStream body = response.body()) {
+                throw new TransportException(new TransportResponse(status, response.headers().map(), body.readAllBytes()));
+            }
+        }
+        return response.body();
+    }
+
+    /**
+     * Replaces the client with a new one and closes the previous client
+     *
+     * Clients can only be closed from Java 21, where closing waits for the requests still
+     * using the client to complete. On older runtimes the previous client's connections are
+     * only released once it is garbage collected.
+     */
+    @Override
+    public void resetConnections() {
+        if (clientFactory == null) {
+            return;
+        }
+        HttpClient previous = client;
+        client = clientFactory.get();
+        if (previous instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Could not close the previous HTTP client: {}", e.getMessage());
+            }
+        }
+    }
+
+    private <T> HttpResponse<T> execute(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for " + request.uri());
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+
+    private HttpRequest toHttpRequest(TransportRequest request) throws IOException {
+        BodyBuffer body = new BodyBuffer();
+        request.getBody().writeTo(body);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+            .setHeader("Content-Type", "application/json")
+            .setHeader("Accept", request.getAccept())
+            .POST(body.toBodyPublisher());
+
+        request.getHeaders().forEach(builder::setHeader);
+
+        Duration timeout = request.getTimeout() != null ? request.getTimeout() : defaultTimeout;
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Hands the serialized body to the client without copying it
+     */
+    private static final class BodyBuffer extends ByteArrayOutputStream {
+
+        private BodyBuffer() {
+            super(1024);
+        }
+
+        private HttpRequest.BodyPublisher toBodyPublisher() {
+            return HttpRequest.BodyPublishers.ofByteArray(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.hyni.spring.boot.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP transport used by {@link io.hyni.spring.boot.HyniTemplate} to reach LLM providers
+ *
+ * Implementations must be thread-safe and are expected to reuse connections across calls.
+ * Error statuses are returned as responses rather than thrown, so that callers can apply
+ * the provider's schema to the error body.
+ */
+public interface HyniTransport {
+
+    /**
+     * Sends a request without blocking the calling thread
+     * @param request The request to send
+     * @return A future completed with the buffered response, or exceptionally on I/O failure
+     */
+    CompletableFuture<TransportResponse> sendAsync(TransportRequest request);
+
+    /**
+     * Sends a request and waits for the buffered response
+     * @param request The request to send
+     * @return The response
+     * @throws IOException If the request could not be sent or the response read
+     */
+    TransportResponse send(TransportRequest request) throws IOException;
+
+    /**
+     * Sends a request and returns the response body as a stream, for server-sent events
+     * @param request The request to send
+     * @return The open response body; closing it releases the connection
+     * @throws TransportException If the provider answered with an error status
+     * @throws IOException If the request could not be sent
+     */
+    InputStream openStream(TransportRequest request) throws IOException;
+
+    /**
+     * Stops reusing the pooled connections, so that later requests open new ones
+     *
+     * Called before the process is checkpointed, as connections cannot be carried over into
+     * a restored process. Requests in flight are not affected. Implementations that cannot
+     * close their connections should document it; the default does nothing.
+     */
+    default void resetConnections() {
+    }
+}
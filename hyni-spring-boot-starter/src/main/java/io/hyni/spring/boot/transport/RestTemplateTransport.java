@@ -0,0 +1,101 @@
+package io.hyni.spring.boot.transport;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Blocking transport built on a {@link RestTemplate}'s request factory and interceptors
+ *
+ * Useful where requests must go through an existing {@code RestTemplate} setup. Request
+ * bodies are written straight to the connection, but {@link #sendAsync} holds a thread of
+ * the given executor for the duration of each call, and per-request timeouts are not
+ * supported; configure them on the request factory instead. {@link #resetConnections()}
+ * does nothing: connections pooled by the request factory, or by the JDK for the default
+ * {@code HttpURLConnection}-based one, stay open.
+ */
+public class RestTemplateTransport implements HyniTransport {
+
+    private final RestTemplate restTemplate;
+    private final Executor executor;
+
+    public RestTemplateTransport(RestTemplate restTemplate, Executor executor) {
+        if (restTemplate == null) {
+            throw new IllegalArgumentException("RestTemplate cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.restTemplate = restTemplate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws IOException {
+        try (ClientHttpResponse response = execute(request)) {
+            return toTransportResponse(response);
+        }
+    }
+
+    @Override
+    public InputStream openStream(TransportRequest request) throws IOException {
+        ClientHttpResponse response = execute(request);
+        try {
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new TransportException(toTransportResponse(response));
+            }
+            return new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        response.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    private ClientHttpResponse execute(TransportRequest request) throws IOException {
+        ClientHttpRequest httpRequest = restTemplate.getRequestFactory().createRequest(request.getUri(), HttpMethod.POST);
+
+        HttpHeaders headers = httpRequest.getHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.ACCEPT, request.getAccept());
+        request.getHeaders().forEach(headers::set);
+
+        request.getBody().writeTo(httpRequest.getBody());
+        return httpRequest.execute();
+    }
+
+    private static TransportResponse toTransportResponse(ClientHttpResponse response) throws IOException {
+        try (InputStream body = response.getBody()) {
+            return new TransportResponse(response.getStatusCode().value(), response.getHeaders(), body.readAllBytes());
+        }
+    }
+}
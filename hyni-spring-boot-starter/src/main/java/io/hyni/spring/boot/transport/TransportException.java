@@ -0,0 +1,23 @@
+package io.hyni.spring.boot.transport;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a streamed request is answered with an error status
+ */
+public class TransportException extends IOException {
+
+    private final transient TransportResponse response;
+
+    public TransportException(TransportResponse response) {
+        super("HTTP " + response.getStatusCode());
+        this.response = response;
+    }
+
+    /**
+     * @return The buffered error response
+     */
+    public TransportResponse getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,138 @@
+package io.hyni.spring.boot.transport;
+
+import io.hyni.core.HeaderBundle;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A JSON POST request to a provider endpoint
+ *
+ * The body is supplied as a writer so that transports able to stream it can serialize
+ * straight to the connection.
+ */
+public class TransportRequest {
+
+    /**
+     * Writes a request body
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final BodyWriter body;
+    private final Duration timeout;
+    private final String accept;
+
+    private TransportRequest(Builder builder) {
+        this.uri = Objects.requireNonNull(builder.uri, "URI cannot be null");
+        this.body = Objects.requireNonNull(builder.body, "Body cannot be null");
+        this.headers = resolveHeaders(builder);
+        this.timeout = builder.timeout;
+        this.accept = builder.accept;
+    }
+
+    private static Map<String, String> resolveHeaders(Builder builder) {
+        // A bundle is immutable, so it is passed on by reference unless headers are added to it
+        if (builder.headers.isEmpty()) {
+            return builder.headerBundle != null ? builder.headerBundle.asMap() : Map.of();
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (builder.headerBundle != null) {
+            headers.putAll(builder.headerBundle.asMap());
+        }
+        headers.putAll(builder.headers);
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public BodyWriter getBody() {
+        return body;
+    }
+
+    /**
+     * @return The response timeout, or null to use the transport's default
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public String getAccept() {
+        return accept;
+    }
+
+    public static class Builder {
+        private URI uri;
+        private HeaderBundle headerBundle;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private BodyWriter body;
+        private Duration timeout;
+        private String accept = "application/json";
+
+        public Builder uri(String uri) {
+            this.uri = URI.create(uri);
+            return this;
+        }
+
+        public Builder uri(URI uri) {
+            this.uri = uri;
+            return this;
+        }
+
+        public Builder header(String name, String value) {
+            this.headers.put(name, value);
+            return this;
+        }
+
+        public Builder headers(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        /**
+         * Sets the provider headers, which headers set individually take precedence over
+         */
+        public Builder headers(HeaderBundle headerBundle) {
+            this.headerBundle = headerBundle;
+            return this;
+        }
+
+        public Builder body(BodyWriter body) {
+            this.body = body;
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder accept(String accept) {
+            this.accept = accept;
+            return this;
+        }
+
+        public TransportRequest build() {
+            return new TransportRequest(this);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.hyni.spring.boot.transport;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A buffered provider response
+ */
+public class TransportResponse {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    public TransportResponse(int statusCode, Map<String, List<String>> headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = headers != null ? headers : Map.of();
+        this.body = body != null ? body : new byte[0];
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the first value of a header, ignoring the case of its name
+     * @param name The header name
+     * @return The value, or null if the header is absent
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (entry.getKey() != null && entry.getKey().equalsIgnoreCase(name) && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The raw response body; must not be modified
+     */
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,464 @@
+package io.hyni.spring.boot;
+
+import com.sun.net.httpserver.HttpServer;
+import io.hyni.core.ContextFactory;
+import io.hyni.core.HeaderBundle;
+import io.hyni.core.SchemaRegistry;
+import io.hyni.spring.boot.autoconfigure.HyniProperties;
+import io.hyni.spring.boot.exception.HyniException;
+import io.hyni.spring.boot.exception.ProviderException;
+import io.hyni.spring.boot.model.ChatRequest;
+import io.hyni.spring.boot.model.ChatResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HyniTemplate HTTP Tests")
+class HyniTemplateHttpTest {
+
+    private HttpServer server;
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final AtomicReference<String> requestApiKey = new AtomicReference<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private volatile int responseStatus = 200;
+    private volatile String responseContentType = "text/event-stream";
+    private volatile String responseBody;
+
+    private SchemaRegistry registry;
+    private HyniProperties properties;
+    private HyniTemplate hyniTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            requestApiKey.set(exchange.getRequestHeaders().getFirst("x-api-key"));
+            Integer failure = failures.poll();
+            if (failure != null) {
+                byte[] error = ("{\"type\":\"error\",\"error\":{\"type\":\"overloaded_error\"," +
+                    "\"message\":\"Overloaded\"}}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(failure, error.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(error);
+                }
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", responseContentType);
+            exchange.sendResponseHeaders(responseStatus, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(responseBody.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.start();
+
+        registry = SchemaRegistry.create()
+            .setSchemaDirectory("src/test/resources/schemas")
+            .build();
+
+        properties = new HyniProperties();
+        properties.getRetry().setInitialDelay(1);
+        properties.getRetry().setMaxDelay(10);
+        for (String provider : List.of("claude", "openai")) {
+            HyniProperties.ProviderConfig config = new HyniProperties.ProviderConfig();
+            config.setApiKey("test-key");
+            config.setEndpoint("http://localhost:" + server.getAddress().getPort() + "/" + provider);
+            properties.getProviders().put(provider, config);
+        }
+
+        hyniTemplate = new HyniTemplate(new ContextFactory(registry), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hyniTemplate.close();
+        server.stop(0);
+    }
+
+    @Nested
+    @DisplayName("Blocking and Async Tests")
+    class BlockingAndAsyncTests {
+
+        @BeforeEach
+        void setUpResponse() {
+            responseContentType = "application/json";
+            responseBody = "{\"model\":\"claude-3-5-sonnet-20241022\"," +
+                "\"content\":[{\"type\":\"text\",\"text\":\"Hello!\"}]}";
+        }
+
+        @Test
+        @DisplayName("Should send a blocking chat request")
+        void shouldSendBlockingRequest() {
+            ChatResponse response = hyniTemplate.chat("claude", userMessage("Hi"));
+
+            assertThat(response.getText()).isEqualTo("Hello!");
+            assertThat(response.getModel()).isEqualTo("claude-3-5-sonnet-20241022");
+            assertThat(requestBody.get()).contains("Hi").contains("\"stream\":false");
+        }
+
+        @Test
+        @DisplayName("Should send the headers of a rotated API key")
+        void shouldSendRotatedApiKey() {
+            hyniTemplate.chat("claude", userMessage("Hi"));
+            assertThat(requestApiKey.get()).isEqualTo("test-key");
+
+            hyniTemplate.configureProvider("claude", "rotated-key");
+            hyniTemplate.chat("claude", userMessage("Hi"));
+            assertThat(requestApiKey.get()).isEqualTo("rotated-key");
+        }
+
+        @Test
+        @DisplayName("Should share the headers of a provider's key until it is rotated")
+        void shouldShareHeadersPerProviderKey() {
+            HeaderBundle first = hyniTemplate.getContext("claude").getHeaderBundle();
+
+            assertThat(hyniTemplate.getContext("claude").getHeaderBundle()).isSameAs(first);
+
+            hyniTemplate.configureProvider("claude", "rotated-key");
+            HeaderBundle rotated = hyniTemplate.getContext("claude").getHeaderBundle();
+            assertThat(rotated).isNotSameAs(first);
+            assertThat(rotated.asMap()).containsEntry("x-api-key", "rotated-key");
+            assertThat(hyniTemplate.getContext("claude").getHeaderBundle()).isSameAs(rotated);
+        }
+
+        @Test
+        @DisplayName("Should complete async chat requests without blocking the caller")
+        void shouldCompleteAsyncRequest() throws Exception {
+            CompletableFuture<ChatResponse> future = hyniTemplate.chatAsync("claude", userMessage("Hi"));
+
+            assertThat(future.get(10, TimeUnit.SECONDS).getText()).isEqualTo("Hello!");
+        }
+
+        @Test
+        @DisplayName("Should send batches concurrently and keep request order")
+        void shouldSendBatch() throws Exception {
+            List<ChatRequest> requests = List.of(userMessage("one"), userMessage("two"), userMessage("three"));
+
+            List<ChatResponse> responses = hyniTemplate.chatAll("claude", requests).get(10, TimeUnit.SECONDS);
+
+            assertThat(responses).hasSize(3).allSatisfy(response -> assertThat(response.getText()).isEqualTo("Hello!"));
+        }
+
+        @Test
+        @DisplayName("Should answer repeated requests from the response cache")
+        void shouldAnswerFromCache() throws Exception {
+            properties.getCache().setEnabled(true);
+            HyniTemplate cachingTemplate = new HyniTemplate(new ContextFactory(registry), properties);
+
+            ChatResponse first = cachingTemplate.chat("claude", userMessage("Hi"));
+            ChatResponse second = cachingTemplate.chatAsync("claude", userMessage("Hi")).get(10, TimeUnit.SECONDS);
+            cachingTemplate.chat("claude", userMessage("Bye"));
+
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.getText()).isEqualTo(first.getText());
+            assertThat(second.isCached()).isTrue();
+            assertThat(first.isCached()).isFalse();
+            assertThat(requestCount.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should return pooled contexts after each request")
+        void shouldRecyclePooledContexts() throws Exception {
+            ContextFactory factory = new ContextFactory(registry);
+            HyniTemplate pooledTemplate = new HyniTemplate(factory, properties);
+
+            pooledTemplate.chat("claude", userMessage("one"));
+            pooledTemplate.chatAsync("claude", userMessage("two")).get(10, TimeUnit.SECONDS);
+            responseStatus = 401;
+            assertThatThrownBy(() -> pooledTemplate.chat("claude", userMessage("three")))
+                .isInstanceOf(HyniException.class);
+
+            ContextFactory.PoolStats stats = factory.getPoolStats("claude");
+            assertThat(stats.getBorrowCount()).isEqualTo(3);
+            assertThat(stats.getCreatedCount()).isEqualTo(1);
+            assertThat(stats.getIdleCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should extract the response without retaining the raw tree")
+        void shouldExtractWithoutRawTree() {
+            responseBody = "{\"model\":\"claude-3-5-sonnet-20241022\",\"stop_reason\":\"end_turn\"," +
+                "\"content\":[{\"type\":\"text\",\"text\":\"Hello!\"}],\"usage\":{\"output_tokens\":2}}";
+            properties.getResponse().setRetainRaw(false);
+
+            ChatResponse response = hyniTemplate.chat("claude", userMessage("Hi"));
+
+            assertThat(response.getText()).isEqualTo("Hello!");
+            assertThat(response.getModel()).isEqualTo("claude-3-5-sonnet-20241022");
+            assertThat(response.getStopReason()).isEqualTo("end_turn");
+            assertThat(response.getUsage().get("output_tokens").asInt()).isEqualTo(2);
+            assertThat(response.getRawResponse()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should retry transient provider errors")
+        void shouldRetryTransientErrors() throws Exception {
+            failures.add(529);
+            failures.add(529);
+
+            ChatResponse response = hyniTemplate.chatAsync("claude", userMessage("Hi")).get(10, TimeUnit.SECONDS);
+
+            assertThat(response.getText()).isEqualTo("Hello!");
+            assertThat(requestCount.get()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should give up after the schema's max retries")
+        void shouldGiveUpAfterMaxRetries() {
+            for (int i = 0; i < 5; i++) {
+                failures.add(529);
+            }
+
+            assertThatThrownBy(() -> hyniTemplate.chat("claude", userMessage("Hi")))
+                .isInstanceOf(HyniException.class)
+                .cause()
+                .isInstanceOfSatisfying(ProviderException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(529);
+                    assertThat(e.getErrorType()).isEqualTo("overloaded_error");
+                });
+            // One attempt plus api.max_retries (3) retries
+            assertThat(requestCount.get()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should surface the provider error message")
+        void shouldSurfaceProviderError() {
+            responseStatus = 401;
+            responseBody = "{\"type\":\"error\",\"error\":{\"type\":\"authentication_error\",\"message\":\"invalid x-api-key\"}}";
+
+            assertThatThrownBy(() -> hyniTemplate.chatAsync("claude", userMessage("Hi")).join())
+                .hasCauseInstanceOf(HyniException.class)
+                .rootCause()
+                .hasMessageContaining("HTTP 401")
+                .hasMessageContaining("invalid x-api-key");
+            // Authentication errors are not retried
+            assertThat(requestCount.get()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming Tests")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("Should publish Claude text deltas in order")
+        void shouldPublishClaudeDeltas() throws Exception {
+            responseBody =
+                "event: message_start\ndata: {\"type\":\"message_start\",\"message\":{}}\n\n" +
+                "event: content_block_delta\ndata: {\"type\":\"content_block_delta\",\"delta\":{\"type\":\"text_delta\",\"text\":\"Hello\"}}\n\n" +
+                "event: ping\ndata: {\"type\":\"ping\"}\n\n" +
+                "event: content_block_delta\ndata: {\"type\":\"content_block_delta\",\"delta\":{\"type\":\"text_delta\",\"text\":\", world\"}}\n\n" +
+                "event: message_stop\ndata: {\"type\":\"message_stop\"}\n\n";
+
+            List<String> deltas = collect(hyniTemplate.chatStream("claude", userMessage("Hi")));
+
+            assertThat(deltas).containsExactly("Hello", ", world");
+            assertThat(requestBody.get()).contains("\"stream\":true");
+        }
+
+        @Test
+        @DisplayName("Should stop at the OpenAI done marker")
+        void shouldStopAtDoneMarker() throws Exception {
+            responseBody =
+                "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}\n\n" +
+                "data: {\"choices\":[{\"delta\":{\"content\":\"Hi\"}}]}\n\n" +
+                "data: {\"choices\":[{\"delta\":{\"content\":\" there\"}}]}\n\n" +
+                "data: [DONE]\n\n" +
+                "data: {\"choices\":[{\"delta\":{\"content\":\"ignored\"}}]}\n\n";
+
+            List<String> deltas = collect(hyniTemplate.chatStream("openai", userMessage("Hi")));
+
+            assertThat(deltas).containsExactly("Hi", " there");
+        }
+
+        @Test
+        @DisplayName("Should signal stream errors to the subscriber")
+        void shouldSignalStreamErrors() {
+            responseBody = "event: error\ndata: {\"type\":\"error\",\"error\":{\"type\":\"overloaded_error\",\"message\":\"Overloaded\"}}\n\n";
+
+            assertThatThrownBy(() -> collect(hyniTemplate.chatStream("claude", userMessage("Hi"))))
+                .hasCauseInstanceOf(HyniException.class)
+                .hasMessageContaining("Overloaded");
+        }
+
+        @Test
+        @DisplayName("Should serve more concurrent streams than platform threads")
+        void shouldServeMoreStreamsThanPlatformThreads() throws Exception {
+            responseBody = "data: {\"choices\":[{\"delta\":{\"content\":\"Hi\"}}]}\n\ndata: [DONE]\n\n";
+            properties.getExecution().setMode(HyniProperties.ExecutionConfig.Mode.PLATFORM);
+            properties.getExecution().setPoolSize(2);
+
+            try (HyniTemplate template = new HyniTemplate(new ContextFactory(registry), properties)) {
+                for (List<String> deltas : collectConcurrently(template, 6)) {
+                    assertThat(deltas).containsExactly("Hi");
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should not hold platform threads while streams wait to retry")
+        void shouldNotHoldPlatformThreadsWhileStreamsWait() throws Exception {
+            responseBody = "data: {\"choices\":[{\"delta\":{\"content\":\"Hi\"}}]}\n\ndata: [DONE]\n\n";
+            for (int i = 0; i < 3; i++) {
+                failures.add(529);
+            }
+            properties.getRetry().setInitialDelay(1000);
+            properties.getRetry().setMaxDelay(1000);
+            properties.getExecution().setMode(HyniProperties.ExecutionConfig.Mode.PLATFORM);
+            properties.getExecution().setPoolSize(1);
+
+            try (HyniTemplate template = new HyniTemplate(new ContextFactory(registry), properties)) {
+                long start = System.nanoTime();
+                for (List<String> deltas : collectConcurrently(template, 3)) {
+                    assertThat(deltas).containsExactly("Hi");
+                }
+
+                // Waiting on the only thread would run the three delays one after another
+                assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2500);
+                assertThat(requestCount.get()).isEqualTo(6);
+            }
+        }
+
+        @Test
+        @DisplayName("Should deliver streams that outgrow the subscriber buffer on a saturated pool")
+        void shouldDeliverLongStreamsOnSaturatedPool() throws Exception {
+            int deltas = Flow.defaultBufferSize() * 3;
+            responseBody = "data: {\"choices\":[{\"delta\":{\"content\":\"x\"}}]}\n\n".repeat(deltas) +
+                "data: [DONE]\n\n";
+            properties.getExecution().setMode(HyniProperties.ExecutionConfig.Mode.PLATFORM);
+            properties.getExecution().setPoolSize(2);
+
+            try (HyniTemplate template = new HyniTemplate(new ContextFactory(registry), properties)) {
+                for (List<String> stream : collectConcurrently(template, 2)) {
+                    assertThat(stream).hasSize(deltas);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should stop the threads it created when closed")
+        void shouldStopOwnThreadsWhenClosed() throws Exception {
+            responseBody = "data: {\"choices\":[{\"delta\":{\"content\":\"Hi\"}}]}\n\ndata: [DONE]\n\n";
+            properties.getExecution().setMode(HyniProperties.ExecutionConfig.Mode.PLATFORM);
+            properties.getExecution().setPoolSize(2);
+            HyniTemplate template = new HyniTemplate(new ContextFactory(registry), properties);
+
+            AtomicReference<Thread> deliveryThread = new AtomicReference<>();
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            template.chatStream("openai", userMessage("Hi")).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(String item) {
+                    deliveryThread.set(Thread.currentThread());
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(null);
+                }
+            });
+            done.get(10, TimeUnit.SECONDS);
+
+            template.close();
+
+            deliveryThread.get().join(TimeUnit.SECONDS.toMillis(10));
+            assertThat(deliveryThread.get().isAlive()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject a second subscriber")
+        void shouldRejectSecondSubscriber() throws Exception {
+            responseBody = "data: [DONE]\n\n";
+            Flow.Publisher<String> publisher = hyniTemplate.chatStream("openai", userMessage("Hi"));
+            collect(publisher);
+
+            assertThatThrownBy(() -> collect(publisher))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static ChatRequest userMessage(String content) {
+        return ChatRequest.builder().addMessage("user", content).build();
+    }
+
+    private static List<List<String>> collectConcurrently(HyniTemplate template, int count) throws Exception {
+        List<CompletableFuture<List<String>>> streams = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            streams.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return collect(template.chatStream("openai", userMessage("Hi")));
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }));
+        }
+
+        List<List<String>> results = new ArrayList<>();
+        for (CompletableFuture<List<String>> stream : streams) {
+            results.add(stream.get(20, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private static List<String> collect(Flow.Publisher<String> publisher) throws Exception {
+        List<String> items = new CopyOnWriteArrayList<>();
+        CompletableFuture<List<String>> done = new CompletableFuture<>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(items);
+            }
+        });
+
+        return done.get(10, TimeUnit.SECONDS);
+    }
+}
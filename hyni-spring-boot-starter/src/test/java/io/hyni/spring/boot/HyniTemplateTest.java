@@ -1,9 +1,13 @@
 package io.hyni.spring.boot;
 
+import io.hyni.core.CompiledSchema;
 import io.hyni.core.ContextFactory;
 import io.hyni.core.GeneralContext;
+import io.hyni.core.HeaderBundle;
 import io.hyni.spring.boot.autoconfigure.HyniProperties;
 import io.hyni.spring.boot.exception.HyniException;
+import io.hyni.spring.boot.transport.HyniTransport;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +16,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -19,6 +25,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class HyniTemplateTest {
 
+    private static final CompiledSchema OPENAI_SCHEMA = CompiledSchema.load("schemas/openai.json");
+
     @Mock
     private ContextFactory contextFactory;
 
@@ -36,6 +44,27 @@ class HyniTemplateTest {
         hyniTemplate = new HyniTemplate(contextFactory, properties);
     }
 
+    @AfterEach
+    void tearDown() {
+        hyniTemplate.close();
+    }
+
+    @Test
+    void testCloseLeavesSuppliedExecutorsRunning() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService deliveryExecutor = Executors.newSingleThreadExecutor();
+        try {
+            new HyniTemplate(contextFactory, properties, mock(HyniTransport.class), executor, deliveryExecutor)
+                .close();
+
+            assertThat(executor.isShutdown()).isFalse();
+            assertThat(deliveryExecutor.isShutdown()).isFalse();
+        } finally {
+            executor.shutdown();
+            deliveryExecutor.shutdown();
+        }
+    }
+
     @Test
     void testConfigureProvider() {
         // Execute
@@ -44,6 +73,8 @@ class HyniTemplateTest {
         // This should not throw any exception
         assertThatCode(() -> hyniTemplate.configureProvider("openai", "test-api-key"))
             .doesNotThrowAnyException();
+        assertThatCode(() -> hyniTemplate.configureProvider("openai", null))
+            .doesNotThrowAnyException();
     }
 
     @Test
@@ -73,6 +104,7 @@ class HyniTemplateTest {
     void testGetContext() {
         // Setup
         when(contextFactory.createContext("openai")).thenReturn(generalContext);
+        when(generalContext.getCompiledSchema()).thenReturn(OPENAI_SCHEMA);
 
         // Configure provider
         hyniTemplate.configureProvider("openai", "test-api-key");
@@ -83,7 +115,7 @@ class HyniTemplateTest {
         // Verify
         assertThat(context).isNotNull();
         verify(contextFactory).createContext("openai");
-        verify(generalContext).setApiKey("test-api-key");
+        verify(generalContext).setApiKey(eq("test-api-key"), any(HeaderBundle.class));
     }
 
     @Test
@@ -107,12 +139,13 @@ class HyniTemplateTest {
         properties.getProviders().put("openai", providerConfig);
 
         when(contextFactory.createContext("openai")).thenReturn(generalContext);
+        when(generalContext.getCompiledSchema()).thenReturn(OPENAI_SCHEMA);
 
         // Execute
         GeneralContext context = hyniTemplate.getContext("openai");
 
         // Verify
-        verify(generalContext).setApiKey("props-api-key");
+        verify(generalContext).setApiKey(eq("props-api-key"), any(HeaderBundle.class));
         verify(generalContext).setModel("gpt-4");
     }
 }
@@ -3,6 +3,7 @@ package io.hyni.spring.boot.autoconfigure;
 import io.hyni.core.ContextFactory;
 import io.hyni.core.SchemaRegistry;
 import io.hyni.spring.boot.HyniTemplate;
+import io.hyni.spring.boot.crac.HyniCracResource;
 import io.hyni.spring.boot.interceptor.LoggingInterceptor;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -21,6 +22,7 @@ class HyniAutoConfigurationTest {
             assertThat(context).hasSingleBean(SchemaRegistry.class);
             assertThat(context).hasSingleBean(ContextFactory.class);
             assertThat(context).hasSingleBean(HyniTemplate.class);
+            assertThat(context).hasBean("hyniDeliveryExecutor");
             assertThat(context).doesNotHaveBean(LoggingInterceptor.class); // Disabled by default
         });
     }
@@ -57,6 +59,44 @@ class HyniAutoConfigurationTest {
             });
     }
 
+    @Test
+    void warmsUpProvidersWhenEnabled() {
+        contextRunner
+            .withPropertyValues("hyni.warmup=true")
+            .run(context -> {
+                ContextFactory factory = context.getBean(ContextFactory.class);
+
+                assertThat(factory.getAvailableProviders()).isNotEmpty();
+                assertThat(factory.getCacheStats().getCacheSize()).isEqualTo(factory.getAvailableProviders().size());
+                for (String provider : factory.getAvailableProviders()) {
+                    assertThat(factory.getPoolStats(provider).getIdleCount()).isEqualTo(1);
+                }
+            });
+    }
+
+    @Test
+    void doesNotWarmUpByDefault() {
+        contextRunner.run(context ->
+            assertThat(context.getBean(ContextFactory.class).getCacheStats().getCacheSize()).isZero());
+    }
+
+    @Test
+    void registersCheckpointHooks() {
+        contextRunner
+            .withPropertyValues("hyni.watch-schemas=true")
+            .run(context -> {
+                assertThat(context).hasSingleBean(HyniCracResource.class);
+                HyniCracResource resource = context.getBean(HyniCracResource.class);
+                SchemaRegistry registry = context.getBean(SchemaRegistry.class);
+
+                resource.beforeCheckpoint(null);
+                resource.afterRestore(null);
+
+                assertThat(registry.isWatching()).isTrue();
+                assertThat(context.getBean(HyniTemplate.class).getAvailableProviders()).isNotEmpty();
+            });
+    }
+
     @Test
     void providerConfigurationLoaded() {
         contextRunner
@@ -0,0 +1,70 @@
+package io.hyni.spring.boot.cache;
+
+import io.hyni.spring.boot.model.ChatRequest;
+import io.hyni.spring.boot.model.ChatResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ResponseCache Tests")
+class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(2, Duration.ofMinutes(10));
+
+    private static ChatRequest request(String content) {
+        return ChatRequest.builder().systemMessage("Classify").addMessage("user", content).build();
+    }
+
+    private static ChatResponse response(String text) {
+        return ChatResponse.builder().provider("openai").text(text).build();
+    }
+
+    @Test
+    @DisplayName("Should produce the same key regardless of parameter order")
+    void shouldProduceCanonicalKeys() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("temperature", 0);
+        first.put("max_tokens", 10);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("max_tokens", 10);
+        second.put("temperature", 0);
+
+        String key = cache.key("openai", "gpt-4o", request("spam?"), first);
+
+        assertThat(cache.key("openai", "gpt-4o", request("spam?"), second)).isEqualTo(key);
+        assertThat(cache.key("openai", "gpt-4o-mini", request("spam?"), first)).isNotEqualTo(key);
+        assertThat(cache.key("claude", "gpt-4o", request("spam?"), first)).isNotEqualTo(key);
+        assertThat(cache.key("openai", "gpt-4o", request("ham?"), first)).isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used response")
+    void shouldEvictLeastRecentlyUsed() {
+        cache.put("a", response("A"));
+        cache.put("b", response("B"));
+        cache.get("a");
+        cache.put("c", response("C"));
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNotNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should expire responses after the TTL")
+    void shouldExpireResponses() throws InterruptedException {
+        ResponseCache shortLived = new ResponseCache(10, Duration.ofMillis(1));
+        shortLived.put("a", response("A"));
+
+        Thread.sleep(5);
+
+        assertThat(shortLived.get("a")).isNull();
+        assertThat(shortLived.size()).isZero();
+    }
+}
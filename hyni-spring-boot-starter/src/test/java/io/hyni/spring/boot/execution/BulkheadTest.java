@@ -0,0 +1,78 @@
+package io.hyni.spring.boot.execution;
+
+import io.hyni.spring.boot.exception.HyniException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Bulkhead Tests")
+class BulkheadTest {
+
+    @Test
+    @DisplayName("Should grant permits up to the limit and queue the rest")
+    void shouldQueueBeyondLimit() {
+        Bulkhead bulkhead = new Bulkhead("claude", 2, 10);
+
+        assertThat(bulkhead.acquire()).isCompleted();
+        assertThat(bulkhead.acquire()).isCompleted();
+        CompletableFuture<Void> third = bulkhead.acquire();
+
+        assertThat(third).isNotDone();
+        assertThat(bulkhead.getQueuedCount()).isEqualTo(1);
+
+        bulkhead.release();
+
+        assertThat(third).isCompleted();
+        assertThat(bulkhead.getActiveCount()).isEqualTo(2);
+        assertThat(bulkhead.getQueuedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject callers once the queue is full")
+    void shouldRejectWhenQueueFull() {
+        Bulkhead bulkhead = new Bulkhead("openai", 1, 0);
+        bulkhead.acquire();
+
+        assertThat(bulkhead.acquire())
+            .failsWithin(Duration.ZERO)
+            .withThrowableOfType(ExecutionException.class)
+            .withCauseInstanceOf(HyniException.class)
+            .withMessageContaining("openai");
+    }
+
+    @Test
+    @DisplayName("Should skip waiters that were cancelled")
+    void shouldSkipCancelledWaiters() {
+        Bulkhead bulkhead = new Bulkhead("mistral", 1, 10);
+        bulkhead.acquire();
+        CompletableFuture<Void> cancelled = bulkhead.acquire();
+        CompletableFuture<Void> waiting = bulkhead.acquire();
+
+        cancelled.cancel(false);
+        bulkhead.release();
+
+        assertThat(waiting).isCompleted();
+        bulkhead.release();
+        assertThat(bulkhead.getActiveCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should create executors for each mode")
+    void shouldCreateExecutors() throws Exception {
+        ExecutorService virtual = HyniExecutors.virtualThreadPerTask();
+        ExecutorService bounded = HyniExecutors.boundedPool(2);
+        try {
+            assertThat(virtual.submit(() -> "ok").get()).isEqualTo("ok");
+            assertThat(bounded.submit(() -> Thread.currentThread().isDaemon()).get()).isTrue();
+        } finally {
+            virtual.shutdown();
+            bounded.shutdown();
+        }
+    }
+}
@@ -25,5 +25,27 @@ class ChatResponseTest {
         assertThat(response.getModel()).isEqualTo("gpt-4");
         assertThat(response.getDuration()).isEqualTo(1500L);
         assertThat(response.getRawResponse()).isEqualTo(rawResponse);
+        assertThat(response.isCached()).isFalse();
+    }
+
+    @Test
+    void testToBuilderCopiesFields() {
+        ChatResponse response = ChatResponse.builder()
+            .provider("openai")
+            .text("Hello")
+            .model("gpt-4")
+            .duration(1500L)
+            .stopReason("stop")
+            .build();
+
+        ChatResponse copy = response.toBuilder().duration(0L).cached(true).build();
+
+        assertThat(copy.getProvider()).isEqualTo("openai");
+        assertThat(copy.getText()).isEqualTo("Hello");
+        assertThat(copy.getModel()).isEqualTo("gpt-4");
+        assertThat(copy.getStopReason()).isEqualTo("stop");
+        assertThat(copy.getDuration()).isZero();
+        assertThat(copy.isCached()).isTrue();
+        assertThat(response.getDuration()).isEqualTo(1500L);
     }
 }
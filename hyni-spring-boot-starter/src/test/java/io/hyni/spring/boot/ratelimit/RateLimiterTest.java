@@ -0,0 +1,84 @@
+package io.hyni.spring.boot.ratelimit;
+
+import io.hyni.core.CompiledSchema;
+import io.hyni.spring.boot.autoconfigure.HyniProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    @Test
+    @DisplayName("Should allow a burst of one minute of requests, then pace them")
+    void shouldPaceRequestsAfterBurst() {
+        long now = System.nanoTime();
+        RateLimiter limiter = new RateLimiter(60, 0);
+
+        for (int i = 0; i < 60; i++) {
+            assertThat(limiter.reserve(0, FOREVER, now)).isZero();
+        }
+        assertThat(limiter.reserve(0, FOREVER, now)).isEqualTo(SECOND);
+        assertThat(limiter.reserve(0, FOREVER, now)).isEqualTo(2 * SECOND);
+    }
+
+    @Test
+    @DisplayName("Should charge the token quota by request cost")
+    void shouldChargeTokens() {
+        long now = System.nanoTime();
+        RateLimiter limiter = new RateLimiter(0, 1000);
+
+        assertThat(limiter.reserve(600, FOREVER, now)).isZero();
+        // 200 tokens over the quota take 12 seconds to refill at 1000 per minute
+        assertThat(limiter.reserve(600, FOREVER, now)).isEqualTo(12 * SECOND);
+    }
+
+    @Test
+    @DisplayName("Should fail fast without reserving when the wait is too long")
+    void shouldFailFastWithoutReserving() {
+        long now = System.nanoTime();
+        RateLimiter limiter = new RateLimiter(1, 1000);
+
+        assertThat(limiter.reserve(100, 0, now)).isZero();
+        assertThat(limiter.reserve(100, 0, now)).isEqualTo(-1);
+
+        // The rejected request did not consume quota
+        assertThat(limiter.reserve(100, 0, now + 60 * SECOND)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refund the request quota when the token quota rejects")
+    void shouldRefundRequestQuota() {
+        long now = System.nanoTime();
+        RateLimiter limiter = new RateLimiter(2, 100);
+
+        assertThat(limiter.reserve(500, 0, now)).isEqualTo(-1);
+        assertThat(limiter.reserve(50, 0, now)).isZero();
+        assertThat(limiter.reserve(50, 0, now)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should resolve quotas from the schema with property overrides")
+    void shouldResolveQuotas() {
+        CompiledSchema schema = CompiledSchema.load("schemas/claude.json");
+        HyniProperties properties = new HyniProperties();
+        HyniProperties.ProviderConfig config = new HyniProperties.ProviderConfig();
+        config.setRequestsPerMinute(1);
+        properties.getProviders().put("claude", config);
+
+        RateLimiterRegistry registry = new RateLimiterRegistry(properties);
+        RateLimiter limiter = registry.get("claude", "key-1", schema);
+
+        assertThat(registry.get("claude", "key-1", schema)).isSameAs(limiter);
+        assertThat(registry.get("claude", "key-2", schema)).isNotSameAs(limiter);
+        assertThat(limiter.reserve(10, 0)).isZero();
+        assertThat(limiter.reserve(10, 0)).isEqualTo(-1);
+        assertThat(new RateLimiter(0, 0).isUnlimited()).isTrue();
+    }
+}
@@ -0,0 +1,77 @@
+package io.hyni.spring.boot.retry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hyni.core.GeneralContext;
+import io.hyni.spring.boot.transport.TransportException;
+import io.hyni.spring.boot.transport.TransportResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RetryClassifier Tests")
+class RetryClassifierTest {
+
+    private final RetryClassifier classifier =
+        new RetryClassifier(new GeneralContext("schemas/claude.json"), new ObjectMapper());
+
+    private static TransportResponse response(int status, String body, Map<String, List<String>> headers) {
+        return new TransportResponse(status, headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String error(String type) {
+        return "{\"type\":\"error\",\"error\":{\"type\":\"" + type + "\",\"message\":\"m\"}}";
+    }
+
+    @Test
+    @DisplayName("Should retry only transient error types")
+    void shouldRetryTransientErrorTypes() {
+        assertThat(classifier.isRetryable(response(529, error("overloaded_error"), Map.of()))).isTrue();
+        assertThat(classifier.isRetryable(response(429, error("rate_limit_error"), Map.of()))).isTrue();
+        assertThat(classifier.isRetryable(response(401, error("authentication_error"), Map.of()))).isFalse();
+        assertThat(classifier.isRetryable(response(400, error("invalid_request_error"), Map.of()))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should classify by the schema's error codes when the body has no type")
+    void shouldClassifyByStatus() {
+        assertThat(classifier.isRetryable(response(500, "<html>", Map.of()))).isTrue();
+        assertThat(classifier.isRetryable(response(403, "", Map.of()))).isFalse();
+        assertThat(classifier.isRetryable(response(503, "", Map.of()))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should retry network failures but not other exceptions")
+    void shouldRetryNetworkFailures() {
+        assertThat(classifier.isRetryable(new HttpTimeoutException("timed out"))).isTrue();
+        assertThat(classifier.isRetryable(new IOException("reset"))).isTrue();
+        assertThat(classifier.isRetryable(new IllegalStateException())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should read Retry-After as seconds, HTTP date or milliseconds")
+    void shouldReadRetryAfter() {
+        assertThat(classifier.retryAfter(new TransportException(
+            response(429, "", Map.of("Retry-After", List.of("3")))))).isEqualTo(Duration.ofSeconds(3));
+        assertThat(classifier.retryAfter(new TransportException(
+            response(429, "", Map.of("retry-after-ms", List.of("250")))))).isEqualTo(Duration.ofMillis(250));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30));
+        assertThat(classifier.retryAfter(new TransportException(
+            response(503, "", Map.of("retry-after", List.of(date))))))
+            .isBetween(Duration.ofSeconds(28), Duration.ofSeconds(30));
+
+        assertThat(classifier.retryAfter(new TransportException(response(503, "", Map.of())))).isNull();
+        assertThat(classifier.retryAfter(new IOException())).isNull();
+    }
+}
@@ -0,0 +1,36 @@
+package io.hyni.spring.boot.retry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RetryPolicy Tests")
+class RetryPolicyTest {
+
+    private static final long MILLI = Duration.ofMillis(1).toNanos();
+
+    @Test
+    @DisplayName("Should draw decorrelated jitter between the initial delay and three times the previous delay")
+    void shouldDrawDecorrelatedJitter() {
+        RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(10), Duration.ZERO);
+
+        assertThat(policy.nextDelayNanos(0)).isEqualTo(100 * MILLI);
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.nextDelayNanos(200 * MILLI)).isBetween(100 * MILLI, 600 * MILLI);
+        }
+    }
+
+    @Test
+    @DisplayName("Should cap delays at the maximum")
+    void shouldCapDelays() {
+        RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(5));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.nextDelayNanos(10_000 * MILLI)).isBetween(100 * MILLI, 500 * MILLI);
+        }
+        assertThat(policy.getDeadlineNanos()).isEqualTo(Duration.ofSeconds(5).toNanos());
+    }
+}
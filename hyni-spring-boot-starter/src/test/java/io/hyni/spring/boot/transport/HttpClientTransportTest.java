@@ -0,0 +1,126 @@
+package io.hyni.spring.boot.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HttpClientTransport Tests")
+class HttpClientTransportTest {
+
+    private HttpServer server;
+    private final AtomicReference<String> apiKeyHeader = new AtomicReference<>();
+    private final AtomicReference<Integer> clientPort = new AtomicReference<>();
+    private volatile int status = 200;
+    private volatile long delayMillis;
+
+    private HttpClientTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            apiKeyHeader.set(exchange.getRequestHeaders().getFirst("x-api-key"));
+            clientPort.set(exchange.getRemoteAddress().getPort());
+            byte[] echo = exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status, echo.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(echo);
+            }
+        });
+        server.start();
+
+        transport = new HttpClientTransport(Duration.ofSeconds(5), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private TransportRequest request(String body, Duration timeout) {
+        return TransportRequest.builder()
+            .uri("http://localhost:" + server.getAddress().getPort() + "/v1/messages")
+            .header("x-api-key", "secret")
+            .timeout(timeout)
+            .body(out -> out.write(body.getBytes(StandardCharsets.UTF_8)))
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should send the body and headers asynchronously")
+    void shouldSendAsync() {
+        TransportResponse response = transport.sendAsync(request("{\"a\":1}", null)).join();
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"a\":1}");
+        assertThat(apiKeyHeader.get()).isEqualTo("secret");
+    }
+
+    @Test
+    @DisplayName("Should open a new connection after resetting connections")
+    void shouldReconnectAfterReset() throws IOException {
+        transport.send(request("{}", null));
+        int firstPort = clientPort.get();
+        transport.send(request("{}", null));
+        assertThat(clientPort.get()).isEqualTo(firstPort);
+
+        transport.resetConnections();
+        TransportResponse response = transport.send(request("{}", null));
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(clientPort.get()).isNotEqualTo(firstPort);
+    }
+
+    @Test
+    @DisplayName("Should return error statuses instead of throwing")
+    void shouldReturnErrorStatuses() throws IOException {
+        status = 429;
+
+        TransportResponse response = transport.send(request("{}", null));
+
+        assertThat(response.isSuccessful()).isFalse();
+        assertThat(response.getStatusCode()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should honour the per-request timeout")
+    void shouldHonourRequestTimeout() {
+        delayMillis = 1000;
+
+        assertThatThrownBy(() -> transport.sendAsync(request("{}", Duration.ofMillis(100))).join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(HttpTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("Should open a stream or report the error response")
+    void shouldOpenStream() throws IOException {
+        try (InputStream body = transport.openStream(request("data: x\n\n", null))) {
+            assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("data: x\n\n");
+        }
+
+        status = 500;
+        assertThatThrownBy(() -> transport.openStream(request("{\"error\":{}}", null)))
+            .isInstanceOfSatisfying(TransportException.class,
+                e -> assertThat(e.getResponse().getStatusCode()).isEqualTo(500));
+    }
+}